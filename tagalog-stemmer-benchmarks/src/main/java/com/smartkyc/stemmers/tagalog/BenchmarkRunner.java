@@ -0,0 +1,34 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}.
+ * <p>
+ * Accepts the usual JMH command line options and always enables the GC profiler, so every run reports
+ * {@code gc.alloc.rate.norm} (bytes allocated per token) next to the timings. Results are also written to
+ * {@code jmh-result.json} for comparison between releases.
+ */
+public final class BenchmarkRunner
+{
+	private BenchmarkRunner()
+	{
+	}
+
+	public static void main(final String[] args) throws RunnerException, CommandLineOptionException
+	{
+		final Options options = new OptionsBuilder().parent(new CommandLineOptions(args)) //
+				.addProfiler(GCProfiler.class) //
+				.resultFormat(ResultFormatType.JSON) //
+				.result("jmh-result.json") //
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,80 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vowel counts over the ranges the prefix stages ask for, {@code [k, length)} for the first {@code queries} prefix
+ * lengths {@code k}, answered by scanning through the character class table as the stemmer does, and by a prefix-sum
+ * view built once per token. A stage asks one to three times for the prefixes a token matches, and builds the view anew
+ * because the previous stage changed the token. Scores are per token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CharClassBenchmark
+{
+	@Param({ "1", "3", "10" })
+	private int queries;
+
+	private String[] words;
+
+	private int[] vowels;
+
+	@Setup
+	public void setUp()
+	{
+		words = Corpus.words();
+		int longest = 0;
+		for (final String word : words) {
+			longest = Math.max(longest, word.length());
+		}
+		vowels = new int[longest + 1];
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Corpus.SIZE)
+	public int rangeScan()
+	{
+		int total = 0;
+		for (final String word : words) {
+			final int length = word.length();
+			for (int from = 0; from < Math.min(queries, length); from++) {
+				total += TagalogStemmer.countVowel(word, from, length);
+			}
+		}
+		return total;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Corpus.SIZE)
+	public int prefixSums()
+	{
+		int total = 0;
+		for (final String word : words) {
+			final int length = word.length();
+			for (int i = 0; i < length; i++) {
+				vowels[i + 1] = vowels[i] + (TagalogStemmer.isVowel(word.charAt(i)) ? 1 : 0);
+			}
+			for (int from = 0; from < Math.min(queries, length); from++) {
+				total += vowels[length] - vowels[from];
+			}
+		}
+		return total;
+	}
+}
@@ -0,0 +1,51 @@
+package com.smartkyc.stemmers.tagalog;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The word/root pairs of {@code root-word.txt} used as benchmark input.
+ */
+final class Corpus
+{
+	static final int SIZE = 17764;
+
+	private Corpus()
+	{
+	}
+
+	/**
+	 * Returns the lower-cased words of the corpus in file order.
+	 */
+	static String[] words()
+	{
+		final List<String> words = new ArrayList<>(SIZE);
+		try (InputStream stream = Corpus.class.getResourceAsStream("/root-word.txt")) {
+			if (stream == null) {
+				throw new IOException("Unable to create input stream from resource.");
+			}
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					final String[] parts = line.split(" : ");
+					if (parts.length == 2) {
+						words.add(parts[0].trim().toLowerCase(Locale.ROOT));
+					}
+				}
+			}
+		} catch (final IOException e) {
+			throw new UncheckedIOException("Failed to read benchmark corpus", e);
+		}
+		if (words.size() != SIZE) {
+			throw new IllegalStateException("Expected " + SIZE + " corpus words but found " + words.size());
+		}
+		return words.toArray(new String[0]);
+	}
+}
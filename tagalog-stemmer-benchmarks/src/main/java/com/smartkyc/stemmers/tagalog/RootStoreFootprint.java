@@ -0,0 +1,132 @@
+package com.smartkyc.stemmers.tagalog;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Compares the memory footprint of the root stores for a synthetic lexicon: the bundled roots, repeated with numbered
+ * variants up to the requested size (two million by default).
+ * <p>
+ * For each store it reports the time to build or load it, the heap retained after a full GC, the direct memory held and
+ * the time of one full GC with the store alive, which grows with the number of heap objects to mark. The lexicon is also
+ * compiled into a {@link RootDictionaryImage}, which is loaded both by reading it into a {@link RootDictionary} and by
+ * mapping it as a {@link MappedRootStore}.
+ * <p>
+ * {@code java -cp benchmarks.jar com.smartkyc.stemmers.tagalog.RootStoreFootprint [entries]}
+ */
+public final class RootStoreFootprint
+{
+	private RootStoreFootprint()
+	{
+	}
+
+	public static void main(final String[] args) throws IOException
+	{
+		final int entries = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+		final List<String> lexicon = lexicon(entries);
+
+		final Path image = Files.createTempFile("roots", ".bin");
+		try (OutputStream out = Files.newOutputStream(image)) {
+			RootDictionaryImage.write(RootDictionary.of(lexicon), out);
+		}
+
+		System.out.printf("%-18s %10s %10s %14s %14s %10s%n", "store", "entries", "load ms", "heap bytes", "direct bytes",
+				"full GC ms");
+		report("HashSet<String>", () -> {
+			final Set<String> set = new HashSet<>(lexicon.size() * 2);
+			lexicon.forEach(root -> set.add(new String(root.toCharArray())));
+			return set;
+		});
+		report("RootDictionary", () -> RootDictionary.of(lexicon));
+		report("OffHeapRootStore", () -> OffHeapRootStore.of(lexicon));
+		report("image, read", () -> {
+			try (InputStream in = Files.newInputStream(image)) {
+				return RootDictionaryImage.read(in);
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		report("MappedRootStore", () -> {
+			try {
+				return RootDictionaryImage.map(image);
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		Files.delete(image);
+	}
+
+	private static List<String> lexicon(final int entries) throws IOException
+	{
+		final List<String> roots = new ArrayList<>();
+		try (InputStream stream = RootStoreFootprint.class.getResourceAsStream(DictionarySource.DEFAULT_RESOURCE)) {
+			if (stream == null) {
+				throw new IOException("Unable to create input stream from resource.");
+			}
+			new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8)).lines().map(String::trim)
+					.filter(l -> !l.isEmpty()).forEach(roots::add);
+		}
+		final List<String> lexicon = new ArrayList<>(entries);
+		for (int i = 0; i < entries; i++) {
+			final int round = i / roots.size();
+			final String root = roots.get(i % roots.size());
+			lexicon.add(round == 0 ? root : root + Integer.toString(round, 36));
+		}
+		return Collections.unmodifiableList(lexicon);
+	}
+
+	private static void report(final String name, final Supplier<Object> factory)
+	{
+		final long before = usedHeap();
+		final long start = System.nanoTime();
+		final Object store = factory.get();
+		final long loadMillis = (System.nanoTime() - start) / 1_000_000;
+		final long heap = usedHeap() - before;
+		final long gcMillis = fullGcMillis();
+		final long direct = store instanceof OffHeapRootStore ? ((OffHeapRootStore) store).offHeapBytes() : 0;
+		final int size = store instanceof Set ? ((Set<?>) store).size() : ((RootStore) store).size();
+		System.out.printf("%-18s %10d %10d %14d %14d %10d%n", name, size, loadMillis, heap, direct, gcMillis);
+	}
+
+	private static long usedHeap()
+	{
+		final Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static long fullGcMillis()
+	{
+		final long before = gcMillis();
+		final long start = System.nanoTime();
+		System.gc();
+		final long reported = gcMillis() - before;
+		return reported > 0 ? reported : (System.nanoTime() - start) / 1_000_000;
+	}
+
+	private static long gcMillis()
+	{
+		long millis = 0;
+		for (final GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+			millis += Math.max(0, bean.getCollectionTime());
+		}
+		return millis;
+	}
+}
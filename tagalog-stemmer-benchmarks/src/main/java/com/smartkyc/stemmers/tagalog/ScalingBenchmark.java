@@ -0,0 +1,125 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of one {@link TagalogStemmer} shared by a growing number of threads.
+ * <p>
+ * Every thread stems the whole corpus, starting at its own offset so that threads work on different words at the same
+ * time. {@link #main(String[])} runs the benchmark for 1, 2, 4, ... threads and prints the speed-up and parallel
+ * efficiency relative to one thread; an efficiency well below 1 on as many threads as there are cores points at
+ * contention. Further arguments are passed to JMH, e.g. {@code -p cacheSize=0}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScalingBenchmark
+{
+	private static final int[] DEFAULT_THREADS = { 1, 2, 4, 8, 16, 32, 64 };
+
+	/**
+	 * Size of the shared cache; 0 disables it. The default holds the whole corpus, so the run measures the cache's locks.
+	 */
+	@Param({ "0", "32768" })
+	public int cacheSize;
+
+	private TagalogStemmer stemmer;
+
+	private String[] words;
+
+	@State(Scope.Thread)
+	public static class Offset
+	{
+		int start;
+
+		@Setup
+		public void setUp(final ThreadParams threads)
+		{
+			start = threads.getThreadIndex() * Corpus.SIZE / threads.getThreadCount();
+		}
+	}
+
+	@Setup
+	public void setUp()
+	{
+		stemmer = cacheSize == 0 ? new TagalogStemmer() : new TagalogStemmer(cacheSize);
+		words = Corpus.words();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Corpus.SIZE)
+	public void stem(final Offset offset, final Blackhole blackhole)
+	{
+		for (int i = offset.start; i < words.length; i++) {
+			blackhole.consume(stemmer.stem(words[i]));
+		}
+		for (int i = 0; i < offset.start; i++) {
+			blackhole.consume(stemmer.stem(words[i]));
+		}
+	}
+
+	/**
+	 * Usage: {@code ScalingBenchmark [threads,...] [JMH options]}, e.g. {@code ScalingBenchmark 1,2,4,8 -p cacheSize=0}.
+	 */
+	public static void main(final String[] args) throws RunnerException, CommandLineOptionException
+	{
+		int[] threads = DEFAULT_THREADS;
+		String[] jmhArgs = args;
+		if (args.length > 0 && args[0].matches("\\d+(,\\d+)*")) {
+			final String[] counts = args[0].split(",");
+			threads = new int[counts.length];
+			for (int i = 0; i < counts.length; i++) {
+				threads[i] = Integer.parseInt(counts[i]);
+			}
+			jmhArgs = new String[args.length - 1];
+			System.arraycopy(args, 1, jmhArgs, 0, jmhArgs.length);
+		}
+
+		final StringBuilder report = new StringBuilder(
+				String.format("%n%-10s %8s %14s %9s %11s%n", "cacheSize", "threads", "tokens/us", "speed-up", "efficiency"));
+		for (final String cacheSize : new CommandLineOptions(jmhArgs).getParameter("cacheSize")
+				.orElse(Arrays.asList("0", "32768"))) {
+			double perThread = 0;
+			for (final int count : threads) {
+				final RunResult result = new Runner(new OptionsBuilder().parent(new CommandLineOptions(jmhArgs)) //
+						.include(ScalingBenchmark.class.getName() + ".stem") //
+						.param("cacheSize", cacheSize) //
+						.threads(count) //
+						.build()).runSingle();
+				final double score = result.getPrimaryResult().getScore();
+				if (perThread == 0) {
+					perThread = score / count;
+				}
+				final double speedUp = score / perThread;
+				report.append(String.format("%-10s %8d %14.3f %9.2f %11.2f%n", cacheSize, count, score, speedUp,
+						speedUp / count));
+			}
+		}
+		System.out.println(report);
+	}
+}
@@ -0,0 +1,93 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The heaviest individual pipeline stages, each applied to every word of {@code root-word.txt}; scores are per token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class StageBenchmark
+{
+	private TagalogStemmer stemmer;
+
+	private Lexicon lexicon;
+
+	private String[] words;
+
+	@Setup
+	public void setUp()
+	{
+		stemmer = new TagalogStemmer();
+		lexicon = stemmer.lexicon();
+		words = Corpus.words();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Corpus.SIZE)
+	public void cleanPrefix(final Blackhole blackhole)
+	{
+		for (final String word : words) {
+			blackhole.consume(stemmer.cleanPrefix(word, lexicon));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Corpus.SIZE)
+	public void cleanSuffix(final Blackhole blackhole)
+	{
+		for (final String word : words) {
+			blackhole.consume(stemmer.cleanSuffix(word, lexicon));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Corpus.SIZE)
+	public void cleanStemmed(final Blackhole blackhole)
+	{
+		final List<String> cleaners = new ArrayList<>();
+		final List<String> repetitions = new ArrayList<>();
+		for (final String word : words) {
+			cleaners.clear();
+			repetitions.clear();
+			blackhole.consume(stemmer.cleanStemmed(word, cleaners, repetitions, lexicon));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Corpus.SIZE)
+	public void cleanRepeatingSubstrings(final Blackhole blackhole)
+	{
+		for (final String word : words) {
+			blackhole.consume(stemmer.cleanRepeatingSubstrings(word, lexicon));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Corpus.SIZE)
+	public void isInRoots(final Blackhole blackhole)
+	{
+		for (final String word : words) {
+			blackhole.consume(lexicon.isRoot(word));
+		}
+	}
+}
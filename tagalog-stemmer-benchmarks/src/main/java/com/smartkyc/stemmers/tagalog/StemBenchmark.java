@@ -0,0 +1,64 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link TagalogStemmer#stem(String)} and {@link TagalogStemmer#analyze(String, StemResult)} over every word
+ * of {@code root-word.txt} with either {@link StemmingEngine}; scores are per token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class StemBenchmark
+{
+	@Param({ "PIPELINE", "LATTICE" })
+	public StemmingEngine engine;
+
+	private TagalogStemmer stemmer;
+
+	private String[] words;
+
+	private final StemResult result = new StemResult();
+
+	@Setup
+	public void setUp()
+	{
+		stemmer = TagalogStemmer.builder().engine(engine).build();
+		words = Corpus.words();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Corpus.SIZE)
+	public void stem(final Blackhole blackhole)
+	{
+		for (final String word : words) {
+			blackhole.consume(stemmer.stem(word));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(Corpus.SIZE)
+	public void analyze(final Blackhole blackhole)
+	{
+		for (final String word : words) {
+			blackhole.consume(stemmer.analyze(word, result).root());
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package com.smartkyc.stemmers.tagalog.lucene;
+
+import com.smartkyc.stemmers.tagalog.TagalogStemmer;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.CharArraySet;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.SetKeywordMarkerFilter;
+import org.apache.lucene.analysis.util.CharTokenizer;
+
+/**
+ * {@link Analyzer} for Tagalog text.
+ * <p>
+ * Splits on anything that is not a letter, digit or hyphen (keeping reduplications such as {@code kahuli-hulihang} in one
+ * token), lower-cases, marks the terms of the optional stem exclusion set as keywords and stems the rest with
+ * {@link TagalogStemFilter}.
+ */
+public final class TagalogAnalyzer extends Analyzer
+{
+	private final CharArraySet stemExclusionSet;
+
+	private final TagalogStemmer stemmer;
+
+	public TagalogAnalyzer()
+	{
+		this(CharArraySet.EMPTY_SET);
+	}
+
+	public TagalogAnalyzer(final CharArraySet stemExclusionSet)
+	{
+		this(stemExclusionSet, new TagalogStemmer());
+	}
+
+	public TagalogAnalyzer(final CharArraySet stemExclusionSet, final TagalogStemmer stemmer)
+	{
+		this.stemExclusionSet = CharArraySet.unmodifiableSet(CharArraySet.copy(stemExclusionSet));
+		this.stemmer = stemmer;
+	}
+
+	@Override
+	protected TokenStreamComponents createComponents(final String fieldName)
+	{
+		final Tokenizer source = CharTokenizer.fromTokenCharPredicate(TagalogAnalyzer::isTokenChar);
+		TokenStream result = new LowerCaseFilter(source);
+		if (!stemExclusionSet.isEmpty()) {
+			result = new SetKeywordMarkerFilter(result, stemExclusionSet);
+		}
+		result = new TagalogStemFilter(result, stemmer);
+		return new TokenStreamComponents(source, result);
+	}
+
+	@Override
+	protected TokenStream normalize(final String fieldName, final TokenStream in)
+	{
+		return new LowerCaseFilter(in);
+	}
+
+	private static boolean isTokenChar(final int c)
+	{
+		return Character.isLetterOrDigit(c) || c == '-';
+	}
+}
@@ -0,0 +1,49 @@
+package com.smartkyc.stemmers.tagalog.lucene;
+
+import com.smartkyc.stemmers.tagalog.TagalogStemmer;
+import org.apache.lucene.analysis.TokenFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.KeywordAttribute;
+
+import java.io.IOException;
+
+/**
+ * {@link TokenFilter} that replaces each term with its Tagalog root using {@link TagalogStemmer}.
+ * <p>
+ * The root is written back into the term buffer through {@link TagalogStemmer#stem(char[], int)}. Terms marked as
+ * keywords (see {@link KeywordAttribute}) are left untouched.
+ */
+public final class TagalogStemFilter extends TokenFilter
+{
+	private static final TagalogStemmer DEFAULT_STEMMER = new TagalogStemmer();
+
+	private final TagalogStemmer stemmer;
+
+	private final CharTermAttribute termAtt = addAttribute(CharTermAttribute.class);
+
+	private final KeywordAttribute keywordAtt = addAttribute(KeywordAttribute.class);
+
+	public TagalogStemFilter(final TokenStream input)
+	{
+		this(input, DEFAULT_STEMMER);
+	}
+
+	public TagalogStemFilter(final TokenStream input, final TagalogStemmer stemmer)
+	{
+		super(input);
+		this.stemmer = stemmer;
+	}
+
+	@Override
+	public boolean incrementToken() throws IOException
+	{
+		if (!input.incrementToken()) {
+			return false;
+		}
+		if (!keywordAtt.isKeyword()) {
+			termAtt.setLength(stemmer.stem(termAtt.buffer(), termAtt.length()));
+		}
+		return true;
+	}
+}
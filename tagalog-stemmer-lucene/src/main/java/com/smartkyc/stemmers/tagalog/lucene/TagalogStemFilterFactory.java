@@ -0,0 +1,43 @@
+package com.smartkyc.stemmers.tagalog.lucene;
+
+import com.smartkyc.stemmers.tagalog.TagalogStemmer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.util.TokenFilterFactory;
+
+import java.util.Map;
+
+/**
+ * Factory for {@link TagalogStemFilter}.
+ * <pre class="prettyprint">
+ * &lt;fieldType name="text_tl" class="solr.TextField"&gt;
+ *   &lt;analyzer&gt;
+ *     &lt;tokenizer class="solr.WhitespaceTokenizerFactory"/&gt;
+ *     &lt;filter class="solr.LowerCaseFilterFactory"/&gt;
+ *     &lt;filter class="com.smartkyc.stemmers.tagalog.lucene.TagalogStemFilterFactory" cacheSize="100000"/&gt;
+ *   &lt;/analyzer&gt;
+ * &lt;/fieldType&gt;</pre>
+ * <p>
+ * The optional {@code cacheSize} argument gives the created filters a shared result cache of that many entries.
+ */
+public class TagalogStemFilterFactory extends TokenFilterFactory
+{
+	public static final String NAME = "tagalogStem";
+
+	private final TagalogStemmer stemmer;
+
+	public TagalogStemFilterFactory(final Map<String, String> args)
+	{
+		super(args);
+		final int cacheSize = getInt(args, "cacheSize", 0);
+		if (!args.isEmpty()) {
+			throw new IllegalArgumentException("Unknown parameters: " + args);
+		}
+		stemmer = cacheSize > 0 ? new TagalogStemmer(cacheSize) : new TagalogStemmer();
+	}
+
+	@Override
+	public TokenStream create(final TokenStream input)
+	{
+		return new TagalogStemFilter(input, stemmer);
+	}
+}
@@ -0,0 +1,98 @@
+package com.smartkyc.stemmers.tagalog.lucene;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.CharArraySet;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TagalogAnalyzerTest
+{
+	@Test
+	void testAnalyze() throws IOException
+	{
+		final Analyzer analyzer = new TagalogAnalyzer();
+		assertEquals(Arrays.asList("tuloy", "sa", "hanap", "ng", "gamot", "huli", "ina"),
+				terms(analyzer, "Patuloy sa paghahanap ng gamot, kahuli-hulihang ina."));
+	}
+
+	@Test
+	void testStemExclusionSet() throws IOException
+	{
+		final Analyzer analyzer = new TagalogAnalyzer(new CharArraySet(Collections.singleton("makati"), false));
+		assertEquals(Arrays.asList("makati", "takbo"), terms(analyzer, "Makati tumatakbo"));
+	}
+
+	@Test
+	void indexingThroughput() throws IOException
+	{
+		final List<String> words = new ArrayList<>();
+		final InputStream inputStream = getClass().getResourceAsStream("/root-word.txt");
+		assertNotNull(inputStream);
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				final String[] parts = line.split(" : ");
+				if (parts.length == 2) {
+					words.add(parts[0].trim());
+				}
+			}
+		}
+
+		try (Directory directory = new ByteBuffersDirectory(); Analyzer analyzer = new TagalogAnalyzer()) {
+			final long start = System.nanoTime();
+			try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(analyzer))) {
+				for (int i = 0; i < words.size(); i += 100) {
+					final Document document = new Document();
+					document.add(new TextField("body", String.join(" ", words.subList(i, Math.min(i + 100, words.size()))),
+							Field.Store.NO));
+					writer.addDocument(document);
+				}
+			}
+			final long elapsed = System.nanoTime() - start;
+			System.out.println("Indexed " + words.size() + " tokens in " + elapsed / 1_000_000 + " ms ("
+					+ (long) (words.size() / (elapsed / 1e9)) + " tokens/s)");
+
+			try (DirectoryReader reader = DirectoryReader.open(directory)) {
+				assertTrue(reader.docFreq(new Term("body", "abot")) > 0);
+			}
+		}
+	}
+
+	private static List<String> terms(final Analyzer analyzer, final String text) throws IOException
+	{
+		final List<String> terms = new ArrayList<>();
+		try (TokenStream stream = analyzer.tokenStream("body", text)) {
+			final CharTermAttribute termAtt = stream.addAttribute(CharTermAttribute.class);
+			stream.reset();
+			while (stream.incrementToken()) {
+				terms.add(termAtt.toString());
+			}
+			stream.end();
+		}
+		return terms;
+	}
+}
@@ -0,0 +1,78 @@
+package com.smartkyc.stemmers.tagalog.lucene;
+
+import org.apache.lucene.analysis.CharArraySet;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.apache.lucene.analysis.miscellaneous.SetKeywordMarkerFilter;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.util.TokenFilterFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TagalogStemFilterTest
+{
+	@Test
+	void testStemsTerms() throws IOException
+	{
+		final Tokenizer tokenizer = whitespaceTokenizer("tumatakbo kahuli-hulihang bahay ikalawang");
+		assertEquals(Arrays.asList("takbo", "huli", "bahay", "dalawa"), terms(new TagalogStemFilter(tokenizer)));
+	}
+
+	@Test
+	void testKeywordsAreNotStemmed() throws IOException
+	{
+		final CharArraySet keywords = new CharArraySet(Collections.singleton("tumatakbo"), false);
+		final Tokenizer tokenizer = whitespaceTokenizer("tumatakbo bumubuhay");
+		final TokenStream stream = new TagalogStemFilter(new SetKeywordMarkerFilter(tokenizer, keywords));
+		assertEquals(Arrays.asList("tumatakbo", "buhay"), terms(stream));
+	}
+
+	@Test
+	void testFactory() throws IOException
+	{
+		final Map<String, String> args = new HashMap<>();
+		args.put("cacheSize", "10");
+		final TokenFilterFactory factory = TokenFilterFactory.forName(TagalogStemFilterFactory.NAME, args);
+		assertEquals(Collections.singletonList("abot"), terms(factory.create(whitespaceTokenizer("aabutin"))));
+	}
+
+	@Test
+	void testFactoryRejectsUnknownParameters()
+	{
+		final Map<String, String> args = new HashMap<>();
+		args.put("foo", "bar");
+		assertThrows(IllegalArgumentException.class, () -> new TagalogStemFilterFactory(args));
+	}
+
+	private static Tokenizer whitespaceTokenizer(final String text)
+	{
+		final Tokenizer tokenizer = new WhitespaceTokenizer();
+		tokenizer.setReader(new StringReader(text));
+		return tokenizer;
+	}
+
+	private static List<String> terms(final TokenStream stream) throws IOException
+	{
+		final List<String> terms = new ArrayList<>();
+		final CharTermAttribute termAtt = stream.addAttribute(CharTermAttribute.class);
+		stream.reset();
+		while (stream.incrementToken()) {
+			terms.add(termAtt.toString());
+		}
+		stream.end();
+		stream.close();
+		return terms;
+	}
+}
@@ -0,0 +1,187 @@
+package com.smartkyc.stemmers.tagalog.server;
+
+import com.smartkyc.stemmers.tagalog.DictionarySource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load generator for a {@link StemmingServer}: every thread sends its next request as soon as the last one
+ * is answered, for a fixed time, and the client prints the throughput and the latency percentiles, e.g.
+ * {@code java -cp stemming-server.jar com.smartkyc.stemmers.tagalog.server.LoadTestClient --threads 32 --batch 1}.
+ * <p>
+ * Options: {@code --url} ({@code http://localhost:8080/stem}), {@code --threads} (16), {@code --seconds} (10),
+ * {@code --batch} (1, single tokens by {@code GET}; more sends that many tokens per {@code POST}) and {@code --words}
+ * (a file with a word at the start of every line; the bundled dictionary if not given).
+ */
+public final class LoadTestClient
+{
+	private final String url;
+
+	private final String[] words;
+
+	private final int batch;
+
+	private final LongAdder requests = new LongAdder();
+
+	private final LongAdder tokens = new LongAdder();
+
+	private final LongAdder rejected = new LongAdder();
+
+	private final LongAdder errors = new LongAdder();
+
+	private LoadTestClient(final String url, final String[] words, final int batch)
+	{
+		this.url = url;
+		this.words = words;
+		this.batch = batch;
+	}
+
+	public static void main(final String[] args) throws Exception
+	{
+		String url = "http://localhost:8080/stem";
+		int threads = 16;
+		int seconds = 10;
+		int batch = 1;
+		String wordsFile = null;
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			switch (args[i]) {
+			case "--url":
+				url = args[i + 1];
+				break;
+			case "--threads":
+				threads = Integer.parseInt(args[i + 1]);
+				break;
+			case "--seconds":
+				seconds = Integer.parseInt(args[i + 1]);
+				break;
+			case "--batch":
+				batch = Integer.parseInt(args[i + 1]);
+				break;
+			case "--words":
+				wordsFile = args[i + 1];
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+		final String[] words = wordsFile != null ? readWords(Files.newInputStream(Paths.get(wordsFile)))
+				: readWords(LoadTestClient.class.getResourceAsStream(DictionarySource.DEFAULT_RESOURCE));
+		System.out.println(new LoadTestClient(url, words, batch).run(threads, seconds * 1000L));
+	}
+
+	private String run(final int threadCount, final long millis) throws InterruptedException
+	{
+		final long deadline = System.nanoTime() + millis * 1_000_000L;
+		final long[][] latencies = new long[threadCount][];
+		final List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < threadCount; t++) {
+			final int index = t;
+			final Thread thread = new Thread(() -> {
+				final long[] nanos = new long[1 << 20];
+				int count = 0;
+				int next = (int) ((long) words.length * index / threadCount);
+				while (System.nanoTime() < deadline) {
+					final long start = System.nanoTime();
+					send(next);
+					if (count < nanos.length) {
+						nanos[count++] = System.nanoTime() - start;
+					}
+					next = (next + batch) % words.length;
+				}
+				latencies[index] = Arrays.copyOf(nanos, count);
+			});
+			threads.add(thread);
+		}
+		final long start = System.nanoTime();
+		for (final Thread thread : threads) {
+			thread.start();
+		}
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		final double seconds = (System.nanoTime() - start) / 1e9;
+
+		final long[] sorted = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+		return String.format(
+				"%d threads, batch %d: %.0f requests/s, %.0f tokens/s, latency p50 %.2f ms, p99 %.2f ms, max %.2f ms, "
+						+ "%d rejected, %d errors", threadCount, batch, requests.sum() / seconds, tokens.sum() / seconds,
+				percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.99) / 1e6, percentile(sorted, 1.0) / 1e6,
+				rejected.sum(), errors.sum());
+	}
+
+	private void send(final int from)
+	{
+		try {
+			final HttpURLConnection connection;
+			if (batch == 1) {
+				connection = (HttpURLConnection) new URL(
+						url + "?token=" + URLEncoder.encode(words[from], "UTF-8")).openConnection();
+			} else {
+				connection = (HttpURLConnection) new URL(url).openConnection();
+				connection.setRequestMethod("POST");
+				connection.setDoOutput(true);
+				final StringBuilder body = new StringBuilder();
+				for (int i = 0; i < batch; i++) {
+					body.append(words[(from + i) % words.length]).append('\n');
+				}
+				try (OutputStream out = connection.getOutputStream()) {
+					out.write(body.toString().getBytes(StandardCharsets.UTF_8));
+				}
+			}
+			final int status = connection.getResponseCode();
+			final InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+			if (body != null) {
+				// read the response fully so that the connection is kept alive
+				while (body.read() >= 0) {
+				}
+				body.close();
+			}
+			if (status == 200) {
+				requests.increment();
+				tokens.add(batch);
+			} else if (status == 503) {
+				rejected.increment();
+			} else {
+				errors.increment();
+			}
+		} catch (final IOException e) {
+			errors.increment();
+		}
+	}
+
+	private static String[] readWords(final InputStream stream) throws IOException
+	{
+		final List<String> words = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				final String word = line.trim().split("[\\s:]+")[0];
+				if (!word.isEmpty()) {
+					words.add(word);
+				}
+			}
+		}
+		return words.toArray(new String[0]);
+	}
+
+	private static long percentile(final long[] sorted, final double percentile)
+	{
+		if (sorted.length == 0) {
+			return 0;
+		}
+		return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+	}
+}
@@ -0,0 +1,207 @@
+package com.smartkyc.stemmers.tagalog.server;
+
+import com.smartkyc.stemmers.tagalog.TagalogStemmer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces concurrently submitted tokens into batches for {@link TagalogStemmer#stemAll}.
+ * <p>
+ * Each worker takes the oldest waiting token and then waits at most {@code maxWait} for more, until the batch holds
+ * {@code maxBatchSize} tokens. Under load batches fill up at once and add no latency; when idle a token waits at most
+ * {@code maxWait}. The queue of waiting tokens is bounded: when it is full, {@link #submit(String)} rejects the token
+ * rather than letting latency grow without bound.
+ */
+final class MicroBatcher implements AutoCloseable
+{
+	private static final Logger log = LoggerFactory.getLogger(MicroBatcher.class);
+
+	private static final long POLL_MILLIS = 100;
+
+	private final TagalogStemmer stemmer;
+
+	private final int maxBatchSize;
+
+	private final long maxWaitNanos;
+
+	private final BlockingQueue<Request> queue;
+
+	private final List<Thread> workers = new ArrayList<>();
+
+	private final LongAdder batches = new LongAdder();
+
+	private final LongAdder tokens = new LongAdder();
+
+	private final LongAdder rejected = new LongAdder();
+
+	private volatile boolean running = true;
+
+	MicroBatcher(final TagalogStemmer stemmer, final int maxBatchSize, final long maxWait, final TimeUnit unit,
+			final int queueCapacity, final int workerCount)
+	{
+		if (maxBatchSize < 1 || queueCapacity < 1 || workerCount < 1 || maxWait < 0) {
+			throw new IllegalArgumentException(
+					"Invalid batching: maxBatchSize " + maxBatchSize + ", maxWait " + maxWait + ", queueCapacity " + queueCapacity
+							+ ", workers " + workerCount);
+		}
+		this.stemmer = stemmer;
+		this.maxBatchSize = maxBatchSize;
+		this.maxWaitNanos = unit.toNanos(maxWait);
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		for (int i = 0; i < workerCount; i++) {
+			final Thread worker = new Thread(this::work, "stem-batcher-" + i);
+			worker.setDaemon(true);
+			workers.add(worker);
+			worker.start();
+		}
+	}
+
+	/**
+	 * Queues {@code token} for the next batch.
+	 *
+	 * @return the root, completed by a worker
+	 * @throws RejectedExecutionException if the queue is full or the batcher is closed
+	 */
+	CompletableFuture<String> submit(final String token)
+	{
+		final Request request = new Request(token);
+		if (!running || !queue.offer(request)) {
+			rejected.increment();
+			throw new RejectedExecutionException(running ? "Stemming queue is full" : "Stemming service is shut down");
+		}
+		// close() may have drained the queue between the check and the offer; whoever takes the request completes it
+		if (!running && queue.remove(request)) {
+			rejected.increment();
+			throw new RejectedExecutionException("Stemming service is shut down");
+		}
+		return request.root;
+	}
+
+	int queued()
+	{
+		return queue.size();
+	}
+
+	long batches()
+	{
+		return batches.sum();
+	}
+
+	long tokens()
+	{
+		return tokens.sum();
+	}
+
+	long rejected()
+	{
+		return rejected.sum();
+	}
+
+	/**
+	 * Stops accepting tokens, stems the ones already queued and waits for the workers to finish. Tokens queued while
+	 * closing that no worker took are rejected.
+	 */
+	@Override
+	public void close() throws InterruptedException
+	{
+		running = false;
+		for (final Thread worker : workers) {
+			worker.join();
+		}
+		final List<Request> left = new ArrayList<>();
+		queue.drainTo(left);
+		for (final Request request : left) {
+			rejected.increment();
+			request.root.completeExceptionally(new RejectedExecutionException("Stemming service is shut down"));
+		}
+	}
+
+	private void work()
+	{
+		final List<Request> batch = new ArrayList<>(maxBatchSize);
+		try {
+			while (running || !queue.isEmpty()) {
+				final Request first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				fill(batch);
+				stem(batch);
+				batch.clear();
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			for (final Request request : batch) {
+				request.root.completeExceptionally(e);
+			}
+		}
+	}
+
+	private void fill(final List<Request> batch) throws InterruptedException
+	{
+		final long deadline = System.nanoTime() + maxWaitNanos;
+		while (batch.size() < maxBatchSize) {
+			queue.drainTo(batch, maxBatchSize - batch.size());
+			final long remaining = deadline - System.nanoTime();
+			if (batch.size() == maxBatchSize || remaining <= 0) {
+				return;
+			}
+			final Request next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+			if (next == null) {
+				return;
+			}
+			batch.add(next);
+		}
+	}
+
+	private void stem(final List<Request> batch)
+	{
+		final String[] words = new String[batch.size()];
+		for (int i = 0; i < words.length; i++) {
+			words[i] = batch.get(i).token;
+		}
+		try {
+			// the worker is one of several, so the batch is stemmed on it rather than fanned out again
+			final String[] roots = stemmer.stemAll(words, null, Integer.MAX_VALUE);
+			for (int i = 0; i < roots.length; i++) {
+				batch.get(i).root.complete(roots[i]);
+			}
+		} catch (final RuntimeException e) {
+			log.warn("Failed to stem a batch of {} tokens", words.length, e);
+			for (final Request request : batch) {
+				request.root.completeExceptionally(e);
+			}
+		} finally {
+			// an Error ends the worker, but not before failing the tokens waiting on this batch
+			for (final Request request : batch) {
+				if (!request.root.isDone()) {
+					request.root.completeExceptionally(new IllegalStateException("Stemming batch aborted"));
+				}
+			}
+		}
+		batches.increment();
+		tokens.add(words.length);
+	}
+
+	private static final class Request
+	{
+		final String token;
+
+		final CompletableFuture<String> root = new CompletableFuture<>();
+
+		Request(final String token)
+		{
+			this.token = token;
+		}
+	}
+}
@@ -0,0 +1,419 @@
+package com.smartkyc.stemmers.tagalog.server;
+
+import com.smartkyc.stemmers.tagalog.InflectionTable;
+import com.smartkyc.stemmers.tagalog.StemmingEngine;
+import com.smartkyc.stemmers.tagalog.TagalogStemmer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves a {@link TagalogStemmer} over HTTP, for callers that cannot embed the library.
+ * <ul>
+ * <li>{@code GET /stem?token=paghahanap} answers the root as {@code text/plain}. Single tokens from concurrent requests
+ * are coalesced by a {@link MicroBatcher}; when its queue is full the request is answered {@code 503} with a
+ * {@code Retry-After} header instead of waiting.</li>
+ * <li>{@code POST /stem} takes one token per line and answers one root per line, in the same order. The request is
+ * already a batch and is stemmed at once; more than {@code maxRequestTokens} tokens are answered {@code 413}.</li>
+ * <li>{@code GET /health} answers {@code 200} once the dictionary is loaded and {@code 503} before, with the batching
+ * counters in the body.</li>
+ * </ul>
+ * The server binds to the loopback address unless told otherwise. Start it with {@link #builder()} or from the command
+ * line with {@link #main(String[])}.
+ * <p>
+ * Without {@code -Dsun.net.httpserver.nodelay=true} the JDK server leaves Nagle's algorithm on, and each small response
+ * waits for the client's delayed acknowledgement, about 40 ms. {@link #main(String[])} sets the property unless it is
+ * given; applications that embed the server should pass it when launching the JVM, as it is read once for all servers.
+ */
+public final class StemmingServer implements AutoCloseable
+{
+	private static final Logger log = LoggerFactory.getLogger(StemmingServer.class);
+
+	private static final String TEXT = "text/plain; charset=utf-8";
+
+	private static final String NODELAY = "sun.net.httpserver.nodelay";
+
+	private final TagalogStemmer stemmer;
+
+	private final HttpServer server;
+
+	private final ExecutorService handlers;
+
+	private final MicroBatcher batcher;
+
+	private final int maxRequestTokens;
+
+	private StemmingServer(final Builder builder) throws IOException
+	{
+		if (builder.handlerThreads < 1 || builder.maxRequestTokens < 1) {
+			throw new IllegalArgumentException(
+					"Invalid server: handlerThreads " + builder.handlerThreads + ", maxRequestTokens " + builder.maxRequestTokens);
+		}
+		this.stemmer = builder.stemmer != null ? builder.stemmer : new TagalogStemmer();
+		this.maxRequestTokens = builder.maxRequestTokens;
+		this.batcher = new MicroBatcher(stemmer, builder.maxBatchSize, builder.maxWaitMicros, TimeUnit.MICROSECONDS,
+				builder.queueCapacity, builder.workers);
+		this.server = bind(builder, batcher);
+		this.handlers = Executors.newFixedThreadPool(builder.handlerThreads, daemonThreads("stem-http-"));
+		server.setExecutor(handlers);
+		server.createContext("/stem", this::stem);
+		server.createContext("/health", this::health);
+		server.start();
+		log.info("Stemming server listening on {}", server.getAddress());
+	}
+
+	public static Builder builder()
+	{
+		return new Builder();
+	}
+
+	/**
+	 * The port the server listens on, also when it was started on port {@code 0}.
+	 */
+	public int port()
+	{
+		return server.getAddress().getPort();
+	}
+
+	public TagalogStemmer stemmer()
+	{
+		return stemmer;
+	}
+
+	/**
+	 * Stops accepting connections, answers the tokens already queued and stops the threads.
+	 */
+	@Override
+	public void close() throws InterruptedException
+	{
+		server.stop(0);
+		batcher.close();
+		handlers.shutdown();
+		handlers.awaitTermination(1, TimeUnit.SECONDS);
+	}
+
+	private void stem(final HttpExchange exchange) throws IOException
+	{
+		switch (exchange.getRequestMethod()) {
+		case "GET":
+			stemOne(exchange);
+			break;
+		case "POST":
+			stemBatch(exchange);
+			break;
+		default:
+			exchange.getResponseHeaders().set("Allow", "GET, POST");
+			respond(exchange, 405, "Use GET /stem?token=... or POST /stem\n");
+		}
+	}
+
+	private void stemOne(final HttpExchange exchange) throws IOException
+	{
+		final String token = queryParameter(exchange.getRequestURI().getRawQuery(), "token");
+		if (token == null || token.isEmpty()) {
+			respond(exchange, 400, "Missing token parameter\n");
+			return;
+		}
+		try {
+			batcher.submit(token).whenCompleteAsync((root, error) -> {
+				try {
+					if (error != null) {
+						respond(exchange, 500, "Failed to stem " + token + "\n");
+					} else {
+						respond(exchange, 200, root + "\n");
+					}
+				} catch (final IOException e) {
+					log.debug("Failed to answer {}", exchange.getRemoteAddress(), e);
+				}
+			}, handlers);
+		} catch (final RejectedExecutionException e) {
+			exchange.getResponseHeaders().set("Retry-After", "1");
+			respond(exchange, 503, e.getMessage() + "\n");
+		}
+	}
+
+	private void stemBatch(final HttpExchange exchange) throws IOException
+	{
+		final List<String> tokens = new ArrayList<>();
+		final BufferedReader reader = new BufferedReader(
+				new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8));
+		for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+			if (tokens.size() == maxRequestTokens) {
+				respond(exchange, 413, "At most " + maxRequestTokens + " tokens per request\n");
+				return;
+			}
+			tokens.add(line.trim());
+		}
+		final StringBuilder body = new StringBuilder(tokens.size() * 8);
+		for (final String root : stemmer.stemAll(tokens)) {
+			body.append(root).append('\n');
+		}
+		respond(exchange, 200, body.toString());
+	}
+
+	private void health(final HttpExchange exchange) throws IOException
+	{
+		final boolean ready = stemmer.isReady();
+		respond(exchange, ready ? 200 : 503,
+				(ready ? "ready" : "loading") + "\ndictionary " + stemmer.dictionaryVersion() + "\nqueued " + batcher.queued()
+						+ "\nbatches " + batcher.batches() + "\ntokens " + batcher.tokens() + "\nrejected " + batcher.rejected() + "\n");
+	}
+
+	private static void respond(final HttpExchange exchange, final int status, final String body) throws IOException
+	{
+		final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", TEXT);
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	static String queryParameter(final String rawQuery, final String name) throws UnsupportedEncodingException
+	{
+		if (rawQuery == null) {
+			return null;
+		}
+		for (final String parameter : rawQuery.split("&")) {
+			final int equals = parameter.indexOf('=');
+			if (equals > 0 && parameter.substring(0, equals).equals(name)) {
+				return URLDecoder.decode(parameter.substring(equals + 1), "UTF-8");
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Binds the socket once everything that validates the configuration has been built, stopping the batcher if binding
+	 * fails.
+	 */
+	private static HttpServer bind(final Builder builder, final MicroBatcher batcher) throws IOException
+	{
+		try {
+			return HttpServer.create(new InetSocketAddress(builder.address, builder.port), builder.backlog);
+		} catch (final IOException | RuntimeException e) {
+			try {
+				batcher.close();
+			} catch (final InterruptedException interrupted) {
+				Thread.currentThread().interrupt();
+			}
+			throw e;
+		}
+	}
+
+	private static ThreadFactory daemonThreads(final String prefix)
+	{
+		final AtomicInteger count = new AtomicInteger();
+		return runnable -> {
+			final Thread thread = new Thread(runnable, prefix + count.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * Starts a server until the process is stopped, e.g.
+	 * {@code java -jar stemming-server.jar --port 8080 --max-batch 64 --max-wait-us 500 --engine LATTICE}.
+	 * <p>
+	 * Options: {@code --bind}, {@code --port}, {@code --max-batch}, {@code --max-wait-us}, {@code --queue},
+	 * {@code --workers}, {@code --threads}, {@code --max-request-tokens}, {@code --engine}, {@code --cache} and
+	 * {@code --inflections true}. Sets {@code sun.net.httpserver.nodelay} to {@code true} unless it is given.
+	 */
+	public static void main(final String[] args) throws Exception
+	{
+		if (System.getProperty(NODELAY) == null) {
+			System.setProperty(NODELAY, "true");
+		}
+		final Builder builder = builder().port(8080);
+		final TagalogStemmer.Builder stemmer = TagalogStemmer.builder().loadInBackground();
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			final String value = args[i + 1];
+			switch (args[i]) {
+			case "--bind":
+				builder.address(InetAddress.getByName(value));
+				break;
+			case "--port":
+				builder.port(Integer.parseInt(value));
+				break;
+			case "--max-batch":
+				builder.maxBatchSize(Integer.parseInt(value));
+				break;
+			case "--max-wait-us":
+				builder.maxWait(Long.parseLong(value), TimeUnit.MICROSECONDS);
+				break;
+			case "--queue":
+				builder.queueCapacity(Integer.parseInt(value));
+				break;
+			case "--workers":
+				builder.workers(Integer.parseInt(value));
+				break;
+			case "--threads":
+				builder.handlerThreads(Integer.parseInt(value));
+				break;
+			case "--max-request-tokens":
+				builder.maxRequestTokens(Integer.parseInt(value));
+				break;
+			case "--engine":
+				stemmer.engine(StemmingEngine.valueOf(value.toUpperCase(Locale.ROOT)));
+				break;
+			case "--cache":
+				stemmer.cacheSize(Integer.parseInt(value));
+				break;
+			case "--inflections":
+				stemmer.inflections(Boolean.parseBoolean(value) ? InflectionTable.bundled() : null);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+		final StemmingServer server = builder.stemmer(stemmer.build()).start();
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			try {
+				server.close();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}));
+		System.out.println("Stemming server listening on port " + server.port());
+		Thread.currentThread().join();
+	}
+
+	public static final class Builder
+	{
+		private TagalogStemmer stemmer;
+
+		private InetAddress address = InetAddress.getLoopbackAddress();
+
+		private int port;
+
+		private int backlog = 1024;
+
+		private int maxBatchSize = 64;
+
+		private long maxWaitMicros = 500;
+
+		private int queueCapacity = 10_000;
+
+		private int workers = Runtime.getRuntime().availableProcessors();
+
+		private int handlerThreads = 2 * Runtime.getRuntime().availableProcessors();
+
+		private int maxRequestTokens = 10_000;
+
+		private Builder()
+		{
+		}
+
+		/**
+		 * The stemmer to serve; a default {@link TagalogStemmer} if not set.
+		 */
+		public Builder stemmer(final TagalogStemmer stemmer)
+		{
+			this.stemmer = stemmer;
+			return this;
+		}
+
+		/**
+		 * The address to bind to; the loopback address by default, so the service is local only.
+		 */
+		public Builder address(final InetAddress address)
+		{
+			this.address = address;
+			return this;
+		}
+
+		/**
+		 * The port to listen on; {@code 0}, the default, picks a free port.
+		 */
+		public Builder port(final int port)
+		{
+			this.port = port;
+			return this;
+		}
+
+		public Builder backlog(final int backlog)
+		{
+			this.backlog = backlog;
+			return this;
+		}
+
+		/**
+		 * The most single tokens stemmed in one batch, 64 by default.
+		 */
+		public Builder maxBatchSize(final int maxBatchSize)
+		{
+			this.maxBatchSize = maxBatchSize;
+			return this;
+		}
+
+		/**
+		 * How long a batch waits for more tokens once it has one, 500 microseconds by default.
+		 */
+		public Builder maxWait(final long maxWait, final TimeUnit unit)
+		{
+			this.maxWaitMicros = unit.toMicros(maxWait);
+			return this;
+		}
+
+		/**
+		 * How many single tokens may wait for a batch before requests are rejected, 10000 by default.
+		 */
+		public Builder queueCapacity(final int queueCapacity)
+		{
+			this.queueCapacity = queueCapacity;
+			return this;
+		}
+
+		/**
+		 * The threads stemming batches, one per core by default.
+		 */
+		public Builder workers(final int workers)
+		{
+			this.workers = workers;
+			return this;
+		}
+
+		/**
+		 * The threads parsing requests and writing responses, two per core by default.
+		 */
+		public Builder handlerThreads(final int handlerThreads)
+		{
+			this.handlerThreads = handlerThreads;
+			return this;
+		}
+
+		/**
+		 * The most tokens accepted in one {@code POST}, 10000 by default.
+		 */
+		public Builder maxRequestTokens(final int maxRequestTokens)
+		{
+			this.maxRequestTokens = maxRequestTokens;
+			return this;
+		}
+
+		public StemmingServer start() throws IOException
+		{
+			return new StemmingServer(this);
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package com.smartkyc.stemmers.tagalog.server;
+
+import com.smartkyc.stemmers.tagalog.StemmingListener;
+import com.smartkyc.stemmers.tagalog.StemmingStage;
+import com.smartkyc.stemmers.tagalog.TagalogStemmer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MicroBatcherTest
+{
+	private final TagalogStemmer stemmer = new TagalogStemmer();
+
+	@Test
+	void testCoalescesTokens() throws Exception
+	{
+		final String[] words = { "paghahanap", "pinakamaganda", "kumain", "bahay" };
+		try (MicroBatcher batcher = new MicroBatcher(stemmer, 64, 200, TimeUnit.MILLISECONDS, 100, 1)) {
+			final List<CompletableFuture<String>> roots = new ArrayList<>();
+			for (int i = 0; i < 40; i++) {
+				roots.add(batcher.submit(words[i % words.length]));
+			}
+			for (int i = 0; i < roots.size(); i++) {
+				assertEquals(stemmer.stem(words[i % words.length]), roots.get(i).get(5, TimeUnit.SECONDS));
+			}
+			assertEquals(40, batcher.tokens());
+			assertTrue(batcher.batches() < 40, "batches " + batcher.batches());
+		}
+	}
+
+	@Test
+	void testRejectsWhenFull() throws Exception
+	{
+		final CountDownLatch blocked = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final TagalogStemmer slow = TagalogStemmer.builder().listener(new StemmingListener()
+		{
+			@Override
+			public void stageCompleted(final StemmingStage stage, final boolean changed, final boolean dictionaryHit,
+					final long nanos)
+			{
+				blocked.countDown();
+				try {
+					release.await();
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}).build();
+
+		final MicroBatcher batcher = new MicroBatcher(slow, 1, 0, TimeUnit.MILLISECONDS, 2, 1);
+		final CompletableFuture<String> first = batcher.submit("kumain");
+		assertTrue(blocked.await(5, TimeUnit.SECONDS));
+		final CompletableFuture<String> second = batcher.submit("bahay");
+		final CompletableFuture<String> third = batcher.submit("bahay");
+		assertThrows(RejectedExecutionException.class, () -> batcher.submit("bahay"));
+		assertEquals(1, batcher.rejected());
+
+		release.countDown();
+		batcher.close();
+		assertEquals("kain", first.get());
+		assertEquals("bahay", second.get());
+		assertEquals("bahay", third.get());
+		assertThrows(RejectedExecutionException.class, () -> batcher.submit("bahay"));
+	}
+
+	@Test
+	void testFailsBatchOnError() throws Exception
+	{
+		final TagalogStemmer failing = TagalogStemmer.builder().listener(new StemmingListener()
+		{
+			@Override
+			public void stageCompleted(final StemmingStage stage, final boolean changed, final boolean dictionaryHit,
+					final long nanos)
+			{
+				throw new Error("Listener failed");
+			}
+		}).build();
+
+		final MicroBatcher batcher = new MicroBatcher(failing, 8, 0, TimeUnit.MILLISECONDS, 10, 1);
+		final CompletableFuture<String> root = batcher.submit("kumain");
+		assertThrows(ExecutionException.class, () -> root.get(5, TimeUnit.SECONDS));
+		batcher.close();
+	}
+
+	@Test
+	void testCloseResolvesEverySubmission() throws Exception
+	{
+		final MicroBatcher batcher = new MicroBatcher(stemmer, 4, 0, TimeUnit.MILLISECONDS, 1000, 2);
+		final List<CompletableFuture<String>> roots = new CopyOnWriteArrayList<>();
+		final List<Thread> submitters = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			final Thread submitter = new Thread(() -> {
+				try {
+					while (true) {
+						roots.add(batcher.submit("kumain"));
+					}
+				} catch (final RejectedExecutionException e) {
+					// closed, or full for a moment
+				}
+			});
+			submitters.add(submitter);
+			submitter.start();
+		}
+		Thread.sleep(50);
+		batcher.close();
+		for (final Thread submitter : submitters) {
+			submitter.join();
+		}
+		assertThrows(RejectedExecutionException.class, () -> batcher.submit("kumain"));
+		for (final CompletableFuture<String> root : roots) {
+			assertTrue(root.isDone());
+		}
+	}
+}
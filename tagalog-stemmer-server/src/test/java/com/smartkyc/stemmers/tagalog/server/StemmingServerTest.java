@@ -0,0 +1,155 @@
+package com.smartkyc.stemmers.tagalog.server;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StemmingServerTest
+{
+	private static StemmingServer server;
+
+	@BeforeAll
+	static void start() throws IOException
+	{
+		server = StemmingServer.builder().maxRequestTokens(3).start();
+	}
+
+	@AfterAll
+	static void stop() throws InterruptedException
+	{
+		server.close();
+	}
+
+	@Test
+	void testStemOne() throws IOException
+	{
+		assertEquals("200 hanap\n", request("GET", "/stem?token=paghahanap", null));
+		assertEquals("200 ganda\n", request("GET", "/stem?token=pinakamaganda", null));
+		assertEquals("200 isa\n", request("GET", "/stem?token=mag%2Disa", null));
+	}
+
+	@Test
+	void testStemConcurrently() throws Exception
+	{
+		final String[] words = { "paghahanap", "kumain", "bahay", "ipinanganak" };
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			final List<Future<String>> responses = new ArrayList<>();
+			for (int i = 0; i < 64; i++) {
+				final String word = words[i % words.length];
+				responses.add(executor.submit(() -> request("GET", "/stem?token=" + word, null)));
+			}
+			for (int i = 0; i < responses.size(); i++) {
+				assertEquals("200 " + server.stemmer().stem(words[i % words.length]) + "\n", responses.get(i).get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void testStemBatch() throws IOException
+	{
+		assertEquals("200 hanap\nkain\nbahay\n", request("POST", "/stem", "paghahanap\nkumain\nbahay\n"));
+		assertEquals(413, status(request("POST", "/stem", "paghahanap\nkumain\nbahay\nisa\n")));
+	}
+
+	@Test
+	void testBadRequests() throws IOException
+	{
+		assertEquals(400, status(request("GET", "/stem", null)));
+		assertEquals(400, status(request("GET", "/stem?word=bahay", null)));
+		assertEquals(405, status(request("DELETE", "/stem", null)));
+		assertEquals(404, status(request("GET", "/other", null)));
+	}
+
+	@Test
+	void testHealth() throws IOException
+	{
+		final String health = request("GET", "/health", null);
+		assertTrue(health.startsWith("200 ready\ndictionary 1\n"), health);
+		assertTrue(health.contains("\nrejected 0\n"), health);
+	}
+
+	@Test
+	void testInvalidConfigurationLeaksNothing() throws IOException
+	{
+		final int port;
+		try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+			port = socket.getLocalPort();
+		}
+		final long batcherThreads = batcherThreads();
+		assertThrows(IllegalArgumentException.class, () -> StemmingServer.builder().port(port).maxBatchSize(0).start());
+		assertThrows(IllegalArgumentException.class, () -> StemmingServer.builder().port(port).handlerThreads(0).start());
+		// the port is taken by the running server
+		assertThrows(IOException.class, () -> StemmingServer.builder().port(server.port()).start());
+		assertEquals(batcherThreads, batcherThreads());
+		try (ServerSocket socket = new ServerSocket(port, 1, InetAddress.getLoopbackAddress())) {
+			assertEquals(port, socket.getLocalPort());
+		}
+	}
+
+	@Test
+	void testQueryParameter() throws IOException
+	{
+		assertEquals("mag-isa", StemmingServer.queryParameter("a=b&token=mag%2disa", "token"));
+		assertEquals("", StemmingServer.queryParameter("token=", "token"));
+		assertEquals(null, StemmingServer.queryParameter("tokens=bahay", "token"));
+		assertEquals(null, StemmingServer.queryParameter(null, "token"));
+	}
+
+	/**
+	 * Answers the status code and body, separated by a space.
+	 */
+	private static String request(final String method, final String path, final String body) throws IOException
+	{
+		final HttpURLConnection connection = (HttpURLConnection) new URL(
+				"http://localhost:" + server.port() + path).openConnection();
+		connection.setRequestMethod(method);
+		if (body != null) {
+			connection.setDoOutput(true);
+			try (OutputStream out = connection.getOutputStream()) {
+				out.write(body.getBytes(StandardCharsets.UTF_8));
+			}
+		}
+		final int status = connection.getResponseCode();
+		final ByteArrayOutputStream response = new ByteArrayOutputStream();
+		try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+			final byte[] buffer = new byte[4096];
+			for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+				response.write(buffer, 0, read);
+			}
+		}
+		return status + " " + new String(response.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static long batcherThreads()
+	{
+		return Thread.getAllStackTraces().keySet().stream().filter(thread -> thread.getName().startsWith("stem-batcher-"))
+				.count();
+	}
+
+	private static int status(final String response)
+	{
+		return Integer.parseInt(response.substring(0, response.indexOf(' ')));
+	}
+}
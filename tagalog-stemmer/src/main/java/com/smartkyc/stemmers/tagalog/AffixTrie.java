@@ -0,0 +1,127 @@
+package com.smartkyc.stemmers.tagalog;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compiled trie over an ordered inventory of prefixes or suffixes.
+ * <p>
+ * {@link #next(CharSequence, int)} walks the token, from the front for prefixes or from the back for suffixes, and
+ * returns the index of the first affix after a given one that the token starts or ends with. Starting from {@code -1}
+ * and passing back each result therefore visits the matching affixes in inventory order:
+ * <pre>
+ * for (int i = trie.next(token, -1); i != -1; i = trie.next(token, i)) { ... }
+ * </pre>
+ * An affix ends at a node of its own, so every node is the end of at most one affix.
+ */
+final class AffixTrie
+{
+	private final String[] affixes;
+
+	private final boolean reversed;
+
+	private final char[] labels;
+
+	private final int[] firstChild;
+
+	private final int[] nextSibling;
+
+	private final int[] terminals;
+
+	private AffixTrie(final Collection<String> affixes, final boolean reversed)
+	{
+		this.affixes = affixes.toArray(new String[0]);
+		this.reversed = reversed;
+
+		final List<Character> nodeLabels = new ArrayList<>();
+		final List<int[]> nodeLinks = new ArrayList<>();
+		final List<Integer> nodeTerminals = new ArrayList<>();
+		nodeLabels.add('\0');
+		nodeLinks.add(new int[] { -1, -1 });
+		nodeTerminals.add(-1);
+
+		for (int index = 0; index < this.affixes.length; index++) {
+			final String affix = this.affixes[index];
+			int node = 0;
+			for (int i = 0; i < affix.length(); i++) {
+				final char c = affix.charAt(reversed ? affix.length() - 1 - i : i);
+				int child = nodeLinks.get(node)[0];
+				while (child != -1 && nodeLabels.get(child) != c) {
+					child = nodeLinks.get(child)[1];
+				}
+				if (child == -1) {
+					child = nodeLabels.size();
+					nodeLabels.add(c);
+					nodeLinks.add(new int[] { -1, nodeLinks.get(node)[0] });
+					nodeTerminals.add(-1);
+					nodeLinks.get(node)[0] = child;
+				}
+				node = child;
+			}
+			if (nodeTerminals.get(node) != -1) {
+				throw new IllegalArgumentException("Duplicate affix: " + affix);
+			}
+			nodeTerminals.set(node, index);
+		}
+
+		final int size = nodeLabels.size();
+		labels = new char[size];
+		firstChild = new int[size];
+		nextSibling = new int[size];
+		terminals = new int[size];
+		for (int node = 0; node < size; node++) {
+			labels[node] = nodeLabels.get(node);
+			firstChild[node] = nodeLinks.get(node)[0];
+			nextSibling[node] = nodeLinks.get(node)[1];
+			terminals[node] = nodeTerminals.get(node);
+		}
+	}
+
+	static AffixTrie prefixes(final Collection<String> prefixes)
+	{
+		return new AffixTrie(prefixes, false);
+	}
+
+	static AffixTrie suffixes(final Collection<String> suffixes)
+	{
+		return new AffixTrie(suffixes, true);
+	}
+
+	int next(final CharSequence token, final int after)
+	{
+		return next(token, 0, token.length(), after);
+	}
+
+	/**
+	 * The lowest index above {@code after} of an affix that {@code token[from, to)} starts or ends with, depending on the
+	 * kind of trie, or {@code -1} if there is none.
+	 */
+	int next(final CharSequence token, final int from, final int to, final int after)
+	{
+		final int length = to - from;
+		int next = -1;
+		int node = 0;
+		for (int i = 0; i < length; i++) {
+			final char c = token.charAt(reversed ? to - 1 - i : from + i);
+			int child = firstChild[node];
+			while (child != -1 && labels[child] != c) {
+				child = nextSibling[child];
+			}
+			if (child == -1) {
+				break;
+			}
+			node = child;
+			final int affix = terminals[node];
+			if (affix > after && (next == -1 || affix < next)) {
+				next = affix;
+			}
+		}
+		return next;
+	}
+
+	String affix(final int index)
+	{
+		return affixes[index];
+	}
+}
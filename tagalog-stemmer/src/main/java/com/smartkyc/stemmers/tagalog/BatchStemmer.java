@@ -0,0 +1,87 @@
+package com.smartkyc.stemmers.tagalog;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Stems a batch of tokens: duplicates are stemmed once and, for batches with enough distinct tokens, the distinct
+ * tokens are split into chunks that are stemmed concurrently on the given executor.
+ */
+final class BatchStemmer
+{
+	private static final int MIN_CHUNK_SIZE = 256;
+
+	private BatchStemmer()
+	{
+	}
+
+	static String[] stemAll(final TagalogStemmer stemmer, final String[] tokens, final Executor executor,
+			final int parallelismThreshold)
+	{
+		final Map<String, Integer> uniqueIndexes = new HashMap<>();
+		final int[] mapping = new int[tokens.length];
+		final String[] unique = new String[tokens.length];
+		for (int i = 0; i < tokens.length; i++) {
+			Integer index = uniqueIndexes.get(tokens[i]);
+			if (index == null) {
+				index = uniqueIndexes.size();
+				uniqueIndexes.put(tokens[i], index);
+				unique[index] = tokens[i];
+			}
+			mapping[i] = index;
+		}
+
+		final int uniqueCount = uniqueIndexes.size();
+		final String[] uniqueRoots = new String[uniqueCount];
+		if (executor == null || uniqueCount < parallelismThreshold) {
+			stemRange(stemmer, unique, uniqueRoots, 0, uniqueCount);
+		} else {
+			final int chunkCount = chunkCount(executor);
+			final int chunkSize = Math.max(MIN_CHUNK_SIZE, (uniqueCount + chunkCount - 1) / chunkCount);
+			final CompletableFuture<?>[] chunks = new CompletableFuture<?>[(uniqueCount + chunkSize - 1) / chunkSize];
+			for (int chunk = 0; chunk < chunks.length; chunk++) {
+				final int from = chunk * chunkSize;
+				final int to = Math.min(from + chunkSize, uniqueCount);
+				chunks[chunk] = CompletableFuture.runAsync(() -> stemRange(stemmer, unique, uniqueRoots, from, to), executor);
+			}
+			try {
+				CompletableFuture.allOf(chunks).join();
+			} catch (final CompletionException e) {
+				throw new IllegalStateException("Failed to stem batch", e.getCause());
+			}
+		}
+
+		final String[] roots = new String[tokens.length];
+		for (int i = 0; i < tokens.length; i++) {
+			roots[i] = uniqueRoots[mapping[i]];
+		}
+		return roots;
+	}
+
+	private static void stemRange(final TagalogStemmer stemmer, final String[] tokens, final String[] roots, final int from,
+			final int to)
+	{
+		for (int i = from; i < to; i++) {
+			roots[i] = stemmer.stem(tokens[i]);
+		}
+	}
+
+	private static int chunkCount(final Executor executor)
+	{
+		final int parallelism;
+		if (executor instanceof ForkJoinPool) {
+			parallelism = ((ForkJoinPool) executor).getParallelism();
+		} else if (executor instanceof ThreadPoolExecutor) {
+			parallelism = ((ThreadPoolExecutor) executor).getMaximumPoolSize();
+		} else {
+			parallelism = Runtime.getRuntime().availableProcessors();
+		}
+		// a few chunks per worker so that uneven chunks still keep every worker busy
+		return Math.max(1, Math.min(parallelism, Runtime.getRuntime().availableProcessors() * 4)) * 4;
+	}
+}
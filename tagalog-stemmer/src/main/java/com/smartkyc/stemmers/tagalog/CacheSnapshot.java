@@ -0,0 +1,148 @@
+package com.smartkyc.stemmers.tagalog;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * File of the most frequently requested token to root results of a {@link StemCache}, used to warm the cache after a
+ * restart.
+ * <p>
+ * Layout, gzip compressed: magic {@code TGLC}, format version, {@link TagalogStemmer#RULES_VERSION}, bit set of the
+ * enabled stages, checksum of the dictionary the results were computed with, checksum of the inflection table in use or
+ * 0, entry count, then each token and its root in modified UTF-8, most frequent first. A snapshot whose rules version,
+ * stages, dictionary or inflection table differ from the reading stemmer is stale and rejected with
+ * {@link StaleSnapshotException}.
+ */
+final class CacheSnapshot
+{
+	static final int MAGIC = 0x54474C43;
+
+	static final int FORMAT_VERSION = 3;
+
+	/**
+	 * Longest token or root saved; {@link DataOutputStream#writeUTF(String)} cannot write longer strings in every case.
+	 */
+	private static final int MAX_LENGTH = 16 * 1024;
+
+	private CacheSnapshot()
+	{
+	}
+
+	/**
+	 * Writes the given results to a temporary file next to {@code file} and moves it into place, so readers never see a
+	 * partial snapshot.
+	 *
+	 * @return the number of results written
+	 */
+	static int write(final Path file, final List<Map.Entry<String, String>> results, final int stages,
+			final long dictionaryChecksum, final long inflectionsChecksum) throws IOException
+	{
+		final List<Map.Entry<String, String>> saved = new ArrayList<>(results.size());
+		for (final Map.Entry<String, String> result : results) {
+			if (result.getKey().length() <= MAX_LENGTH && result.getValue().length() <= MAX_LENGTH) {
+				saved.add(result);
+			}
+		}
+
+		final Path target = file.toAbsolutePath();
+		final Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temporary))))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				out.writeInt(TagalogStemmer.RULES_VERSION);
+				out.writeInt(stages);
+				out.writeLong(dictionaryChecksum);
+				out.writeLong(inflectionsChecksum);
+				out.writeInt(saved.size());
+				for (final Map.Entry<String, String> result : saved) {
+					out.writeUTF(result.getKey());
+					out.writeUTF(result.getValue());
+				}
+			}
+			try {
+				Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (final AtomicMoveNotSupportedException e) {
+				Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+		return saved.size();
+	}
+
+	/**
+	 * Reads the results of a snapshot, most frequent first.
+	 *
+	 * @throws StaleSnapshotException if the snapshot was taken with other rules, stages, dictionary or inflection table
+	 * @throws IOException if the file is not a readable snapshot
+	 */
+	static List<Map.Entry<String, String>> read(final Path file, final int stages, final long dictionaryChecksum,
+			final long inflectionsChecksum) throws IOException
+	{
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a stem cache snapshot: " + file);
+			}
+			final int version = in.readInt();
+			if (version != FORMAT_VERSION) {
+				throw new IOException("Unsupported stem cache snapshot version " + version + ": " + file);
+			}
+			final int rulesVersion = in.readInt();
+			if (rulesVersion != TagalogStemmer.RULES_VERSION) {
+				throw new StaleSnapshotException("Snapshot " + file + " was taken with rules version " + rulesVersion
+						+ ", current is " + TagalogStemmer.RULES_VERSION);
+			}
+			if (in.readInt() != stages) {
+				throw new StaleSnapshotException("Snapshot " + file + " was taken with other stages");
+			}
+			final long checksum = in.readLong();
+			if (checksum != dictionaryChecksum) {
+				throw new StaleSnapshotException("Snapshot " + file + " was taken with another root dictionary");
+			}
+			if (in.readLong() != inflectionsChecksum) {
+				throw new StaleSnapshotException("Snapshot " + file + " was taken with another inflection table");
+			}
+			final int count = in.readInt();
+			if (count < 0) {
+				throw new IOException("Corrupt stem cache snapshot: " + file);
+			}
+			final List<Map.Entry<String, String>> results = new ArrayList<>(Math.min(count, 1 << 16));
+			for (int i = 0; i < count; i++) {
+				results.add(new AbstractMap.SimpleImmutableEntry<>(in.readUTF(), in.readUTF()));
+			}
+			return results;
+		} catch (final EOFException e) {
+			throw new IOException("Truncated stem cache snapshot: " + file, e);
+		}
+	}
+
+	/**
+	 * A snapshot that no longer matches the rules, stages, dictionary or inflection table of the stemmer.
+	 */
+	static final class StaleSnapshotException extends IOException
+	{
+		private static final long serialVersionUID = 1L;
+
+		StaleSnapshotException(final String message)
+		{
+			super(message);
+		}
+	}
+}
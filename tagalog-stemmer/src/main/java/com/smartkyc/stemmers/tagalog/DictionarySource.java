@@ -0,0 +1,358 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Where a {@link TagalogStemmer} reads its root words from.
+ * <p>
+ * A source compiles its {@link RootStore} once, on first use, and every stemmer built from the same source shares that
+ * store. {@link #classpath(String)}, {@link #file(Path)} and {@link #offHeap(Path...)} return the same source for the
+ * same location for as long as it is in use; they only hold it weakly, so a source, and its store, is freed with the
+ * last stemmer using it. Custom sources extend this class and implement {@link #read()}, and may override
+ * {@link #readOrdinals()} and {@link #readNumbers()}.
+ * <p>
+ * {@link #reload()} reads the source again in the background and then publishes the new roots and maps together with
+ * one reference swap, so stemming never waits for a reload and sees either the old or the new version, complete. Each
+ * published version gets the next {@link #version()}, and stemmers drop cached results of older versions.
+ */
+public abstract class DictionarySource
+{
+	private static final Logger log = LoggerFactory.getLogger(DictionarySource.class);
+
+	public static final String DEFAULT_RESOURCE = "/tagalogWordsRoots.txt";
+
+	private static final Map<String, SharedSource> SHARED_SOURCES = new ConcurrentHashMap<>();
+
+	private static final ReferenceQueue<DictionarySource> RELEASED_SOURCES = new ReferenceQueue<>();
+
+	private final AtomicReference<CompletableFuture<Lexicon>> dictionary = new AtomicReference<>();
+
+	private volatile Lexicon current;
+
+	/**
+	 * Versions published so far; builds run one at a time, holding the lock of the source.
+	 */
+	private long versions;
+
+	/**
+	 * The root list bundled with the stemmer.
+	 */
+	public static DictionarySource defaultSource()
+	{
+		return classpath(DEFAULT_RESOURCE);
+	}
+
+	/**
+	 * A UTF-8 root list on the classpath, one root per line; blank lines and lines starting with {@code #} are skipped.
+	 * <p>
+	 * If a {@link RootDictionaryImage} of the list is present next to it, with the extension {@code .bin} instead of
+	 * {@code .txt}, the image is loaded instead. An unreadable or outdated image falls back to the text list.
+	 */
+	public static DictionarySource classpath(final String resource)
+	{
+		final String key = "classpath:" + resource;
+		return shared(key, () -> new DictionarySource()
+		{
+			@Override
+			protected RootStore read() throws IOException
+			{
+				final URL image = DictionarySource.class.getResource(imageResource(resource));
+				if (image != null) {
+					try {
+						return RootDictionaryImage.load(image);
+					} catch (final IOException e) {
+						log.warn("Ignoring root dictionary image {}, reading {} instead", image, resource, e);
+					}
+				}
+				try (InputStream stream = DictionarySource.class.getResourceAsStream(resource)) {
+					if (stream == null) {
+						throw new IOException("Unable to create input stream from resource " + resource);
+					}
+					return RootDictionary.read(stream);
+				}
+			}
+
+			@Override
+			public String toString()
+			{
+				return key;
+			}
+		});
+	}
+
+	/**
+	 * A root list in the file system: either a {@link RootDictionaryImage}, which is memory mapped, or a UTF-8 text list in
+	 * the same format as {@link #classpath(String)}.
+	 */
+	public static DictionarySource file(final Path path)
+	{
+		final Path normalized = path.toAbsolutePath().normalize();
+		final String key = "file:" + normalized;
+		return shared(key, () -> new DictionarySource()
+		{
+			@Override
+			protected RootStore read() throws IOException
+			{
+				if (RootDictionaryImage.isImage(normalized)) {
+					return RootDictionaryImage.map(normalized);
+				}
+				try (InputStream stream = Files.newInputStream(normalized)) {
+					return RootDictionary.read(stream);
+				}
+			}
+
+			@Override
+			public String toString()
+			{
+				return key;
+			}
+		});
+	}
+
+	/**
+	 * One or more root lists in the file system, in the text format of {@link #classpath(String)}, merged into an
+	 * {@link OffHeapRootStore}. Meant for lexicons with millions of entries, which would otherwise take hundreds of MB of
+	 * heap.
+	 */
+	public static DictionarySource offHeap(final Path... lists)
+	{
+		final List<Path> normalized = new ArrayList<>();
+		for (final Path list : lists) {
+			normalized.add(list.toAbsolutePath().normalize());
+		}
+		final String key = "offheap:" + normalized;
+		return shared(key, () -> new DictionarySource()
+		{
+			@Override
+			protected RootStore read() throws IOException
+			{
+				final OffHeapRootStore.Builder builder = OffHeapRootStore.builder(1 << 16);
+				for (final Path list : normalized) {
+					try (InputStream stream = Files.newInputStream(list)) {
+						builder.addAll(stream);
+					}
+				}
+				final OffHeapRootStore store = builder.build();
+				log.info("Loaded {} roots from {} into {} bytes of direct memory", store.size(), normalized, store.offHeapBytes());
+				return store;
+			}
+
+			@Override
+			public String toString()
+			{
+				return key;
+			}
+		});
+	}
+
+	/**
+	 * The source shared under {@code key}, made by {@code factory} unless one is still in use.
+	 */
+	private static DictionarySource shared(final String key, final Supplier<DictionarySource> factory)
+	{
+		for (Reference<? extends DictionarySource> released; (released = RELEASED_SOURCES.poll()) != null; ) {
+			SHARED_SOURCES.remove(((SharedSource) released).key, released);
+		}
+		while (true) {
+			final SharedSource shared = SHARED_SOURCES.get(key);
+			final DictionarySource source = shared == null ? null : shared.get();
+			if (source != null) {
+				return source;
+			}
+			final DictionarySource created = factory.get();
+			final SharedSource entry = new SharedSource(key, created);
+			if (shared == null ? SHARED_SOURCES.putIfAbsent(key, entry) == null : SHARED_SOURCES.replace(key, shared, entry)) {
+				return created;
+			}
+		}
+	}
+
+	/**
+	 * An in-memory root list. The roots are copied, so later changes to {@code roots} are not seen.
+	 */
+	public static DictionarySource of(final Collection<String> roots)
+	{
+		final List<String> copy = Collections.unmodifiableList(new ArrayList<>(roots));
+		return new DictionarySource()
+		{
+			@Override
+			protected RootStore read()
+			{
+				return RootDictionary.of(copy);
+			}
+
+			@Override
+			public String toString()
+			{
+				return "memory:" + copy.size() + " roots";
+			}
+		};
+	}
+
+	/**
+	 * Reads and compiles the dictionary. Called once on first use and once per {@link #reload()}, never concurrently.
+	 */
+	protected abstract RootStore read() throws IOException;
+
+	/**
+	 * Reads the ordinal stems, such as {@code lawa} of {@code ikalawa}, mapped to their roots. Keys are tried in the
+	 * iteration order of the map. Called together with {@link #read()}; defaults to the built-in numerals.
+	 */
+	protected Map<String, String> readOrdinals() throws IOException
+	{
+		return Lexicon.DEFAULT_ORDINALS;
+	}
+
+	/**
+	 * Reads the beginnings of cardinal numbers, such as {@code limampu}, mapped to their roots. Keys are tried in the
+	 * iteration order of the map. Called together with {@link #read()}; defaults to the built-in numerals.
+	 */
+	protected Map<String, String> readNumbers() throws IOException
+	{
+		return Lexicon.DEFAULT_NUMBERS;
+	}
+
+	/**
+	 * Reads the source again on the common fork-join pool; see {@link #reload(Executor)}.
+	 */
+	public final CompletableFuture<Long> reload()
+	{
+		return reload(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Reads and compiles the source again on {@code executor} and publishes the result, which stemmers built from this
+	 * source use from their next call on; calls in progress finish with the version they started with. If reading fails,
+	 * the current version stays in use.
+	 * <p>
+	 * A memory mapped {@link RootDictionaryImage} must be replaced by moving a new file into place, not overwritten.
+	 *
+	 * @return the version published, or a future failed with the cause of the failure
+	 */
+	public final CompletableFuture<Long> reload(final Executor executor)
+	{
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return build().version();
+			} catch (final IOException | RuntimeException e) {
+				log.warn("Failed to reload {}, keeping version {}", this, version(), e);
+				throw new CompletionException(e);
+			}
+		}, executor);
+	}
+
+	/**
+	 * The version of the dictionary in use, counting from 1 for the first load; 0 until it has loaded.
+	 */
+	public final long version()
+	{
+		final Lexicon lexicon = current;
+		return lexicon == null ? 0 : lexicon.version();
+	}
+
+	/**
+	 * The latest version published, or {@code null} if the dictionary has not loaded yet.
+	 */
+	final Lexicon current()
+	{
+		return current;
+	}
+
+	/**
+	 * Returns the first version of the dictionary, starting to load it if nobody has yet: on {@code executor}, or on the
+	 * calling thread if {@code executor} is {@code null}.
+	 */
+	final CompletableFuture<Lexicon> load(final Executor executor)
+	{
+		final CompletableFuture<Lexicon> existing = dictionary.get();
+		if (existing != null) {
+			return existing;
+		}
+		final CompletableFuture<Lexicon> loading = new CompletableFuture<>();
+		if (!dictionary.compareAndSet(null, loading)) {
+			return dictionary.get();
+		}
+		if (executor == null) {
+			complete(loading);
+		} else {
+			executor.execute(() -> complete(loading));
+		}
+		return loading;
+	}
+
+	/**
+	 * Whether the dictionary has been loaded successfully.
+	 */
+	public final boolean isLoaded()
+	{
+		return current != null;
+	}
+
+	private static String imageResource(final String resource)
+	{
+		return (resource.endsWith(".txt") ? resource.substring(0, resource.length() - 4) : resource) + ".bin";
+	}
+
+	private void complete(final CompletableFuture<Lexicon> loading)
+	{
+		try {
+			loading.complete(build());
+		} catch (final Exception e) {
+			loading.completeExceptionally(e);
+		}
+	}
+
+	/**
+	 * Reads and compiles the next version and publishes it.
+	 */
+	private synchronized Lexicon build() throws IOException
+	{
+		final RootStore store = read();
+		final FilteredRootStore filtered = FilteredRootStore.of(store);
+		final Lexicon lexicon = new Lexicon(filtered, readOrdinals(), readNumbers(), versions + 1);
+		versions = lexicon.version();
+		current = lexicon;
+		// a reload before first use also serves as the first load
+		dictionary.compareAndSet(null, CompletableFuture.completedFuture(lexicon));
+		log.info("Published version {} of {}: {} roots, filtered with {} bytes, estimated false-positive rate {}",
+				lexicon.version(), this, store.size(), filtered.bytes(),
+				String.format("%.2f%%", filtered.falsePositiveRate() * 100));
+		return lexicon;
+	}
+
+	/**
+	 * A registry entry, queued for removal once its source is collected.
+	 */
+	private static final class SharedSource extends WeakReference<DictionarySource>
+	{
+		private final String key;
+
+		SharedSource(final String key, final DictionarySource source)
+		{
+			super(source, RELEASED_SOURCES);
+			this.key = key;
+		}
+	}
+}
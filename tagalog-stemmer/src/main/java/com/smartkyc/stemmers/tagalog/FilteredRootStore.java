@@ -0,0 +1,188 @@
+package com.smartkyc.stemmers.tagalog;
+
+import java.util.function.Consumer;
+
+/**
+ * {@link RootStore} guarded by a blocked Bloom filter over its roots, which rejects most tokens that are not roots
+ * before the store walks its table.
+ * <p>
+ * Most dictionary checks of a {@link TagalogStemmer#stem(String)} call miss: intermediate forms like {@code ghahanap}
+ * are checked by stage after stage before one hits. The filter tests {@value #PROBES} bits of one {@code long} picked by
+ * the token's {@link RootDictionary#hash(CharSequence)}; only a token that passes reaches the store, which for a
+ * {@link RootDictionary}, a {@link MappedRootStore} or an {@link OffHeapRootStore} reuses the hash. A miss thus costs
+ * one hash and one read of a small array rather than reads of the table, the entry hashes and the entry lengths, which
+ * for large stores are cache misses. The filter has no false negatives, so the answers are those of the store.
+ * <p>
+ * The filter is sized at {@value #BITS_PER_ROOT} to twice as many bits per root, for a false-positive rate of about 1%
+ * that {@link #falsePositiveRate()} estimates from the bits actually set.
+ */
+final class FilteredRootStore implements RootStore
+{
+	static final int BITS_PER_ROOT = 12;
+
+	static final int PROBES = 4;
+
+	private static final int MAX_WORDS = 1 << 25;
+
+	private final RootStore store;
+
+	private final RootDictionary dictionary;
+
+	private final OffHeapRootStore offHeap;
+
+	private final MappedRootStore mapped;
+
+	private final long[] words;
+
+	private final int mask;
+
+	private FilteredRootStore(final RootStore store, final long[] words)
+	{
+		this.store = store;
+		this.dictionary = store instanceof RootDictionary ? (RootDictionary) store : null;
+		this.offHeap = store instanceof OffHeapRootStore ? (OffHeapRootStore) store : null;
+		this.mapped = store instanceof MappedRootStore ? (MappedRootStore) store : null;
+		this.words = words;
+		this.mask = words.length - 1;
+	}
+
+	/**
+	 * Builds the filter over the roots of {@code store}.
+	 */
+	static FilteredRootStore of(final RootStore store)
+	{
+		int capacity = 1;
+		while ((long) capacity * Long.SIZE < (long) store.size() * BITS_PER_ROOT && capacity < MAX_WORDS) {
+			capacity <<= 1;
+		}
+		final long[] words = new long[capacity];
+		store.forEach(root -> {
+			final long mix = mix(RootDictionary.hash(root));
+			words[index(mix, words.length - 1)] |= bits(mix);
+		});
+		return new FilteredRootStore(store, words);
+	}
+
+	/**
+	 * The store behind the filter.
+	 */
+	RootStore store()
+	{
+		return store;
+	}
+
+	@Override
+	public boolean contains(final CharSequence token)
+	{
+		final int hash = RootDictionary.hash(token);
+		return mightContain(hash) && contains(token, hash);
+	}
+
+	/**
+	 * Whether {@code token[from, to)} is a root, for the rules that probe a token with an affix cut off. The range is
+	 * hashed in place and only copied for the store if it passes the filter, which most probes do not.
+	 */
+	boolean contains(final CharSequence token, final int from, final int to)
+	{
+		final int hash = RootDictionary.hash(token, from, to);
+		return mightContain(hash) && contains(token.subSequence(from, to), hash);
+	}
+
+	private boolean contains(final CharSequence token, final int hash)
+	{
+		if (dictionary != null) {
+			return dictionary.contains(token, hash);
+		}
+		if (mapped != null) {
+			return mapped.contains(token, hash);
+		}
+		return offHeap != null ? offHeap.contains(token, hash) : store.contains(token);
+	}
+
+	@Override
+	public boolean contains(final char[] buffer, final int offset, final int length)
+	{
+		final int hash = RootDictionary.hash(buffer, offset, length);
+		if (!mightContain(hash)) {
+			return false;
+		}
+		if (dictionary != null) {
+			return dictionary.contains(buffer, offset, length, hash);
+		}
+		if (mapped != null) {
+			return mapped.contains(buffer, offset, length, hash);
+		}
+		return offHeap != null ? offHeap.contains(buffer, offset, length, hash) : store.contains(buffer, offset, length);
+	}
+
+	@Override
+	public int size()
+	{
+		return store.size();
+	}
+
+	@Override
+	public long checksum()
+	{
+		return store.checksum();
+	}
+
+	@Override
+	public void forEach(final Consumer<? super CharSequence> action)
+	{
+		store.forEach(action);
+	}
+
+	/**
+	 * Whether a token with the given {@link RootDictionary#hash(CharSequence)} may be a root; {@code false} means it
+	 * certainly is not.
+	 */
+	boolean mightContain(final int hash)
+	{
+		final long mix = mix(hash);
+		final long bits = bits(mix);
+		return (words[index(mix, mask)] & bits) == bits;
+	}
+
+	/**
+	 * Heap bytes taken by the filter bits.
+	 */
+	long bytes()
+	{
+		return (long) words.length * Long.BYTES;
+	}
+
+	/**
+	 * The chance that a token that is not a root passes the filter, assuming tokens hash uniformly.
+	 */
+	double falsePositiveRate()
+	{
+		double rate = 0;
+		for (final long word : words) {
+			rate += Math.pow(Long.bitCount(word) / (double) Long.SIZE, PROBES);
+		}
+		return rate / words.length;
+	}
+
+	/**
+	 * Spreads the store's hash, whose low bits pick the store's table slot, over all 64 bits.
+	 */
+	private static long mix(final int hash)
+	{
+		final long h = (hash & 0xFFFFFFFFL) * 0x9E3779B97F4A7C15L;
+		return h ^ (h >>> 29);
+	}
+
+	/**
+	 * The word is picked by the high half of the mixed hash, the bits within it by the low 24 bits.
+	 */
+	private static int index(final long mix, final int mask)
+	{
+		return (int) (mix >>> 32) & mask;
+	}
+
+	private static long bits(final long mix)
+	{
+		return 1L << mix | 1L << (mix >>> 6) | 1L << (mix >>> 12) | 1L << (mix >>> 18);
+	}
+}
@@ -0,0 +1,194 @@
+package com.smartkyc.stemmers.tagalog;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Generates the inflected forms of root words forward, for {@link InflectionTable}.
+ * <p>
+ * Every root of letters only and at least {@value #MIN_ROOT_LENGTH} letters is inflected with
+ * <ul>
+ * <li>CV reduplication of its first syllable: {@code takbo}, {@code tatakbo},</li>
+ * <li>the infixes {@code -um-} and {@code -in-}, or the prefixes {@code um-} and {@code in-} before a vowel:
+ * {@code tumakbo}, {@code tinatakbo},</li>
+ * <li>the prefixes {@code mag-}, {@code nag-}, {@code pag-}, {@code ma-}, {@code na-} and {@code pa-}, hyphenated or not
+ * before a vowel: {@code magtatakbo}, {@code mag-aral},</li>
+ * <li>the prefixes {@code pang-}, {@code mang-} and {@code nang-} with nasal assimilation of the first consonant: {@code p}
+ * and {@code b} become {@code m}, {@code s}, {@code t} and {@code d} become {@code n}, {@code k} becomes {@code ng}:
+ * {@code mamili}, {@code mamimili}, {@code manahi},</li>
+ * <li>the suffixes {@code -an} and {@code -in}, and {@code -han} and {@code -hin} after a vowel, raising a final
+ * {@code o} to {@code u}: {@code takbuhan}, {@code inumin}, also after the infix {@code -in-} and the prefixes.</li>
+ * </ul>
+ * Forms that are themselves roots, and forms generated from more than one root, are left out.
+ */
+final class InflectionGenerator
+{
+	static final int MIN_ROOT_LENGTH = 3;
+
+	private static final String[] PREFIXES = { "mag", "nag", "pag", "ma", "na", "pa" };
+
+	private static final String[] NASAL_PREFIXES = { "pa", "ma", "na" };
+
+	private static final String VOWELS = "aeiou";
+
+	private InflectionGenerator()
+	{
+	}
+
+	/**
+	 * Maps every unambiguous form of the given roots to its root, in sorted order.
+	 */
+	static Map<String, String> generate(final Collection<String> roots)
+	{
+		final Set<String> known = new HashSet<>();
+		for (final String root : roots) {
+			known.add(root.toLowerCase(Locale.ROOT));
+		}
+		final Map<String, String> forms = new TreeMap<>();
+		final Set<String> ambiguous = new HashSet<>();
+		for (final String root : known) {
+			if (root.length() < MIN_ROOT_LENGTH || !isLetters(root)) {
+				continue;
+			}
+			for (final String form : inflect(root)) {
+				if (known.contains(form)) {
+					continue;
+				}
+				final String previous = forms.putIfAbsent(form, root);
+				if (previous != null && !previous.equals(root)) {
+					ambiguous.add(form);
+				}
+			}
+		}
+		forms.keySet().removeAll(ambiguous);
+		return forms;
+	}
+
+	/**
+	 * The forms of one lower-case root, including the root itself.
+	 */
+	static Set<String> inflect(final String root)
+	{
+		final Set<String> forms = new LinkedHashSet<>();
+		for (final String base : new String[] { root, reduplicate(root) }) {
+			forms.add(base);
+			addSuffixed(forms, base);
+			forms.add(infix(base, "um"));
+			final String infixed = infix(base, "in");
+			forms.add(infixed);
+			addSuffixed(forms, infixed);
+			for (final String prefix : PREFIXES) {
+				addPrefixed(forms, prefix, base);
+			}
+		}
+		final String nasal = assimilate(root);
+		if (nasal != null) {
+			for (final String prefix : NASAL_PREFIXES) {
+				for (final String base : new String[] { nasal, reduplicate(nasal) }) {
+					forms.add(prefix + base);
+					addSuffixed(forms, prefix + base);
+				}
+			}
+		}
+		return forms;
+	}
+
+	private static void addPrefixed(final Set<String> forms, final String prefix, final String base)
+	{
+		final boolean hyphenated = !isVowel(prefix.charAt(prefix.length() - 1)) && isVowel(base.charAt(0));
+		for (final String form : hyphenated ? new String[] { prefix + base, prefix + '-' + base } : new String[] { prefix
+				+ base }) {
+			forms.add(form);
+			addSuffixed(forms, form);
+		}
+	}
+
+	private static void addSuffixed(final Set<String> forms, final String base)
+	{
+		final String raised = raiseFinalO(base);
+		forms.add(raised + "an");
+		forms.add(raised + "in");
+		if (isVowel(base.charAt(base.length() - 1))) {
+			forms.add(raised + "han");
+			forms.add(raised + "hin");
+		}
+	}
+
+	/**
+	 * Repeats the first consonant, or the {@code ng} digraph, and the first vowel: {@code takbo} gives {@code tatakbo},
+	 * {@code alis} gives {@code aalis}, {@code ngiti} gives {@code ngingiti}.
+	 */
+	static String reduplicate(final String word)
+	{
+		int vowel = 0;
+		while (vowel < word.length() && !isVowel(word.charAt(vowel))) {
+			vowel++;
+		}
+		if (vowel == word.length()) {
+			return word;
+		}
+		final int consonants = word.startsWith("ng") && vowel == 2 ? 2 : Math.min(vowel, 1);
+		return word.substring(0, consonants) + word.charAt(vowel) + word;
+	}
+
+	/**
+	 * Inserts {@code infix} after the first consonant, or prefixes it before a vowel.
+	 */
+	static String infix(final String word, final String infix)
+	{
+		return isVowel(word.charAt(0)) ? infix + word : word.charAt(0) + infix + word.substring(1);
+	}
+
+	/**
+	 * The root after a nasal prefix that ends in {@code ng}, with the nasal it assimilates to in front, or {@code null} if
+	 * the root does not start with a vowel or a consonant that assimilates.
+	 */
+	static String assimilate(final String root)
+	{
+		final char first = root.charAt(0);
+		switch (first) {
+		case 'p':
+		case 'b':
+			return 'm' + root.substring(1);
+		case 's':
+		case 't':
+		case 'd':
+			return 'n' + root.substring(1);
+		case 'k':
+			return "ng" + root.substring(1);
+		default:
+			return isVowel(first) ? "ng" + root : null;
+		}
+	}
+
+	private static String raiseFinalO(final String word)
+	{
+		for (int i = word.length() - 1; i >= 0; i--) {
+			final char c = word.charAt(i);
+			if (isVowel(c)) {
+				return c == 'o' ? word.substring(0, i) + 'u' + word.substring(i + 1) : word;
+			}
+		}
+		return word;
+	}
+
+	private static boolean isVowel(final char c)
+	{
+		return VOWELS.indexOf(c) >= 0;
+	}
+
+	private static boolean isLetters(final String word)
+	{
+		for (int i = 0; i < word.length(); i++) {
+			if (word.charAt(i) < 'a' || word.charAt(i) > 'z') {
+				return false;
+			}
+		}
+		return true;
+	}
+}
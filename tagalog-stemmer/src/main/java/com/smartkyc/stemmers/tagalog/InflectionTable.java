@@ -0,0 +1,371 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+/**
+ * Lookup table from inflected surface forms to their roots, generated forward from a root list by
+ * {@link InflectionGenerator} when the library is built, so that a {@link TagalogStemmer} configured with
+ * {@link TagalogStemmer.Builder#inflections(InflectionTable)} answers known forms without running its rules.
+ * <p>
+ * The forms themselves are not kept: each is reduced to a 48-bit fingerprint of its case-folded characters, whose top 16
+ * bits pick a bucket of a directory and whose low 32 bits are stored, sorted within the bucket, next to the index of the
+ * root. A lookup hashes the token and scans a bucket of a few entries without allocating. Forms whose fingerprints
+ * collide are left out; a token that is no form matches one of the {@code n} forms with a chance of about
+ * {@code n / 2^48}.
+ * <p>
+ * The table remembers the {@link RootStore#checksum()} of the root list it was generated from, and a stemmer only uses it
+ * while its dictionary has that checksum: with other roots, the forms of the table may lead to roots the dictionary does
+ * not know, and miss the forms of roots it added.
+ * <p>
+ * Image layout, big-endian: magic {@code TGLI}, format version, root count, form count, checksum of the root list, CRC-32
+ * of the payload, then the payload: the roots in modified UTF-8, the bucket starts, the fingerprints and the root indexes.
+ */
+public final class InflectionTable
+{
+	private static final Logger log = LoggerFactory.getLogger(InflectionTable.class);
+
+	public static final String DEFAULT_RESOURCE = "/tagalogInflections.bin";
+
+	static final int MAGIC = 0x54474C49;
+
+	static final int FORMAT_VERSION = 2;
+
+	private static final int BUCKETS = 1 << 16;
+
+	private static final int MAX_ROOTS = 1 << 16;
+
+	private static volatile InflectionTable bundled;
+
+	private final String[] roots;
+
+	private final int[] starts;
+
+	private final int[] fingerprints;
+
+	private final int[] rootIndexes;
+
+	private final long rootChecksum;
+
+	private InflectionTable(final String[] roots, final int[] starts, final int[] fingerprints, final int[] rootIndexes,
+			final long rootChecksum)
+	{
+		this.roots = roots;
+		this.starts = starts;
+		this.fingerprints = fingerprints;
+		this.rootIndexes = rootIndexes;
+		this.rootChecksum = rootChecksum;
+	}
+
+	/**
+	 * Generates the table of the given roots: {@code InflectionTable <roots.txt> <inflections.bin>}.
+	 */
+	public static void main(final String[] args) throws IOException
+	{
+		if (args.length != 2) {
+			throw new IllegalArgumentException("Usage: InflectionTable <roots.txt> <inflections.bin>");
+		}
+		final InflectionTable table;
+		try (InputStream in = Files.newInputStream(Paths.get(args[0]))) {
+			table = generate(readRoots(in));
+		}
+		final Path target = Paths.get(args[1]);
+		if (target.getParent() != null) {
+			Files.createDirectories(target.getParent());
+		}
+		try (OutputStream out = Files.newOutputStream(target)) {
+			table.write(out);
+		}
+	}
+
+	/**
+	 * The table generated from the bundled root list, the roots of {@link DictionarySource#defaultSource()}, loaded from
+	 * {@link #DEFAULT_RESOURCE} on first use. If the build did not produce it, or it is unreadable, it is generated from
+	 * the root list instead.
+	 *
+	 * @throws IllegalStateException if neither can be read
+	 */
+	public static InflectionTable bundled()
+	{
+		InflectionTable table = bundled;
+		if (table == null) {
+			synchronized (InflectionTable.class) {
+				table = bundled;
+				if (table == null) {
+					table = loadBundled();
+					bundled = table;
+				}
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * Generates the forms of the given roots and compiles them into a table.
+	 */
+	public static InflectionTable generate(final Collection<String> roots)
+	{
+		return of(InflectionGenerator.generate(roots), RootDictionary.of(roots).checksum());
+	}
+
+	/**
+	 * Compiles the given form to root pairs, generated from a root list with the given {@link RootStore#checksum()}.
+	 */
+	static InflectionTable of(final Map<String, String> forms, final long rootChecksum)
+	{
+		final List<String> roots = forms.values().stream().distinct().sorted().collect(Collectors.toList());
+		if (roots.size() > MAX_ROOTS) {
+			throw new IllegalArgumentException("Too many roots for an inflection table: " + roots.size());
+		}
+		final Map<String, Integer> rootIndexes = new HashMap<>();
+		for (int i = 0; i < roots.size(); i++) {
+			rootIndexes.put(roots.get(i), i);
+		}
+
+		// fingerprint in the high 48 bits, root index in the low 16, sorted unsigned so that each bucket is one run
+		final long[] entries = new long[forms.size()];
+		int count = 0;
+		for (final Map.Entry<String, String> form : forms.entrySet()) {
+			final long hash = hash(form.getKey());
+			entries[count++] = ((hash & 0xFFFFFFFFFFFFL) << 16 | rootIndexes.get(form.getValue())) ^ Long.MIN_VALUE;
+		}
+		Arrays.sort(entries);
+		for (int i = 0; i < count; i++) {
+			entries[i] ^= Long.MIN_VALUE;
+		}
+
+		final int[] starts = new int[BUCKETS + 1];
+		final int[] fingerprints = new int[count];
+		final int[] indexes = new int[count];
+		int size = 0;
+		for (int i = 0; i < count; i++) {
+			final long fingerprint = entries[i] >>> 16;
+			final boolean collides = i > 0 && entries[i - 1] >>> 16 == fingerprint
+					|| i + 1 < count && entries[i + 1] >>> 16 == fingerprint;
+			if (!collides) {
+				starts[(int) (fingerprint >>> 32) + 1]++;
+				fingerprints[size] = (int) fingerprint;
+				indexes[size++] = (int) (entries[i] & 0xFFFF);
+			}
+		}
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			starts[bucket + 1] += starts[bucket];
+		}
+		return new InflectionTable(roots.toArray(new String[0]), starts, Arrays.copyOf(fingerprints, size),
+				Arrays.copyOf(indexes, size), rootChecksum);
+	}
+
+	/**
+	 * The root {@code token} is a form of, or {@code null} if it is none of the forms.
+	 */
+	public String root(final CharSequence token)
+	{
+		final long hash = hash(token);
+		final int bucket = (int) (hash >>> 32) & (BUCKETS - 1);
+		final int fingerprint = (int) hash;
+		for (int i = starts[bucket], end = starts[bucket + 1]; i < end; i++) {
+			if (fingerprints[i] == fingerprint) {
+				return roots[rootIndexes[i]];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * The number of forms in the table.
+	 */
+	public int size()
+	{
+		return fingerprints.length;
+	}
+
+	/**
+	 * The number of distinct roots the forms map to.
+	 */
+	public int roots()
+	{
+		return roots.length;
+	}
+
+	/**
+	 * The {@link RootStore#checksum()} of the root list the table was generated from.
+	 */
+	public long rootChecksum()
+	{
+		return rootChecksum;
+	}
+
+	/**
+	 * Checksum of the forms and roots of the table, which tells tables of the same root list apart.
+	 */
+	long checksum()
+	{
+		final CRC32 crc = new CRC32();
+		crc.update(payload().toByteArray());
+		return crc.getValue();
+	}
+
+	public void write(final OutputStream out) throws IOException
+	{
+		final ByteArrayOutputStream payload = payload();
+		final CRC32 crc = new CRC32();
+		crc.update(payload.toByteArray());
+
+		final DataOutputStream header = new DataOutputStream(out);
+		header.writeInt(MAGIC);
+		header.writeInt(FORMAT_VERSION);
+		header.writeInt(roots.length);
+		header.writeInt(fingerprints.length);
+		header.writeLong(rootChecksum);
+		header.writeLong(crc.getValue());
+		payload.writeTo(header);
+		header.flush();
+	}
+
+	private ByteArrayOutputStream payload()
+	{
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+				(starts.length + 2 * fingerprints.length) * Integer.BYTES + roots.length * 8);
+		final DataOutputStream payload = new DataOutputStream(bytes);
+		try {
+			for (final String root : roots) {
+				payload.writeUTF(root);
+			}
+			for (final int[] array : new int[][] { starts, fingerprints, rootIndexes }) {
+				for (final int value : array) {
+					payload.writeInt(value);
+				}
+			}
+			payload.flush();
+		} catch (final IOException e) {
+			// a byte array stream does not fail
+			throw new UncheckedIOException(e);
+		}
+		return bytes;
+	}
+
+	public static InflectionTable read(final InputStream stream) throws IOException
+	{
+		final DataInputStream in = new DataInputStream(stream);
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not an inflection table");
+		}
+		final int version = in.readInt();
+		if (version != FORMAT_VERSION) {
+			throw new IOException("Unsupported inflection table version " + version + ", expected " + FORMAT_VERSION);
+		}
+		final int rootCount = in.readInt();
+		final int size = in.readInt();
+		final long rootChecksum = in.readLong();
+		final long payloadCrc = in.readLong();
+		if (rootCount < 0 || rootCount > MAX_ROOTS || size < 0) {
+			throw new IOException("Corrupt inflection table");
+		}
+
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[8192];
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			bytes.write(buffer, 0, read);
+		}
+		final CRC32 crc = new CRC32();
+		crc.update(bytes.toByteArray());
+		if (crc.getValue() != payloadCrc) {
+			throw new IOException("Inflection table checksum mismatch");
+		}
+
+		final DataInputStream payload = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		final String[] roots = new String[rootCount];
+		for (int i = 0; i < rootCount; i++) {
+			roots[i] = payload.readUTF();
+		}
+		final int[] starts = new int[BUCKETS + 1];
+		final int[] fingerprints = new int[size];
+		final int[] rootIndexes = new int[size];
+		for (final int[] array : new int[][] { starts, fingerprints, rootIndexes }) {
+			for (int i = 0; i < array.length; i++) {
+				array[i] = payload.readInt();
+			}
+		}
+		if (payload.available() != 0 || starts[BUCKETS] != size) {
+			throw new IOException("Truncated or corrupt inflection table");
+		}
+		for (final int index : rootIndexes) {
+			if (index < 0 || index >= rootCount) {
+				throw new IOException("Corrupt inflection table");
+			}
+		}
+		return new InflectionTable(roots, starts, fingerprints, rootIndexes, rootChecksum);
+	}
+
+	/**
+	 * Case-folding 64-bit hash; unlike {@link RootDictionary#hash(CharSequence)} all of its bits are used.
+	 */
+	static long hash(final CharSequence token)
+	{
+		long hash = 0x9E3779B97F4A7C15L;
+		for (int i = 0, length = token.length(); i < length; i++) {
+			hash = (hash ^ Character.toLowerCase(token.charAt(i))) * 0x100000001B3L;
+		}
+		// the finalizer of MurmurHash3, which spreads every input bit over the whole hash
+		hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+		hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return hash ^ (hash >>> 33);
+	}
+
+	private static List<String> readRoots(final InputStream stream) throws IOException
+	{
+		final List<String> roots = new ArrayList<>();
+		final BufferedReader in = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+		for (String line = in.readLine(); line != null; line = in.readLine()) {
+			final String root = line.trim();
+			if (!root.isEmpty() && !root.startsWith("#")) {
+				roots.add(root);
+			}
+		}
+		return roots;
+	}
+
+	private static InflectionTable loadBundled()
+	{
+		try (InputStream image = InflectionTable.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+			if (image != null) {
+				return read(image);
+			}
+		} catch (final IOException e) {
+			log.warn("Ignoring inflection table {}", DEFAULT_RESOURCE, e);
+		}
+		log.info("No inflection table at {}, generating it from {}", DEFAULT_RESOURCE, DictionarySource.DEFAULT_RESOURCE);
+		try (InputStream roots = InflectionTable.class.getResourceAsStream(DictionarySource.DEFAULT_RESOURCE)) {
+			if (roots == null) {
+				throw new IOException("Unable to create input stream from resource " + DictionarySource.DEFAULT_RESOURCE);
+			}
+			return generate(readRoots(roots));
+		} catch (final IOException e) {
+			throw new IllegalStateException("Failed to load the inflection table", e);
+		}
+	}
+}
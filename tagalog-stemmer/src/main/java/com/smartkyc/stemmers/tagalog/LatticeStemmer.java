@@ -0,0 +1,557 @@
+package com.smartkyc.stemmers.tagalog;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * The {@link StemmingEngine#LATTICE} engine: finds the root of a token by enumerating its segmentations once instead of
+ * rewriting it stage by stage.
+ * <p>
+ * The nodes of the lattice are the places where the root may start: offsets into the token reached by removing
+ * prefixes and reduplicated syllables, optionally with a rewritten first letter where an infix was removed or a prefix
+ * assimilated the first consonant of the root. Every node is combined with every end the suffix inventory allows and
+ * each resulting candidate is looked up in the dictionary once. The longest known root wins; among equally long ones the
+ * candidate that needed the fewest and most common changes. Nodes are limited to {@value #MAX_DEPTH} removals each, so
+ * the work per token is bounded by the size of the affix inventories rather than by how often stages rewrite the token.
+ * <p>
+ * Instances are immutable; all state of a search lives in a {@link Search} of the calling thread.
+ */
+final class LatticeStemmer
+{
+	/**
+	 * The most removals on the way from the token to a node.
+	 */
+	private static final int MAX_DEPTH = 4;
+
+	private static final int MIN_ROOT_LENGTH = 2;
+
+	private static final int AFFIX_COST = 10;
+
+	private static final int SOUND_CHANGE_COST = 15;
+
+	private static final int G_SUFFIX_COST = 13;
+
+	private static final int ENCLITIC_COST = 12;
+
+	private static final int VOWEL_CHANGE_COST = 5;
+
+	private static final int RESTORED_VOWEL_COST = 8;
+
+	private static final int HYPHEN_PART_COST = 10;
+
+	private static final String[] INFIXES = { "um", "in", "om" };
+
+	/**
+	 * Consonants that a prefix ending in a nasal turns into its own nasal, with the consonants they stand for.
+	 */
+	private static final String[][] ASSIMILATIONS = { { "m", "pb" }, { "n", "sdt" }, { "r", "d" } };
+
+	// node operations, kept for the breakdown of the winning candidate
+	private static final byte START = 0;
+
+	private static final byte PREFIX = 1;
+
+	private static final byte HYPHENATED_PREFIX = 2;
+
+	private static final byte REDUPLICATION = 3;
+
+	private static final byte INFIX = 4;
+
+	private static final byte SOUND_CHANGE = 5;
+
+	// changes to the end of a candidate
+	private static final byte AS_IS = 0;
+
+	private static final byte ITA_TO_A = 1;
+
+	private static final byte U_TO_O = 2;
+
+	private static final byte I_TO_E = 3;
+
+	private static final byte R_TO_D = 4;
+
+	private static final byte VOWEL_APPENDED = 5;
+
+	private static final byte VOWEL_INSERTED = 6;
+
+	private final AffixTrie prefixes;
+
+	private final AffixTrie suffixes;
+
+	/**
+	 * @param prefixes the prefixes that may be removed from the start of a token, in any combination
+	 * @param suffixes the suffixes that may be removed from the end of a root; {@code -ng} and {@code -g} may precede
+	 * another one
+	 */
+	LatticeStemmer(final AffixTrie prefixes, final Collection<String> suffixes)
+	{
+		this.prefixes = prefixes;
+		this.suffixes = AffixTrie.suffixes(suffixes);
+	}
+
+	/**
+	 * Returns the best root of the lower-case {@code token} in {@code roots}, recording how it was found in {@code result}
+	 * if that records affixes, or {@code null} if no segmentation of the token yields a known root.
+	 */
+	String stem(final String token, final RootStore roots, final StemResult result)
+	{
+		final Best best = new Best(token.length() + 2);
+		new Search(token, 0, roots, best).run();
+		final int hyphen = token.indexOf('-');
+		if (hyphen >= 0 && !isPrefix(token, hyphen)) {
+			// either half of a duplication or compound may be the root, or both together
+			for (final String part : token.split("-")) {
+				if (!part.isEmpty()) {
+					new Search(part, HYPHEN_PART_COST, roots, best).run();
+				}
+			}
+			new Search(token.replace("-", ""), HYPHEN_PART_COST, roots, best).run();
+		}
+		if (best.search == null) {
+			return null;
+		}
+		if (result.recordAffixes()) {
+			best.search.record(best, token, result);
+		}
+		return new String(best.root, 0, best.length);
+	}
+
+	/**
+	 * Whether {@code token[0, end)} is a prefix, which a hyphen separates from the rest of the word: mag-isa.
+	 */
+	private boolean isPrefix(final String token, final int end)
+	{
+		for (int index = prefixes.next(token, 0, end, -1); index != -1; index = prefixes.next(token, 0, end, index)) {
+			if (prefixes.affix(index).length() == end) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The best candidate over all searches of a token.
+	 */
+	private static final class Best
+	{
+		char[] root;
+
+		int length = -1;
+
+		int cost;
+
+		Search search;
+
+		int node;
+
+		byte change;
+
+		String suffix;
+
+		String linker;
+
+		Best(final int capacity)
+		{
+			root = new char[capacity];
+		}
+	}
+
+	/**
+	 * The lattice of one spelling of a token. A node stands for the token from {@code from} on, preceded by {@code head}
+	 * unless that is {@code 0}.
+	 */
+	private final class Search
+	{
+		private final String source;
+
+		private final char[] chars;
+
+		private final int baseCost;
+
+		private final RootStore roots;
+
+		private final Best best;
+
+		private char[] head = new char[16];
+
+		private int[] from = new int[16];
+
+		private int[] cost = new int[16];
+
+		private int[] parent = new int[16];
+
+		private byte[] operation = new byte[16];
+
+		private int[] argument = new int[16];
+
+		private int[] depth = new int[16];
+
+		private int nodes;
+
+		private char[] buffer;
+
+		private final NodeView view = new NodeView();
+
+		Search(final String source, final int baseCost, final RootStore roots, final Best best)
+		{
+			this.source = source;
+			this.chars = source.toCharArray();
+			this.baseCost = baseCost;
+			this.roots = roots;
+			this.best = best;
+			this.buffer = new char[chars.length + 2];
+		}
+
+		void run()
+		{
+			add((char) 0, 0, baseCost, -1, START, 0, 0);
+			// nodes are appended while they are expanded, so this visits the lattice breadth first
+			for (int node = 0; node < nodes; node++) {
+				if (depth[node] < MAX_DEPTH) {
+					expand(node);
+				}
+			}
+			for (int node = 0; node < nodes; node++) {
+				match(node);
+			}
+		}
+
+		private void expand(final int node)
+		{
+			final int length = length(node);
+			final int next = cost[node] + AFFIX_COST;
+			for (int index = prefixes.next(view.of(node), 0, length, -1); index != -1;
+					index = prefixes.next(view.of(node), 0, length, index)) {
+				final int prefixLength = prefixes.affix(index).length();
+				if (length - prefixLength >= MIN_ROOT_LENGTH) {
+					final int start = position(node, prefixLength);
+					if (chars[start] == '-') {
+						add((char) 0, start + 1, next, node, HYPHENATED_PREFIX, index, depth[node] + 1);
+					} else {
+						add((char) 0, start, next, node, PREFIX, index, depth[node] + 1);
+					}
+				}
+			}
+			for (int size = 1; size <= 3; size++) {
+				if (length < 2 * size + 1) {
+					break;
+				}
+				if (repeats(node, size) && (size > 1 || TagalogStemmer.isVowel(charAt(node, 0)))) {
+					add((char) 0, position(node, size), next, node, REDUPLICATION, size, depth[node] + 1);
+				}
+				// da-raan: the repeated d of the root becomes r between vowels
+				if (size > 1 && charAt(node, 0) == 'd' && charAt(node, size) == 'r' && repeats(node, 1, size + 1, size - 1)) {
+					add('d', position(node, size + 1), next, node, REDUPLICATION, size, depth[node] + 1);
+				}
+			}
+			if (length > 4 && !TagalogStemmer.isVowel(charAt(node, 0))) {
+				for (final String infix : INFIXES) {
+					if (charAt(node, 1) == infix.charAt(0) && charAt(node, 2) == infix.charAt(1)) {
+						add(charAt(node, 0), position(node, 3), next, node, INFIX, 0, depth[node] + 1);
+					}
+				}
+			}
+			if (length > 2 && (operation[node] == PREFIX || operation[node] == HYPHENATED_PREFIX)) {
+				final int changed = cost[node] + SOUND_CHANGE_COST;
+				for (final String[] assimilation : ASSIMILATIONS) {
+					if (charAt(node, 0) == assimilation[0].charAt(0)) {
+						for (int i = 0; i < assimilation[1].length(); i++) {
+							add(assimilation[1].charAt(i), position(node, 1), changed, node, SOUND_CHANGE, 1, depth[node] + 1);
+						}
+					}
+				}
+				if (charAt(node, 0) == 'n' && charAt(node, 1) == 'g') {
+					add('k', position(node, 2), changed, node, SOUND_CHANGE, 2, depth[node] + 1);
+				}
+			}
+		}
+
+		/**
+		 * Looks up the node as a root, and with every suffix it ends with removed.
+		 */
+		private void match(final int node)
+		{
+			final int length = length(node);
+			probe(node, length, cost[node], null, null);
+			stripSuffixes(node, length, cost[node], null);
+		}
+
+		private void stripSuffixes(final int node, final int length, final int cost, final String linker)
+		{
+			final int end = from[node] + length - (head[node] == 0 ? 0 : 1);
+			for (int index = suffixes.next(source, from[node], end, -1); index != -1;
+					index = suffixes.next(source, from[node], end, index)) {
+				final String suffix = suffixes.affix(index);
+				final int rest = length - suffix.length();
+				if (rest < MIN_ROOT_LENGTH) {
+					continue;
+				}
+				final int next = cost + suffixCost(suffix);
+				probe(node, rest, next, suffix, linker);
+				if (linker == null && (suffix.equals("ng") || suffix.equals("g"))) {
+					stripSuffixes(node, rest, next, suffix);
+				}
+			}
+		}
+
+		/**
+		 * Looks up {@code node[0, length)}, and the sound changes a suffix causes at the end of a root if one was removed.
+		 */
+		private void probe(final int node, final int length, final int cost, final String suffix, final String linker)
+		{
+			for (int i = 0; i < length; i++) {
+				buffer[i] = charAt(node, i);
+			}
+			lookUp(node, length, cost, AS_IS, suffix, linker);
+			if (suffix == null) {
+				return;
+			}
+			if (suffix.equals("ita")) {
+				buffer[length] = 'a';
+				lookUp(node, length + 1, cost + AFFIX_COST, ITA_TO_A, suffix, linker);
+			}
+			int vowel = length - 1;
+			while (vowel >= 0 && !TagalogStemmer.isVowel(buffer[vowel])) {
+				vowel--;
+			}
+			// the last vowel of a root is raised when a suffix follows: inom, inumin
+			if (vowel >= 0 && (buffer[vowel] == 'u' || buffer[vowel] == 'i')) {
+				final char original = buffer[vowel];
+				buffer[vowel] = original == 'u' ? 'o' : 'e';
+				lookUp(node, length, cost + VOWEL_CHANGE_COST, original == 'u' ? U_TO_O : I_TO_E, suffix, linker);
+				buffer[vowel] = original;
+			}
+			// a final d becomes r between vowels: bayad, bayaran
+			if (buffer[length - 1] == 'r') {
+				buffer[length - 1] = 'd';
+				lookUp(node, length, cost + VOWEL_CHANGE_COST, R_TO_D, suffix, linker);
+				buffer[length - 1] = 'r';
+			}
+			// the last vowel of a root may be dropped before a suffix: dala, dalhin
+			if (length >= 3 && !TagalogStemmer.isVowel(buffer[length - 1]) && !TagalogStemmer.isVowel(buffer[length - 2])) {
+				int dropped = length - 3;
+				while (dropped >= 0 && !TagalogStemmer.isVowel(buffer[dropped])) {
+					dropped--;
+				}
+				if (dropped >= 0) {
+					final char restored = buffer[dropped];
+					buffer[length] = restored;
+					lookUp(node, length + 1, cost + RESTORED_VOWEL_COST, VOWEL_APPENDED, suffix, linker);
+					final char last = buffer[length - 1];
+					buffer[length - 1] = restored;
+					buffer[length] = last;
+					lookUp(node, length + 1, cost + RESTORED_VOWEL_COST, VOWEL_INSERTED, suffix, linker);
+					buffer[length - 1] = last;
+				}
+			}
+		}
+
+		private void lookUp(final int node, final int length, final int cost, final byte change, final String suffix,
+				final String linker)
+		{
+			if (length < best.length || length == best.length && cost >= best.cost || !roots.contains(buffer, 0, length)) {
+				return;
+			}
+			if (best.root.length < length) {
+				best.root = new char[length];
+			}
+			System.arraycopy(buffer, 0, best.root, 0, length);
+			best.length = length;
+			best.cost = cost;
+			best.search = this;
+			best.node = node;
+			best.change = change;
+			best.suffix = suffix;
+			best.linker = linker;
+		}
+
+		/**
+		 * Records the removals on the way to the best candidate, which was found by this search.
+		 */
+		void record(final Best best, final String token, final StemResult result)
+		{
+			if (source.length() != token.length()) {
+				if (token.startsWith(source + "-")) {
+					result.duplication(token.substring(source.length() + 1));
+				} else if (token.endsWith("-" + source)) {
+					result.duplication(token.substring(0, token.length() - source.length() - 1));
+				} else {
+					result.cleaner("-");
+				}
+			}
+			final int[] path = new int[depth[best.node] + 1];
+			for (int node = best.node, i = path.length - 1; node >= 0; node = parent[node], i--) {
+				path[i] = node;
+			}
+			for (int i = 1; i < path.length; i++) {
+				final int node = path[i];
+				final int previous = path[i - 1];
+				switch (operation[node]) {
+				case PREFIX:
+					result.prefix(prefixes.affix(argument[node]));
+					break;
+				case HYPHENATED_PREFIX:
+					result.prefix(prefixes.affix(argument[node]));
+					result.cleaner("-");
+					break;
+				case REDUPLICATION:
+					result.repeat(text(previous, 0, argument[node]));
+					break;
+				case INFIX:
+					result.infix(text(previous, 1, 3));
+					break;
+				default:
+					break;
+				}
+			}
+			if (best.linker != null) {
+				result.suffix(best.linker);
+			}
+			if (best.suffix != null) {
+				result.suffix(best.suffix);
+			}
+			switch (best.change) {
+			case U_TO_O:
+				result.cleaner("u");
+				break;
+			case I_TO_E:
+				result.cleaner("i");
+				break;
+			case R_TO_D:
+				result.cleaner("r");
+				break;
+			default:
+				break;
+			}
+		}
+
+		private int suffixCost(final String suffix)
+		{
+			if (suffix.equals("g")) {
+				return G_SUFFIX_COST;
+			}
+			return suffix.startsWith("man") ? ENCLITIC_COST : AFFIX_COST;
+		}
+
+		private void add(char first, int start, final int cost, final int parent, final byte operation, final int argument,
+				final int depth)
+		{
+			// a head equal to the letter it replaces is no head at all
+			if (first != 0 && start > 0 && chars[start - 1] == first) {
+				first = 0;
+				start--;
+			}
+			for (int node = 0; node < nodes; node++) {
+				if (head[node] == first && from[node] == start) {
+					return;
+				}
+			}
+			if (nodes == head.length) {
+				grow();
+			}
+			head[nodes] = first;
+			from[nodes] = start;
+			this.cost[nodes] = cost;
+			this.parent[nodes] = parent;
+			this.operation[nodes] = operation;
+			this.argument[nodes] = argument;
+			this.depth[nodes] = depth;
+			nodes++;
+		}
+
+		private void grow()
+		{
+			final int capacity = head.length * 2;
+			head = Arrays.copyOf(head, capacity);
+			from = Arrays.copyOf(from, capacity);
+			cost = Arrays.copyOf(cost, capacity);
+			parent = Arrays.copyOf(parent, capacity);
+			operation = Arrays.copyOf(operation, capacity);
+			argument = Arrays.copyOf(argument, capacity);
+			depth = Arrays.copyOf(depth, capacity);
+		}
+
+		private int length(final int node)
+		{
+			return chars.length - from[node] + (head[node] == 0 ? 0 : 1);
+		}
+
+		private char charAt(final int node, final int index)
+		{
+			if (head[node] == 0) {
+				return chars[from[node] + index];
+			}
+			return index == 0 ? head[node] : chars[from[node] + index - 1];
+		}
+
+		/**
+		 * The offset into the token of character {@code index} of the node, which must not be its head.
+		 */
+		private int position(final int node, final int index)
+		{
+			return from[node] + index - (head[node] == 0 ? 0 : 1);
+		}
+
+		private boolean repeats(final int node, final int size)
+		{
+			return repeats(node, 0, size, size);
+		}
+
+		private boolean repeats(final int node, final int first, final int second, final int size)
+		{
+			for (int i = 0; i < size; i++) {
+				if (charAt(node, first + i) != charAt(node, second + i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * A node as a character sequence, for matching prefixes.
+		 */
+		private final class NodeView implements CharSequence
+		{
+			private int node;
+
+			NodeView of(final int node)
+			{
+				this.node = node;
+				return this;
+			}
+
+			@Override
+			public int length()
+			{
+				return Search.this.length(node);
+			}
+
+			@Override
+			public char charAt(final int index)
+			{
+				return Search.this.charAt(node, index);
+			}
+
+			@Override
+			public CharSequence subSequence(final int start, final int end)
+			{
+				return text(node, start, end);
+			}
+
+			@Override
+			public String toString()
+			{
+				return text(node, 0, length());
+			}
+		}
+
+		private String text(final int node, final int start, final int end)
+		{
+			final StringBuilder text = new StringBuilder(end - start);
+			for (int i = start; i < end; i++) {
+				text.append(charAt(node, i));
+			}
+			return text.toString();
+		}
+	}
+}
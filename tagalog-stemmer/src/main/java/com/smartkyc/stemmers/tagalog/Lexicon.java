@@ -0,0 +1,106 @@
+package com.smartkyc.stemmers.tagalog;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One published version of everything a {@link DictionarySource} provides: the filtered root store and the ordinal and
+ * number maps. A lexicon is immutable; a reload builds a new one and publishes it in a single reference swap, so a
+ * {@link TagalogStemmer} sees either the old or the new version of all three, never a mix or a half-built one.
+ */
+final class Lexicon
+{
+	/**
+	 * Stems of the ordinals after {@code ika} and {@code labing}, mapped to their roots.
+	 */
+	static final Map<String, String> DEFAULT_ORDINALS;
+
+	/**
+	 * Beginnings of the cardinal numbers, mapped to their roots.
+	 */
+	static final Map<String, String> DEFAULT_NUMBERS;
+
+	static {
+		final Map<String, String> ordinals = new HashMap<>();
+		ordinals.put("isa", "isa");
+		ordinals.put("lawa", "dalawa");
+		ordinals.put("tlo", "tatlo");
+		ordinals.put("apat", "apat");
+		ordinals.put("lima", "lima");
+		ordinals.put("anim", "anim");
+		ordinals.put("pito", "pito");
+		ordinals.put("walo", "walo");
+		ordinals.put("siyam", "siyam");
+		ordinals.put("sampu", "sampu");
+		DEFAULT_ORDINALS = Collections.unmodifiableMap(ordinals);
+
+		final Map<String, String> numbers = new HashMap<>();
+		numbers.put("dalawa", "dalawa");
+		numbers.put("tatlu", "tatlo");
+		numbers.put("apatnapu", "apat");
+		numbers.put("limampu", "lima");
+		numbers.put("animnapu", "anim");
+		numbers.put("pitumpu", "pito");
+		numbers.put("walumpu", "walo");
+		numbers.put("siyamnapu", "siyam");
+		DEFAULT_NUMBERS = Collections.unmodifiableMap(numbers);
+	}
+
+	private final FilteredRootStore roots;
+
+	private final Map<String, String> ordinals;
+
+	private final Map<String, String> numbers;
+
+	private final long version;
+
+	/**
+	 * Copies the maps, keeping their iteration order, which decides between keys that are prefixes of one another.
+	 */
+	Lexicon(final FilteredRootStore roots, final Map<String, String> ordinals, final Map<String, String> numbers,
+			final long version)
+	{
+		this.roots = roots;
+		this.ordinals = Collections.unmodifiableMap(new LinkedHashMap<>(ordinals));
+		this.numbers = Collections.unmodifiableMap(new LinkedHashMap<>(numbers));
+		this.version = version;
+	}
+
+	FilteredRootStore roots()
+	{
+		return roots;
+	}
+
+	boolean isRoot(final CharSequence token)
+	{
+		return roots.contains(token);
+	}
+
+	/**
+	 * Whether {@code token[from, to)} is a root; see {@link FilteredRootStore#contains(CharSequence, int, int)}.
+	 */
+	boolean isRoot(final CharSequence token, final int from, final int to)
+	{
+		return roots.contains(token, from, to);
+	}
+
+	Map<String, String> ordinals()
+	{
+		return ordinals;
+	}
+
+	Map<String, String> numbers()
+	{
+		return numbers;
+	}
+
+	/**
+	 * Counts the lexicons published by the source, starting at 1.
+	 */
+	long version()
+	{
+		return version;
+	}
+}
@@ -0,0 +1,138 @@
+package com.smartkyc.stemmers.tagalog;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Immutable set of root words served straight from a memory-mapped {@link RootDictionaryImage}.
+ * <p>
+ * The chars, entry offsets, entry hashes and hash table of the image are read in place from the mapped buffer, laid out
+ * as in a {@link RootDictionary}, with which the store shares its hash function and {@link #checksum()}. Opening an
+ * image therefore copies nothing onto the heap: the operating system pages the file in as lookups touch it, and
+ * processes mapping the same file share its pages.
+ */
+public final class MappedRootStore implements RootStore
+{
+	private final ByteBuffer image;
+
+	private final int offsets;
+
+	private final int hashes;
+
+	private final int table;
+
+	private final int mask;
+
+	private final int size;
+
+	private final long checksum;
+
+	/**
+	 * Wraps the payload of an image, positioned at its first char; see {@link RootDictionaryImage#map(java.nio.file.Path)}.
+	 */
+	MappedRootStore(final ByteBuffer payload, final int size, final int charCount, final int capacity, final long checksum)
+	{
+		this.image = payload.slice();
+		this.offsets = charCount * Character.BYTES;
+		this.hashes = offsets + (size + 1) * Integer.BYTES;
+		this.table = hashes + size * Integer.BYTES;
+		this.mask = capacity - 1;
+		this.size = size;
+		this.checksum = checksum;
+	}
+
+	@Override
+	public boolean contains(final CharSequence token)
+	{
+		return contains(token, RootDictionary.hash(token));
+	}
+
+	/**
+	 * Looks {@code token} up by its {@link RootDictionary#hash(CharSequence)}, already computed by the caller.
+	 */
+	boolean contains(final CharSequence token, final int hash)
+	{
+		final int length = token.length();
+		for (int slot = hash & mask, entry; (entry = image.getInt(table + (slot << 2)) - 1) != -1; slot = (slot + 1) & mask) {
+			final int start = offset(entry);
+			if (image.getInt(hashes + (entry << 2)) == hash && offset(entry + 1) - start == length
+					&& equalsIgnoreCase(start, token)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean contains(final char[] buffer, final int offset, final int length)
+	{
+		return contains(buffer, offset, length, RootDictionary.hash(buffer, offset, length));
+	}
+
+	boolean contains(final char[] buffer, final int offset, final int length, final int hash)
+	{
+		for (int slot = hash & mask, entry; (entry = image.getInt(table + (slot << 2)) - 1) != -1; slot = (slot + 1) & mask) {
+			final int start = offset(entry);
+			if (image.getInt(hashes + (entry << 2)) == hash && offset(entry + 1) - start == length
+					&& equalsIgnoreCase(start, buffer, offset, length)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public int size()
+	{
+		return size;
+	}
+
+	@Override
+	public long checksum()
+	{
+		return checksum;
+	}
+
+	@Override
+	public void forEach(final Consumer<? super CharSequence> action)
+	{
+		final StringBuilder root = new StringBuilder();
+		for (int entry = 0; entry < size; entry++) {
+			root.setLength(0);
+			for (int i = offset(entry), end = offset(entry + 1); i < end; i++) {
+				root.append(charAt(i));
+			}
+			action.accept(root);
+		}
+	}
+
+	private int offset(final int entry)
+	{
+		return image.getInt(offsets + (entry << 2));
+	}
+
+	private char charAt(final int index)
+	{
+		return image.getChar(index << 1);
+	}
+
+	private boolean equalsIgnoreCase(final int start, final CharSequence token)
+	{
+		for (int i = 0, length = token.length(); i < length; i++) {
+			if (charAt(start + i) != Character.toLowerCase(token.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean equalsIgnoreCase(final int start, final char[] buffer, final int offset, final int length)
+	{
+		for (int i = 0; i < length; i++) {
+			if (charAt(start + i) != Character.toLowerCase(buffer[offset + i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,346 @@
+package com.smartkyc.stemmers.tagalog;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Immutable set of root words kept in direct memory, for lexicons with millions of entries.
+ * <p>
+ * Every entry is one record in a direct {@link ByteBuffer}: its hash, its length and its lower-cased UTF-16 chars. The
+ * open-addressing table of record offsets lives in a second direct buffer. The heap only holds the two buffer objects,
+ * so heap footprint and GC marking time stay flat however many roots are added. Lookups hash and compare in place like
+ * {@link RootDictionary}, with which the store shares its hash function and {@link #checksum()}.
+ * <p>
+ * Records are addressed with {@code int} offsets and the table is kept at most half full, which limits a store to 2 GiB of
+ * records and 2<sup>27</sup> roots.
+ */
+public final class OffHeapRootStore implements RootStore
+{
+	private static final int RECORD_HEADER = Integer.BYTES + Character.BYTES;
+
+	private static final int MAX_CAPACITY = 1 << 28;
+
+	private final ByteBuffer records;
+
+	private final ByteBuffer table;
+
+	private final int mask;
+
+	private final int size;
+
+	private final long checksum;
+
+	private OffHeapRootStore(final Builder builder)
+	{
+		final ByteBuffer compacted = ByteBuffer.allocateDirect(builder.records.position()).order(ByteOrder.nativeOrder());
+		final ByteBuffer used = builder.records.duplicate();
+		used.flip();
+		compacted.put(used);
+		this.records = compacted;
+		this.table = builder.table;
+		this.mask = builder.mask;
+		this.size = builder.size;
+		this.checksum = builder.checksum;
+	}
+
+	public static Builder builder(final int expectedSize)
+	{
+		return new Builder(expectedSize);
+	}
+
+	/**
+	 * Stores the given roots, lower-casing them and dropping duplicates.
+	 */
+	public static OffHeapRootStore of(final Collection<String> roots)
+	{
+		final Builder builder = builder(roots.size());
+		roots.forEach(builder::add);
+		return builder.build();
+	}
+
+	/**
+	 * Reads one root per line in UTF-8, skipping blank lines and lines starting with {@code #}, like
+	 * {@link RootDictionary#read(InputStream)}.
+	 */
+	public static OffHeapRootStore read(final InputStream stream) throws IOException
+	{
+		final Builder builder = builder(1 << 16);
+		builder.addAll(stream);
+		return builder.build();
+	}
+
+	@Override
+	public boolean contains(final CharSequence token)
+	{
+		return contains(token, RootDictionary.hash(token));
+	}
+
+	/**
+	 * Looks {@code token} up by its {@link RootDictionary#hash(CharSequence)}, already computed by the caller.
+	 */
+	boolean contains(final CharSequence token, final int hash)
+	{
+		final int length = token.length();
+		for (int slot = hash & mask, record; (record = table.getInt(slot << 2)) != 0; slot = (slot + 1) & mask) {
+			final int offset = record - 1;
+			if (records.getInt(offset) == hash && records.getChar(offset + Integer.BYTES) == length
+					&& equalsIgnoreCase(offset + RECORD_HEADER, token)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean contains(final char[] buffer, final int offset, final int length)
+	{
+		return contains(buffer, offset, length, RootDictionary.hash(buffer, offset, length));
+	}
+
+	boolean contains(final char[] buffer, final int offset, final int length, final int hash)
+	{
+		for (int slot = hash & mask, record; (record = table.getInt(slot << 2)) != 0; slot = (slot + 1) & mask) {
+			final int start = record - 1;
+			if (records.getInt(start) == hash && records.getChar(start + Integer.BYTES) == length
+					&& equalsIgnoreCase(start + RECORD_HEADER, buffer, offset, length)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public int size()
+	{
+		return size;
+	}
+
+	@Override
+	public long checksum()
+	{
+		return checksum;
+	}
+
+	@Override
+	public void forEach(final Consumer<? super CharSequence> action)
+	{
+		final StringBuilder root = new StringBuilder();
+		for (int offset = 0; offset < records.capacity(); ) {
+			final int length = records.getChar(offset + Integer.BYTES);
+			final int start = offset + RECORD_HEADER;
+			root.setLength(0);
+			for (int i = 0; i < length; i++) {
+				root.append(records.getChar(start + i * Character.BYTES));
+			}
+			action.accept(root);
+			offset = start + length * Character.BYTES;
+		}
+	}
+
+	/**
+	 * Bytes of direct memory held by the store.
+	 */
+	public long offHeapBytes()
+	{
+		return (long) records.capacity() + table.capacity();
+	}
+
+	private boolean equalsIgnoreCase(final int start, final CharSequence token)
+	{
+		for (int i = 0, length = token.length(); i < length; i++) {
+			if (records.getChar(start + i * Character.BYTES) != Character.toLowerCase(token.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean equalsIgnoreCase(final int start, final char[] buffer, final int offset, final int length)
+	{
+		for (int i = 0; i < length; i++) {
+			if (records.getChar(start + i * Character.BYTES) != Character.toLowerCase(buffer[offset + i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Adds roots one by one, growing the direct buffers as needed. Not thread-safe; {@link #build()} may be called once.
+	 */
+	public static final class Builder
+	{
+		private final CRC32 crc = new CRC32();
+
+		private ByteBuffer records;
+
+		private ByteBuffer table;
+
+		private int mask;
+
+		private int size;
+
+		private long checksum;
+
+		private boolean built;
+
+		private Builder(final int expectedSize)
+		{
+			if (expectedSize < 0) {
+				throw new IllegalArgumentException("Expected size must not be negative: " + expectedSize);
+			}
+			records = ByteBuffer.allocateDirect((int) Math.min(Integer.MAX_VALUE, Math.max(1024L, expectedSize * 32L)))
+					.order(ByteOrder.nativeOrder());
+			table = newTable(capacityFor(expectedSize));
+			mask = table.capacity() / Integer.BYTES - 1;
+		}
+
+		/**
+		 * Adds a root, lower-cased. Blank roots and duplicates are ignored.
+		 */
+		public Builder add(final String root)
+		{
+			if (built) {
+				throw new IllegalStateException("Store already built");
+			}
+			final String lower = root.trim().toLowerCase(Locale.ROOT);
+			if (lower.isEmpty() || contains(lower)) {
+				return this;
+			}
+			if (lower.length() > Character.MAX_VALUE) {
+				throw new IllegalArgumentException("Root too long: " + lower.length() + " chars");
+			}
+			if ((size + 1) * 2L > mask + 1L) {
+				rehash();
+			}
+
+			final int recordSize = RECORD_HEADER + lower.length() * Character.BYTES;
+			ensureRecordCapacity(recordSize);
+			final int offset = records.position();
+			final int hash = RootDictionary.hash(lower);
+			records.putInt(hash);
+			records.putChar((char) lower.length());
+			crc.reset();
+			for (int i = 0; i < lower.length(); i++) {
+				final char c = lower.charAt(i);
+				records.putChar(c);
+				crc.update(c >>> 8);
+				crc.update(c);
+			}
+			checksum += RootDictionary.entryChecksum(crc);
+			insert(table, mask, hash, offset);
+			size++;
+			return this;
+		}
+
+		/**
+		 * Adds every root of a UTF-8 list, one per line, skipping lines starting with {@code #}. The stream is not closed.
+		 */
+		public Builder addAll(final InputStream stream) throws IOException
+		{
+			final BufferedReader in = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+			for (String line = in.readLine(); line != null; line = in.readLine()) {
+				if (!line.trim().startsWith("#")) {
+					add(line);
+				}
+			}
+			return this;
+		}
+
+		public OffHeapRootStore build()
+		{
+			if (built) {
+				throw new IllegalStateException("Store already built");
+			}
+			built = true;
+			return new OffHeapRootStore(this);
+		}
+
+		private boolean contains(final String root)
+		{
+			final int hash = RootDictionary.hash(root);
+			for (int slot = hash & mask, record; (record = table.getInt(slot << 2)) != 0; slot = (slot + 1) & mask) {
+				final int offset = record - 1;
+				if (records.getInt(offset) == hash && records.getChar(offset + Integer.BYTES) == root.length()
+						&& equals(offset + RECORD_HEADER, root)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private boolean equals(final int start, final String root)
+		{
+			for (int i = 0; i < root.length(); i++) {
+				if (records.getChar(start + i * Character.BYTES) != root.charAt(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private void ensureRecordCapacity(final int recordSize)
+		{
+			if (records.remaining() >= recordSize) {
+				return;
+			}
+			final long required = (long) records.position() + recordSize;
+			if (required > Integer.MAX_VALUE - 1) {
+				throw new IllegalStateException("Off-heap root store is limited to 2 GiB of records");
+			}
+			final int grown = (int) Math.min(Integer.MAX_VALUE - 1, Math.max(required, records.capacity() * 2L));
+			final ByteBuffer larger = ByteBuffer.allocateDirect(grown).order(ByteOrder.nativeOrder());
+			records.flip();
+			larger.put(records);
+			records = larger;
+		}
+
+		private void rehash()
+		{
+			final int capacity = (mask + 1) * 2;
+			if (capacity > MAX_CAPACITY) {
+				throw new IllegalStateException("Off-heap root store is limited to " + MAX_CAPACITY / 2 + " roots");
+			}
+			final ByteBuffer larger = newTable(capacity);
+			final int largerMask = capacity - 1;
+			for (int offset = 0, end = records.position(); offset < end; ) {
+				insert(larger, largerMask, records.getInt(offset), offset);
+				offset += RECORD_HEADER + records.getChar(offset + Integer.BYTES) * Character.BYTES;
+			}
+			table = larger;
+			mask = largerMask;
+		}
+
+		private static void insert(final ByteBuffer table, final int mask, final int hash, final int offset)
+		{
+			int slot = hash & mask;
+			while (table.getInt(slot << 2) != 0) {
+				slot = (slot + 1) & mask;
+			}
+			table.putInt(slot << 2, offset + 1);
+		}
+
+		private static int capacityFor(final int expectedSize)
+		{
+			int capacity = 4;
+			while (capacity < expectedSize * 2L && capacity < MAX_CAPACITY) {
+				capacity <<= 1;
+			}
+			return capacity;
+		}
+
+		private static ByteBuffer newTable(final int capacity)
+		{
+			return ByteBuffer.allocateDirect(capacity * Integer.BYTES).order(ByteOrder.nativeOrder());
+		}
+	}
+}
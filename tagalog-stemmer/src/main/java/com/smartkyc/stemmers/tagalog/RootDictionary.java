@@ -0,0 +1,269 @@
+package com.smartkyc.stemmers.tagalog;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+/**
+ * Immutable, compiled set of root words.
+ * <p>
+ * All entries are stored lower-cased in one shared {@code char[]} and indexed by an open-addressing hash table, so a
+ * membership check for a {@link CharSequence} or a {@code char[]} slice hashes and compares the characters in place,
+ * folding case on the fly, without allocating. Entries are kept in sorted order, so equal root lists compile to identical
+ * arrays.
+ */
+public final class RootDictionary implements RootStore
+{
+	private final char[] chars;
+
+	private final int[] offsets;
+
+	private final int[] hashes;
+
+	private final int[] table;
+
+	private final int mask;
+
+	private final long checksum;
+
+	private RootDictionary(final Set<String> roots)
+	{
+		final int size = roots.size();
+		offsets = new int[size + 1];
+		hashes = new int[size];
+		chars = new char[roots.stream().mapToInt(String::length).sum()];
+
+		int capacity = 4;
+		while (capacity < size * 2) {
+			capacity <<= 1;
+		}
+		table = new int[capacity];
+		mask = capacity - 1;
+
+		int entry = 0;
+		int offset = 0;
+		for (final String root : roots) {
+			root.getChars(0, root.length(), chars, offset);
+			offsets[entry] = offset;
+			offset += root.length();
+			offsets[entry + 1] = offset;
+
+			final int hash = hash(chars, offsets[entry], root.length());
+			hashes[entry] = hash;
+			int slot = hash & mask;
+			while (table[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = entry + 1;
+			entry++;
+		}
+		checksum = contentChecksum(chars, offsets);
+	}
+
+	/**
+	 * Wraps arrays previously produced by this class and their {@link #checksum()}, see {@link RootDictionaryImage}.
+	 */
+	RootDictionary(final char[] chars, final int[] offsets, final int[] hashes, final int[] table, final long checksum)
+	{
+		if (Integer.bitCount(table.length) != 1 || offsets.length != hashes.length + 1) {
+			throw new IllegalArgumentException("Inconsistent dictionary arrays");
+		}
+		this.chars = chars;
+		this.offsets = offsets;
+		this.hashes = hashes;
+		this.table = table;
+		this.mask = table.length - 1;
+		this.checksum = checksum;
+	}
+
+	/**
+	 * Compiles the given roots, lower-casing them and dropping duplicates.
+	 */
+	public static RootDictionary of(final Collection<String> roots)
+	{
+		return new RootDictionary(roots.stream().map(root -> root.toLowerCase(Locale.ROOT))
+				.collect(Collectors.toCollection(TreeSet::new)));
+	}
+
+	/**
+	 * Reads one root per line in UTF-8, skipping blank lines and lines starting with {@code #}.
+	 */
+	public static RootDictionary read(final InputStream stream) throws IOException
+	{
+		try (final InputStreamReader reader = new InputStreamReader(stream, StandardCharsets.UTF_8);
+				BufferedReader in = new BufferedReader(reader)) {
+			return new RootDictionary(in.lines().map(String::trim).map(l -> l.toLowerCase(Locale.ROOT))
+					.filter(l -> !l.startsWith("#")).filter(l -> !l.isEmpty()).collect(Collectors.toCollection(TreeSet::new)));
+		}
+	}
+
+	@Override
+	public boolean contains(final CharSequence token)
+	{
+		return contains(token, hash(token));
+	}
+
+	/**
+	 * Looks {@code token} up by its {@link #hash(CharSequence)}, already computed by the caller.
+	 */
+	boolean contains(final CharSequence token, final int hash)
+	{
+		final int length = token.length();
+		for (int slot = hash & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+			final int entry = table[slot] - 1;
+			if (hashes[entry] == hash && offsets[entry + 1] - offsets[entry] == length && equalsIgnoreCase(entry, token)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean contains(final char[] buffer, final int offset, final int length)
+	{
+		return contains(buffer, offset, length, hash(buffer, offset, length));
+	}
+
+	boolean contains(final char[] buffer, final int offset, final int length, final int hash)
+	{
+		for (int slot = hash & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+			final int entry = table[slot] - 1;
+			if (hashes[entry] == hash && offsets[entry + 1] - offsets[entry] == length && equalsIgnoreCase(entry, buffer, offset)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public int size()
+	{
+		return hashes.length;
+	}
+
+	@Override
+	public long checksum()
+	{
+		return checksum;
+	}
+
+	@Override
+	public void forEach(final Consumer<? super CharSequence> action)
+	{
+		for (int entry = 0; entry < hashes.length; entry++) {
+			action.accept(CharBuffer.wrap(chars, offsets[entry], offsets[entry + 1] - offsets[entry]));
+		}
+	}
+
+	char[] chars()
+	{
+		return chars;
+	}
+
+	int[] offsets()
+	{
+		return offsets;
+	}
+
+	int[] hashes()
+	{
+		return hashes;
+	}
+
+	int[] table()
+	{
+		return table;
+	}
+
+	private boolean equalsIgnoreCase(final int entry, final CharSequence token)
+	{
+		final int start = offsets[entry];
+		for (int i = 0, length = offsets[entry + 1] - start; i < length; i++) {
+			if (chars[start + i] != Character.toLowerCase(token.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean equalsIgnoreCase(final int entry, final char[] buffer, final int offset)
+	{
+		final int start = offsets[entry];
+		for (int i = 0, length = offsets[entry + 1] - start; i < length; i++) {
+			if (chars[start + i] != Character.toLowerCase(buffer[offset + i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Case-folding hash shared by all {@link RootStore} implementations.
+	 */
+	static int hash(final CharSequence token)
+	{
+		return hash(token, 0, token.length());
+	}
+
+	/**
+	 * The {@link #hash(CharSequence)} of {@code token[from, to)}.
+	 */
+	static int hash(final CharSequence token, final int from, final int to)
+	{
+		int hash = 0;
+		for (int i = from; i < to; i++) {
+			hash = 31 * hash + Character.toLowerCase(token.charAt(i));
+		}
+		return spread(hash);
+	}
+
+	static int hash(final char[] buffer, final int offset, final int length)
+	{
+		int hash = 0;
+		for (int i = offset, end = offset + length; i < end; i++) {
+			hash = 31 * hash + Character.toLowerCase(buffer[i]);
+		}
+		return spread(hash);
+	}
+
+	/**
+	 * Contribution of one entry, whose UTF-16 bytes {@code crc} has been fed, to a {@link RootStore#checksum()}: the
+	 * contributions of all entries are summed, so the checksum does not depend on the order of the entries.
+	 */
+	static long entryChecksum(final CRC32 crc)
+	{
+		final long h = crc.getValue() * 0x9E3779B97F4A7C15L;
+		return h ^ (h >>> 32);
+	}
+
+	private static long contentChecksum(final char[] chars, final int[] offsets)
+	{
+		final CRC32 crc = new CRC32();
+		long checksum = 0;
+		for (int entry = 0; entry + 1 < offsets.length; entry++) {
+			crc.reset();
+			for (int i = offsets[entry]; i < offsets[entry + 1]; i++) {
+				crc.update(chars[i] >>> 8);
+				crc.update(chars[i]);
+			}
+			checksum += entryChecksum(crc);
+		}
+		return checksum;
+	}
+
+	private static int spread(final int hash)
+	{
+		final int h = hash * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
@@ -0,0 +1,207 @@
+package com.smartkyc.stemmers.tagalog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Binary image of a compiled {@link RootDictionary}.
+ * <p>
+ * The image holds the arrays of the dictionary as they are laid out in memory. Images in the file system are memory mapped
+ * and served in place by a {@link MappedRootStore}; other images are read with a few bulk copies into a
+ * {@link RootDictionary}. Neither parses, lower-cases or hashes a single entry, and both take the content checksum from the
+ * header once the CRC-32 of the payload matches. The build compiles the bundled root list into
+ * {@code tagalogWordsRoots.bin} by running {@link #main(String[])}.
+ * <p>
+ * Layout, big-endian: magic {@code TGLR}, format version, entry count, char count, table capacity, content checksum
+ * (see {@link RootDictionary#checksum()}), CRC-32 of the payload, then the payload: the chars, the entry offsets, the
+ * entry hashes and the hash table. The format version changes whenever the layout, the hash function or the checksum does.
+ */
+public final class RootDictionaryImage
+{
+	static final int MAGIC = 0x54474C52;
+
+	static final int FORMAT_VERSION = 2;
+
+	private static final int SIZE_OFFSET = 2 * Integer.BYTES;
+
+	private static final int CHAR_COUNT_OFFSET = 3 * Integer.BYTES;
+
+	private static final int CAPACITY_OFFSET = 4 * Integer.BYTES;
+
+	private static final int CHECKSUM_OFFSET = 5 * Integer.BYTES;
+
+	private static final int HEADER_SIZE = 5 * Integer.BYTES + 2 * Long.BYTES;
+
+	private RootDictionaryImage()
+	{
+	}
+
+	/**
+	 * Compiles a text root list into an image: {@code RootDictionaryImage <roots.txt> <roots.bin>}.
+	 */
+	public static void main(final String[] args) throws IOException
+	{
+		if (args.length != 2) {
+			throw new IllegalArgumentException("Usage: RootDictionaryImage <roots.txt> <roots.bin>");
+		}
+		final RootDictionary dictionary;
+		try (InputStream in = Files.newInputStream(Paths.get(args[0]))) {
+			dictionary = RootDictionary.read(in);
+		}
+		final Path target = Paths.get(args[1]);
+		if (target.getParent() != null) {
+			Files.createDirectories(target.getParent());
+		}
+		try (OutputStream out = Files.newOutputStream(target)) {
+			write(dictionary, out);
+		}
+	}
+
+	public static void write(final RootDictionary dictionary, final OutputStream out) throws IOException
+	{
+		final char[] chars = dictionary.chars();
+		final int[] offsets = dictionary.offsets();
+		final int[] hashes = dictionary.hashes();
+		final int[] table = dictionary.table();
+
+		final ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream(
+				chars.length * Character.BYTES + (offsets.length + hashes.length + table.length) * Integer.BYTES);
+		final DataOutputStream payload = new DataOutputStream(payloadBytes);
+		for (final char c : chars) {
+			payload.writeChar(c);
+		}
+		for (final int[] array : new int[][] { offsets, hashes, table }) {
+			for (final int value : array) {
+				payload.writeInt(value);
+			}
+		}
+		payload.flush();
+		final CRC32 crc = new CRC32();
+		crc.update(payloadBytes.toByteArray());
+
+		final DataOutputStream header = new DataOutputStream(out);
+		header.writeInt(MAGIC);
+		header.writeInt(FORMAT_VERSION);
+		header.writeInt(hashes.length);
+		header.writeInt(chars.length);
+		header.writeInt(table.length);
+		header.writeLong(dictionary.checksum());
+		header.writeLong(crc.getValue());
+		payloadBytes.writeTo(header);
+		header.flush();
+	}
+
+	/**
+	 * Loads an image from {@code url}, memory mapping it if it is a file.
+	 */
+	public static RootStore load(final URL url) throws IOException
+	{
+		if ("file".equals(url.getProtocol())) {
+			try {
+				return map(Paths.get(url.toURI()));
+			} catch (final URISyntaxException e) {
+				throw new IOException("Invalid image location " + url, e);
+			}
+		}
+		try (InputStream in = url.openStream()) {
+			return read(in);
+		}
+	}
+
+	/**
+	 * Memory maps the image at {@code path} and serves lookups from the mapping.
+	 */
+	public static MappedRootStore map(final Path path) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final ByteBuffer image = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			verify(image);
+			return new MappedRootStore(image, image.getInt(SIZE_OFFSET), image.getInt(CHAR_COUNT_OFFSET),
+					image.getInt(CAPACITY_OFFSET), image.getLong(CHECKSUM_OFFSET));
+		}
+	}
+
+	public static RootDictionary read(final InputStream in) throws IOException
+	{
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[8192];
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			bytes.write(buffer, 0, read);
+		}
+		return read(ByteBuffer.wrap(bytes.toByteArray()));
+	}
+
+	/**
+	 * Whether {@code path} starts like an image rather than a text root list.
+	 */
+	public static boolean isImage(final Path path) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+			while (magic.hasRemaining() && channel.read(magic) != -1) {
+				// keep reading until the magic is complete or the file ends
+			}
+			return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+		}
+	}
+
+	static RootDictionary read(final ByteBuffer image) throws IOException
+	{
+		verify(image);
+		final char[] chars = new char[image.getInt(CHAR_COUNT_OFFSET)];
+		image.asCharBuffer().get(chars);
+		image.position(image.position() + chars.length * Character.BYTES);
+		final int size = image.getInt(SIZE_OFFSET);
+		final int[] offsets = new int[size + 1];
+		final int[] hashes = new int[size];
+		final int[] table = new int[image.getInt(CAPACITY_OFFSET)];
+		for (final int[] array : new int[][] { offsets, hashes, table }) {
+			image.asIntBuffer().get(array);
+			image.position(image.position() + array.length * Integer.BYTES);
+		}
+		return new RootDictionary(chars, offsets, hashes, table, image.getLong(CHECKSUM_OFFSET));
+	}
+
+	/**
+	 * Checks the header and the CRC of the payload, and positions {@code image} at the payload. The content checksum in
+	 * the header is taken as written, not recomputed from the entries.
+	 */
+	private static void verify(final ByteBuffer image) throws IOException
+	{
+		if (image.remaining() < HEADER_SIZE || image.getInt() != MAGIC) {
+			throw new IOException("Not a root dictionary image");
+		}
+		final int version = image.getInt();
+		if (version != FORMAT_VERSION) {
+			throw new IOException("Unsupported root dictionary image version " + version + ", expected " + FORMAT_VERSION);
+		}
+		final int size = image.getInt();
+		final int charCount = image.getInt();
+		final int capacity = image.getInt();
+		image.getLong();
+		final long payloadCrc = image.getLong();
+		if (size < 0 || charCount < 0 || capacity <= 0 || Integer.bitCount(capacity) != 1
+				|| image.remaining() != (long) charCount * Character.BYTES + (2L * size + 1 + capacity) * Integer.BYTES) {
+			throw new IOException("Truncated or corrupt root dictionary image");
+		}
+
+		final CRC32 crc = new CRC32();
+		crc.update(image.duplicate());
+		if (crc.getValue() != payloadCrc) {
+			throw new IOException("Root dictionary image checksum mismatch");
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package com.smartkyc.stemmers.tagalog;
+
+import java.util.function.Consumer;
+
+/**
+ * Immutable set of root words, as consulted by {@link TagalogStemmer} for every dictionary check.
+ * <p>
+ * Entries are lower case and lookups fold case character by character, so neither membership check needs to allocate.
+ * {@link RootDictionary} keeps its entries on the heap; {@link OffHeapRootStore} keeps them in direct memory for lexicons
+ * with millions of entries; {@link MappedRootStore} reads them from a memory-mapped {@link RootDictionaryImage}.
+ */
+public interface RootStore
+{
+	boolean contains(CharSequence token);
+
+	boolean contains(char[] buffer, int offset, int length);
+
+	int size();
+
+	/**
+	 * Identifies the content of the store independently of its implementation and of the order the roots were added in.
+	 */
+	long checksum();
+
+	/**
+	 * Passes every root, lower case, to {@code action}, in no particular order.
+	 */
+	void forEach(Consumer<? super CharSequence> action);
+}
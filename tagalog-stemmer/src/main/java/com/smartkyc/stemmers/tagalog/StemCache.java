@@ -0,0 +1,279 @@
+package com.smartkyc.stemmers.tagalog;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe LRU cache of token to root results.
+ * <p>
+ * Entries are spread over lock-striped segments, each of which is an access ordered {@link LinkedHashMap} that evicts its
+ * least recently used entry once the segment is full, so concurrent lookups of different tokens rarely contend. Each entry
+ * counts its hits, so the most frequently requested results can be saved with {@link CacheSnapshot}.
+ * <p>
+ * The cache remembers which {@link DictionarySource#version()} its results were stemmed with. A stemmer that sees a newer
+ * version clears the cache, and results of an older version that are put afterwards are dropped.
+ */
+public final class StemCache
+{
+	private static final int MAX_SEGMENTS = 16;
+
+	private final Segment[] segments;
+
+	private final int segmentMask;
+
+	private final int maximumSize;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	private final AtomicLong version = new AtomicLong();
+
+	public StemCache(final int maximumSize)
+	{
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException("Cache size must be positive: " + maximumSize);
+		}
+		this.maximumSize = maximumSize;
+
+		int segmentCount = 1;
+		while (segmentCount < MAX_SEGMENTS && segmentCount * 2 * 64 <= maximumSize) {
+			segmentCount *= 2;
+		}
+		segments = new Segment[segmentCount];
+		segmentMask = segmentCount - 1;
+		final int segmentCapacity = (maximumSize + segmentCount - 1) / segmentCount;
+		for (int i = 0; i < segmentCount; i++) {
+			segments[i] = new Segment(segmentCapacity, evictions);
+		}
+	}
+
+	public String get(final String token)
+	{
+		final Segment segment = segmentFor(token);
+		final String root;
+		synchronized (segment) {
+			final Entry entry = segment.get(token);
+			if (entry == null) {
+				root = null;
+			} else {
+				entry.hits++;
+				root = entry.root;
+			}
+		}
+		if (root == null) {
+			misses.increment();
+		} else {
+			hits.increment();
+		}
+		return root;
+	}
+
+	public void put(final String token, final String root)
+	{
+		final Segment segment = segmentFor(token);
+		synchronized (segment) {
+			segment.put(token, new Entry(root));
+		}
+	}
+
+	/**
+	 * Caches a result stemmed with the given dictionary version, unless the cache has moved on to a newer one.
+	 */
+	void put(final String token, final String root, final long version)
+	{
+		final Segment segment = segmentFor(token);
+		synchronized (segment) {
+			// checked under the lock, so a result is either dropped or cleared by invalidate(long)
+			if (version == this.version.get()) {
+				segment.put(token, new Entry(root));
+			}
+		}
+	}
+
+	/**
+	 * The dictionary version of the cached results.
+	 */
+	long version()
+	{
+		return version.get();
+	}
+
+	/**
+	 * Clears the cache for a newer dictionary version; an older version than the current one is ignored.
+	 */
+	void invalidate(final long newVersion)
+	{
+		for (long current = version.get(); current < newVersion; current = version.get()) {
+			if (version.compareAndSet(current, newVersion)) {
+				clear();
+				return;
+			}
+		}
+	}
+
+	public void clear()
+	{
+		for (final Segment segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	public int size()
+	{
+		int size = 0;
+		for (final Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	public int maximumSize()
+	{
+		return maximumSize;
+	}
+
+	public Stats stats()
+	{
+		return new Stats(hits.sum(), misses.sum(), evictions.sum(), size());
+	}
+
+	/**
+	 * Returns at most {@code limit} cached results, most frequently hit first.
+	 */
+	List<Map.Entry<String, String>> hottest(final int limit)
+	{
+		final List<Map.Entry<String, Entry>> entries = new ArrayList<>();
+		for (final Segment segment : segments) {
+			synchronized (segment) {
+				for (final Map.Entry<String, Entry> entry : segment.entrySet()) {
+					// copied, as the hit counts keep changing while the entries are sorted
+					entries.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue().copy()));
+				}
+			}
+		}
+		entries.sort((a, b) -> Long.compare(b.getValue().hits, a.getValue().hits));
+
+		final List<Map.Entry<String, String>> hottest = new ArrayList<>(Math.min(limit, entries.size()));
+		for (int i = 0; i < entries.size() && i < limit; i++) {
+			hottest.add(new AbstractMap.SimpleImmutableEntry<>(entries.get(i).getKey(), entries.get(i).getValue().root));
+		}
+		return hottest;
+	}
+
+	private Segment segmentFor(final String token)
+	{
+		final int hash = token.hashCode();
+		return segments[(hash ^ (hash >>> 16)) & segmentMask];
+	}
+
+	private static final class Entry
+	{
+		private final String root;
+
+		private long hits;
+
+		Entry(final String root)
+		{
+			this.root = root;
+		}
+
+		Entry copy()
+		{
+			final Entry copy = new Entry(root);
+			copy.hits = hits;
+			return copy;
+		}
+	}
+
+	private static final class Segment extends LinkedHashMap<String, StemCache.Entry>
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final int capacity;
+
+		private final transient LongAdder evictions;
+
+		Segment(final int capacity, final LongAdder evictions)
+		{
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+			this.evictions = evictions;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<String, StemCache.Entry> eldest)
+		{
+			if (size() > capacity) {
+				evictions.increment();
+				return true;
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Point-in-time snapshot of the cache counters.
+	 */
+	public static final class Stats
+	{
+		private final long hitCount;
+
+		private final long missCount;
+
+		private final long evictionCount;
+
+		private final int size;
+
+		Stats(final long hitCount, final long missCount, final long evictionCount, final int size)
+		{
+			this.hitCount = hitCount;
+			this.missCount = missCount;
+			this.evictionCount = evictionCount;
+			this.size = size;
+		}
+
+		public long hitCount()
+		{
+			return hitCount;
+		}
+
+		public long missCount()
+		{
+			return missCount;
+		}
+
+		public long evictionCount()
+		{
+			return evictionCount;
+		}
+
+		public int size()
+		{
+			return size;
+		}
+
+		public double hitRate()
+		{
+			final long requests = hitCount + missCount;
+			return requests == 0 ? 0.0 : (double) hitCount / requests;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "Stats{hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount + ", size=" + size + '}';
+		}
+	}
+}
@@ -0,0 +1,273 @@
+package com.smartkyc.stemmers.tagalog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The root of a word together with what stemming removed from it: prefixes, infixes, suffixes, repeated syllables,
+ * duplicated parts and cleaned-up characters, each in the order in which they were removed.
+ * <p>
+ * Filled by {@link TagalogStemmer#analyze(String, StemResult)}. A result can be reused for any number of words: every
+ * analysis clears it first and its lists keep their capacity, so analyzing into a reused result allocates about as much as
+ * {@link TagalogStemmer#stem(String)}. The lists returned by the accessors are read-only views that change with the
+ * result. Results are not thread-safe.
+ */
+public final class StemResult
+{
+	private final List<String> prefixes;
+
+	private final List<String> infixes;
+
+	private final List<String> suffixes;
+
+	private final List<String> repeats;
+
+	private final List<String> duplications;
+
+	/**
+	 * Repeated syllables as recorded by the repetition rules, which later rules read.
+	 */
+	final List<String> repetitions = new ArrayList<>();
+
+	/**
+	 * Cleaned-up characters, recorded by the rules themselves.
+	 */
+	final List<String> cleaners = new ArrayList<>();
+
+	private final List<String> prefixView;
+
+	private final List<String> infixView;
+
+	private final List<String> suffixView;
+
+	private final List<String> repeatView;
+
+	private final List<String> duplicationView;
+
+	private final List<String> cleanerView;
+
+	private final boolean recordAffixes;
+
+	private String word;
+
+	private String root;
+
+	private boolean changed;
+
+	private int repetitionsSeen;
+
+	private boolean claimed;
+
+	/**
+	 * The dictionary version the rules read during a stemming call, fixed when the call starts.
+	 */
+	private Lexicon lexicon;
+
+	public StemResult()
+	{
+		this(true);
+	}
+
+	/**
+	 * @param recordAffixes whether the pipeline attributes removed affixes; plain stemming only needs the lists the rules
+	 * read themselves
+	 */
+	StemResult(final boolean recordAffixes)
+	{
+		this.recordAffixes = recordAffixes;
+		// plain stemming allocates no more than the lists the rules need
+		prefixes = recordAffixes ? new ArrayList<>() : Collections.emptyList();
+		infixes = recordAffixes ? new ArrayList<>() : Collections.emptyList();
+		suffixes = recordAffixes ? new ArrayList<>() : Collections.emptyList();
+		repeats = recordAffixes ? new ArrayList<>() : Collections.emptyList();
+		duplications = recordAffixes ? new ArrayList<>() : Collections.emptyList();
+		prefixView = recordAffixes ? Collections.unmodifiableList(prefixes) : prefixes;
+		infixView = recordAffixes ? Collections.unmodifiableList(infixes) : infixes;
+		suffixView = recordAffixes ? Collections.unmodifiableList(suffixes) : suffixes;
+		repeatView = recordAffixes ? Collections.unmodifiableList(repeats) : repeats;
+		duplicationView = recordAffixes ? Collections.unmodifiableList(duplications) : duplications;
+		cleanerView = recordAffixes ? Collections.unmodifiableList(cleaners) : Collections.emptyList();
+	}
+
+	public String word()
+	{
+		return word;
+	}
+
+	public String root()
+	{
+		return root;
+	}
+
+	public List<String> prefixes()
+	{
+		return prefixView;
+	}
+
+	public List<String> infixes()
+	{
+		return infixView;
+	}
+
+	public List<String> suffixes()
+	{
+		return suffixView;
+	}
+
+	public List<String> repetitions()
+	{
+		return repeatView;
+	}
+
+	public List<String> duplications()
+	{
+		return duplicationView;
+	}
+
+	public List<String> cleaners()
+	{
+		return cleanerView;
+	}
+
+	/**
+	 * Whether the word was reduced to a different root.
+	 */
+	public boolean isStemmed()
+	{
+		return root != null && !root.equals(word);
+	}
+
+	@Override
+	public String toString()
+	{
+		return "{word=" + word + ", root=" + root + ", prefix=" + prefixes + ", infix=" + infixes + ", suffix=" + suffixes
+				+ ", repeat=" + repeats + ", dupli=" + duplications + ", clean=" + cleaners + '}';
+	}
+
+	void reset(final String word)
+	{
+		this.word = word;
+		this.root = null;
+		this.changed = false;
+		this.repetitionsSeen = 0;
+		prefixes.clear();
+		infixes.clear();
+		suffixes.clear();
+		repeats.clear();
+		duplications.clear();
+		repetitions.clear();
+		cleaners.clear();
+	}
+
+	void complete(final String root)
+	{
+		this.root = root;
+	}
+
+	/**
+	 * Keeps the word as its own root and drops the breakdown recorded so far, which no longer adds up.
+	 */
+	void fail()
+	{
+		reset(word);
+		root = word;
+	}
+
+	/**
+	 * Claims a thread's scratch result for one call, failing if a call further up the stack is using it.
+	 */
+	boolean claim()
+	{
+		if (claimed) {
+			return false;
+		}
+		claimed = true;
+		return true;
+	}
+
+	/**
+	 * Releases a scratch result, dropping its references to the last word and root.
+	 */
+	void release()
+	{
+		word = null;
+		root = null;
+		claimed = false;
+	}
+
+	boolean recordAffixes()
+	{
+		return recordAffixes;
+	}
+
+	Lexicon lexicon()
+	{
+		return lexicon;
+	}
+
+	void lexicon(final Lexicon lexicon)
+	{
+		this.lexicon = lexicon;
+	}
+
+	/**
+	 * Whether any stage has changed the token so far.
+	 */
+	boolean changed()
+	{
+		return changed;
+	}
+
+	void markChanged()
+	{
+		changed = true;
+	}
+
+	void prefix(final String prefix)
+	{
+		add(prefixes, prefix);
+	}
+
+	void infix(final String infix)
+	{
+		add(infixes, infix);
+	}
+
+	void suffix(final String suffix)
+	{
+		add(suffixes, suffix);
+	}
+
+	void repeat(final String repeat)
+	{
+		add(repeats, repeat);
+	}
+
+	void duplication(final String duplication)
+	{
+		add(duplications, duplication);
+	}
+
+	void cleaner(final String cleaner)
+	{
+		add(cleaners, cleaner);
+	}
+
+	/**
+	 * Publishes the repetitions the rules recorded since the last call.
+	 */
+	void syncRepetitions()
+	{
+		for (; repetitionsSeen < repetitions.size(); repetitionsSeen++) {
+			repeats.add(repetitions.get(repetitionsSeen));
+		}
+	}
+
+	private static void add(final List<String> list, final String value)
+	{
+		if (!value.isEmpty()) {
+			list.add(value);
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package com.smartkyc.stemmers.tagalog;
+
+import java.util.Objects;
+
+/**
+ * A word read from text together with its root.
+ */
+public final class StemmedWord
+{
+	private final String word;
+
+	private final String root;
+
+	public StemmedWord(final String word, final String root)
+	{
+		this.word = word;
+		this.root = root;
+	}
+
+	public String word()
+	{
+		return word;
+	}
+
+	public String root()
+	{
+		return root;
+	}
+
+	@Override
+	public boolean equals(final Object o)
+	{
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof StemmedWord)) {
+			return false;
+		}
+		final StemmedWord that = (StemmedWord) o;
+		return word.equals(that.word) && root.equals(that.root);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(word, root);
+	}
+
+	@Override
+	public String toString()
+	{
+		return word + " : " + root;
+	}
+}
@@ -0,0 +1,18 @@
+package com.smartkyc.stemmers.tagalog;
+
+/**
+ * How {@link TagalogStemmer} finds the root of a word.
+ */
+public enum StemmingEngine
+{
+	/**
+	 * Rewrites the token stage by stage, in the fixed order of {@link StemmingStage}.
+	 */
+	PIPELINE,
+
+	/**
+	 * Enumerates the prefix, reduplication, infix and suffix segmentations of the token once and picks the best one whose
+	 * root is in the dictionary. Tokens without such a segmentation fall back to the {@link #PIPELINE}.
+	 */
+	LATTICE
+}
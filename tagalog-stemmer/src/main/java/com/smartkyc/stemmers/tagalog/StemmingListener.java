@@ -0,0 +1,36 @@
+package com.smartkyc.stemmers.tagalog;
+
+/**
+ * Receives events from the stemming pipeline of a {@link TagalogStemmer}.
+ * <p>
+ * Listeners are called synchronously from every thread that stems, so implementations must be thread-safe and cheap. A
+ * stemmer without a listener does not time anything. See {@link StemmingMetrics} for a ready-made counter
+ * implementation.
+ */
+public interface StemmingListener
+{
+	/**
+	 * Called after each stage run. Stages skipped because the token already is a known root are not reported.
+	 *
+	 * @param changed whether the stage changed the token
+	 * @param dictionaryHit whether the token returned by the stage is a known root
+	 * @param nanos time spent in the stage
+	 */
+	default void stageCompleted(final StemmingStage stage, final boolean changed, final boolean dictionaryHit, final long nanos)
+	{
+	}
+
+	/**
+	 * Called when the first pass changed the token without reaching a known root and the stages run a second time.
+	 */
+	default void secondPassStarted()
+	{
+	}
+
+	/**
+	 * Called when stemming {@code token} failed and the token is returned unchanged.
+	 */
+	default void stemmingFailed(final String token, final Exception exception)
+	{
+	}
+}
@@ -0,0 +1,101 @@
+package com.smartkyc.stemmers.tagalog;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link StemmingListener} that counts, per stage, invocations, changed tokens, dictionary hits and cumulative time, as
+ * well as second passes and failures. Counters only grow and can be read at any time for export.
+ */
+public final class StemmingMetrics implements StemmingListener
+{
+	private static final StemmingStage[] STAGES = StemmingStage.values();
+
+	private final LongAdder[] invocations = newAdders();
+
+	private final LongAdder[] changes = newAdders();
+
+	private final LongAdder[] dictionaryHits = newAdders();
+
+	private final LongAdder[] nanos = newAdders();
+
+	private final LongAdder secondPasses = new LongAdder();
+
+	private final LongAdder failures = new LongAdder();
+
+	@Override
+	public void stageCompleted(final StemmingStage stage, final boolean changed, final boolean dictionaryHit, final long nanos)
+	{
+		final int index = stage.ordinal();
+		invocations[index].increment();
+		if (changed) {
+			changes[index].increment();
+		}
+		if (dictionaryHit) {
+			dictionaryHits[index].increment();
+		}
+		this.nanos[index].add(nanos);
+	}
+
+	@Override
+	public void secondPassStarted()
+	{
+		secondPasses.increment();
+	}
+
+	@Override
+	public void stemmingFailed(final String token, final Exception exception)
+	{
+		failures.increment();
+	}
+
+	public long invocations(final StemmingStage stage)
+	{
+		return invocations[stage.ordinal()].sum();
+	}
+
+	public long changes(final StemmingStage stage)
+	{
+		return changes[stage.ordinal()].sum();
+	}
+
+	public long dictionaryHits(final StemmingStage stage)
+	{
+		return dictionaryHits[stage.ordinal()].sum();
+	}
+
+	public long nanos(final StemmingStage stage)
+	{
+		return nanos[stage.ordinal()].sum();
+	}
+
+	public long secondPasses()
+	{
+		return secondPasses.sum();
+	}
+
+	public long failures()
+	{
+		return failures.sum();
+	}
+
+	@Override
+	public String toString()
+	{
+		final StringBuilder builder = new StringBuilder();
+		for (final StemmingStage stage : STAGES) {
+			builder.append(stage).append(": invocations=").append(invocations(stage)).append(", changes=")
+					.append(changes(stage)).append(", dictionaryHits=").append(dictionaryHits(stage)).append(", nanos=")
+					.append(nanos(stage)).append('\n');
+		}
+		return builder.append("secondPasses=").append(secondPasses()).append(", failures=").append(failures()).toString();
+	}
+
+	private static LongAdder[] newAdders()
+	{
+		final LongAdder[] adders = new LongAdder[STAGES.length];
+		for (int i = 0; i < adders.length; i++) {
+			adders[i] = new LongAdder();
+		}
+		return adders;
+	}
+}
@@ -0,0 +1,91 @@
+package com.smartkyc.stemmers.tagalog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * One pass of {@link TagalogStemmer}: an ordered list of stages, each applying one rule to the token.
+ * <p>
+ * The pipeline tracks whether the current token is a known root. While it is, stages that {@link
+ * StemmingStage#preservesRoots() preserve roots} are skipped, and the pass ends as soon as no later stage could change a
+ * root.
+ */
+final class StemmingPipeline
+{
+	/**
+	 * A stage bound to a stemmer. Rules that later rules depend on record what they removed in the result themselves.
+	 */
+	interface Rule
+	{
+		String apply(String token, StemResult result);
+	}
+
+	/**
+	 * Works out which affixes a stage removed from how it changed the token, for results that record affixes.
+	 */
+	interface Attribution
+	{
+		void record(StemmingStage stage, String before, String after, StemResult result);
+	}
+
+	private final StemmingStage[] stages;
+
+	private final Rule[] rules;
+
+	private final Attribution attribution;
+
+	/**
+	 * For every position, the first stage at or after it that may change a root, or the number of stages if there is none.
+	 */
+	private final int[] nextRootChanging;
+
+	StemmingPipeline(final StemmingStage[] order, final Set<StemmingStage> enabled,
+			final Function<StemmingStage, Rule> rules, final Attribution attribution)
+	{
+		this.attribution = attribution;
+		final List<StemmingStage> selected = new ArrayList<>();
+		for (final StemmingStage stage : order) {
+			if (enabled.contains(stage)) {
+				selected.add(stage);
+			}
+		}
+		this.stages = selected.toArray(new StemmingStage[0]);
+		this.rules = new Rule[stages.length];
+		for (int i = 0; i < stages.length; i++) {
+			this.rules[i] = rules.apply(stages[i]);
+		}
+		this.nextRootChanging = new int[stages.length + 1];
+		nextRootChanging[stages.length] = stages.length;
+		for (int i = stages.length - 1; i >= 0; i--) {
+			nextRootChanging[i] = stages[i].preservesRoots() ? nextRootChanging[i + 1] : i;
+		}
+	}
+
+	/**
+	 * Runs the stages over {@code token}, reporting every stage run to {@code listener} if it is not {@code null}.
+	 */
+	String run(String token, final StemResult result, final RootStore roots, final StemmingListener listener)
+	{
+		boolean root = roots.contains(token);
+		for (int i = root ? nextRootChanging[0] : 0; i < stages.length; i = root ? nextRootChanging[i + 1] : i + 1) {
+			final long start = listener == null ? 0 : System.nanoTime();
+			final String cleanedToken = rules[i].apply(token, result);
+			final long nanos = listener == null ? 0 : System.nanoTime() - start;
+			final boolean changed = !cleanedToken.equals(token);
+			if (changed) {
+				if (result.recordAffixes()) {
+					attribution.record(stages[i], token, cleanedToken, result);
+				}
+				result.markChanged();
+				token = cleanedToken;
+				root = roots.contains(token);
+			}
+			if (listener != null) {
+				listener.stageCompleted(stages[i], changed, root, nanos);
+			}
+		}
+		return token;
+	}
+}
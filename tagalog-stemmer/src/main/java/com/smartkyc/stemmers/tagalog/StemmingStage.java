@@ -0,0 +1,43 @@
+package com.smartkyc.stemmers.tagalog;
+
+/**
+ * The rules applied by {@link TagalogStemmer}, in the order in which they first run.
+ */
+public enum StemmingStage
+{
+	ORDINALS,
+	NUMBERS,
+	I_PREFIX(false),
+	DUPLICATION,
+	REPEATING_SUBSTRINGS,
+	REPETITION,
+	PREFIX_D_TO_R,
+	PREFIX_PB_TO_M,
+	PREFIX_SDT_TO_N,
+	PREFIX_K_TO_NG,
+	PREFIX,
+	INFIX,
+	R_BETWEEN_VOWELS(false),
+	SUFFIX,
+	STEMMED;
+
+	private final boolean preservesRoots;
+
+	StemmingStage()
+	{
+		this(true);
+	}
+
+	StemmingStage(final boolean preservesRoots)
+	{
+		this.preservesRoots = preservesRoots;
+	}
+
+	/**
+	 * Whether the stage returns a token that already is a known root unchanged, so the pipeline can skip it for roots.
+	 */
+	boolean preservesRoots()
+	{
+		return preservesRoots;
+	}
+}
@@ -0,0 +1,1673 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Reduces Tagalog words to their roots.
+ * <p>
+ * <b>Thread safety.</b> A stemmer is safe for concurrent use by any number of threads, and sharing one instance is the
+ * intended use. All configuration is final and immutable once built. The only state shared between calls is
+ * <ul>
+ * <li>the {@link RootStore}, the filter in front of it and the numeral maps, which are immutable and published together
+ * through a volatile field of the {@link DictionarySource} whenever it loads or reloads,</li>
+ * <li>the optional {@link StemCache}, which is thread-safe and lock-striped,</li>
+ * <li>the optional {@link InflectionTable}, which is immutable,</li>
+ * <li>the counters of protected tokens and inflection table hits, {@link LongAdder}s,</li>
+ * <li>the optional {@link StemmingListener}, which must itself be thread-safe.</li>
+ * </ul>
+ * Everything a single call needs lives in a {@link StemResult} that is confined to the calling thread: plain stemming
+ * reuses one per thread through a {@link ThreadLocal}, so that threads never contend for scratch state, and
+ * {@link #analyze(String, StemResult)} uses the caller's. New per-call state must follow the same pattern rather than be
+ * kept in fields; {@code ThreadSafetyTest} checks the fields of this class and stems concurrently against
+ * single-threaded output.
+ */
+public class TagalogStemmer
+{
+
+	private static final Logger log = LoggerFactory.getLogger(TagalogStemmer.class);
+
+	/**
+	 * Batches with fewer distinct tokens than this are stemmed on the calling thread by the {@code stemAll} methods.
+	 */
+	public static final int DEFAULT_PARALLELISM_THRESHOLD = 4096;
+
+	/**
+	 * Version of the stemming rules, increased whenever a change to the pipeline changes the root of any token. Cache
+	 * snapshots taken with another version are rejected.
+	 */
+	public static final int RULES_VERSION = 2;
+
+	private static final Set<String> PREFIX_SET = Collections.unmodifiableSet(new LinkedHashSet<>(
+			(Arrays.asList("nakikipag", "pakikipag", "pinakama", "pagpapa", "pinagka", "maisasa", "panganga", "makapag", "makipag",
+					"packaging", "tagapag", "makipag", "nakipag", "pinaki", "tigapag", "mangaka", "isinasa", "maisa", "naisa",
+					"magsi", "nagsi", "pakiki", "magpa", "napaka", "pinaka", "ipinag", "pagka", "pinag", "mapag", "mapa", "taga",
+					"ipag", "tiga", "pala", "pina", "pang", "paki", "naka", "naki", "nang", "mang", "maka", "maki", "sing", "ipa",
+					"isa", "pam", "pan", "pag", "tag", "mai", "mag", "nam", "nag", "man", "may", "ma", "na", "ni", "pa", "ka", "um",
+					"in", "i"))));
+
+	private static final Set<String> SUFFIX_SET = Collections.unmodifiableSet(
+			new LinkedHashSet<>(Arrays.asList("syon", "dor", "ita", "han", "hin", "ing", "aang", "ang", "ng", "an", "in", "g")));
+
+	private static final AffixTrie PREFIXES = AffixTrie.prefixes(PREFIX_SET);
+
+	private static final AffixTrie SUFFIXES = AffixTrie.suffixes(SUFFIX_SET);
+
+	private static final AffixTrie PB_TO_M_PREFIXES = AffixTrie.prefixes(
+			Arrays.asList("magpapaka", "magpaka", "magpapa", "nangaka", "mag", "pama", "maka", "naka", "na", "ma", "pa", "ka", "ika",
+					"kina", "pagka", "pakikipa"));
+
+	private static final AffixTrie SDT_TO_N_PREFIXES = AffixTrie.prefixes(Arrays.asList("mana", "pana", "nana", "ma", "pa", "na"));
+
+	private static final AffixTrie D_TO_R_PREFIXES = AffixTrie.prefixes(
+			Arrays.asList("magpa", "nagpa", "kina", "maka", "naka", "mapa", "ipa", "napa", "ka", "ma"));
+
+	private static final List<String> INFIXES = Collections.unmodifiableList(Arrays.asList("um", "in"));
+
+	/**
+	 * The lattice engine tries the suffixes of the pipeline and allomorphs and enclitics that only a search checked
+	 * against the dictionary can afford to try.
+	 */
+	private static final LatticeStemmer LATTICE = new LatticeStemmer(PREFIXES,
+			Arrays.asList("syon", "ita", "han", "hin", "ing", "aang", "ang", "ng", "an", "in", "g", "nan", "nin", "hon", "man",
+					"mang"));
+
+	private static final List<String> EXCEPTIONS = Collections.unmodifiableList(
+			Arrays.asList("dr", "gl", "gr", "ng", "kr", "kl", "kw", "ts", "tr", "pr", "pl", "pw", "sw", "sy"));
+
+	private static final String VOWELS = "aeiouAEIOU";
+
+	private static final String CONSONANTS = "bcdfghklmnngpqrstvwyBCDFGHKLMNNGPQRSTVWY";
+
+	private static final byte VOWEL = 1;
+
+	private static final byte CONSONANT = 2;
+
+	/**
+	 * Character class of every ASCII character; all other characters are neither vowels nor consonants.
+	 */
+	private static final byte[] CHAR_CLASSES = new byte[128];
+
+	private static final StemmingStage[] FIRST_PASS = { StemmingStage.ORDINALS, StemmingStage.NUMBERS, StemmingStage.I_PREFIX,
+			StemmingStage.DUPLICATION, StemmingStage.REPEATING_SUBSTRINGS, StemmingStage.REPETITION, StemmingStage.PREFIX_D_TO_R,
+			StemmingStage.PREFIX_PB_TO_M, StemmingStage.PREFIX_SDT_TO_N, StemmingStage.PREFIX_K_TO_NG, StemmingStage.PREFIX,
+			StemmingStage.PREFIX, StemmingStage.INFIX, StemmingStage.REPETITION, StemmingStage.DUPLICATION,
+			StemmingStage.R_BETWEEN_VOWELS, StemmingStage.SUFFIX, StemmingStage.DUPLICATION, StemmingStage.STEMMED };
+
+	private static final StemmingStage[] SECOND_PASS = { StemmingStage.DUPLICATION, StemmingStage.REPEATING_SUBSTRINGS,
+			StemmingStage.REPETITION, StemmingStage.PREFIX_PB_TO_M, StemmingStage.PREFIX_SDT_TO_N, StemmingStage.PREFIX_K_TO_NG,
+			StemmingStage.PREFIX, StemmingStage.PREFIX, StemmingStage.INFIX, StemmingStage.REPETITION, StemmingStage.DUPLICATION,
+			StemmingStage.R_BETWEEN_VOWELS, StemmingStage.SUFFIX, StemmingStage.DUPLICATION, StemmingStage.STEMMED };
+
+	static {
+		for (int i = 0; i < VOWELS.length(); i++) {
+			CHAR_CLASSES[VOWELS.charAt(i)] = VOWEL;
+		}
+		for (int i = 0; i < CONSONANTS.length(); i++) {
+			CHAR_CLASSES[CONSONANTS.charAt(i)] = CONSONANT;
+		}
+	}
+
+	/**
+	 * Scratch result of plain stemming, one per thread. A listener that stems from within a callback gets a fresh result
+	 * rather than the one in use further up the stack.
+	 */
+	private static final ThreadLocal<StemResult> SCRATCH = ThreadLocal.withInitial(() -> new StemResult(false));
+
+	private final DictionarySource dictionarySource;
+
+	private final DictionarySource protectedWords;
+
+	private final LongAdder protectedTokens = new LongAdder();
+
+	private final InflectionTable inflections;
+
+	private final LongAdder inflectionHits = new LongAdder();
+
+	private final Executor loadExecutor;
+
+	private final StemCache cache;
+
+	private final StemmingListener listener;
+
+	private final Set<StemmingStage> stages;
+
+	private final StemmingEngine engine;
+
+	private final StemmingPipeline firstPass;
+
+	private final StemmingPipeline secondPass;
+
+	public TagalogStemmer()
+	{
+		this(null, null);
+	}
+
+	/**
+	 * Creates a stemmer that memoizes up to {@code cacheSize} token to root results.
+	 */
+	public TagalogStemmer(final int cacheSize)
+	{
+		this(new StemCache(cacheSize), null);
+	}
+
+	/**
+	 * Creates a stemmer that memoizes results in the given cache, or none if {@code cache} is {@code null}. A cache may be
+	 * shared between stemmers configured with the same dictionary.
+	 */
+	public TagalogStemmer(final StemCache cache)
+	{
+		this(cache, null);
+	}
+
+	/**
+	 * Creates a stemmer with an optional cache that reports every stage run to {@code listener}. Cache hits do not reach
+	 * the pipeline and are not reported.
+	 */
+	public TagalogStemmer(final StemCache cache, final StemmingListener listener)
+	{
+		this(builder().cache(cache).listener(listener));
+	}
+
+	private TagalogStemmer(final Builder builder)
+	{
+		this.dictionarySource = builder.dictionarySource;
+		this.protectedWords = builder.protectedWords;
+		this.inflections = builder.inflections;
+		this.loadExecutor = builder.loadExecutor;
+		this.cache = builder.cache;
+		this.listener = builder.listener;
+		this.stages = Collections.unmodifiableSet(EnumSet.copyOf(builder.stages));
+		this.engine = builder.engine;
+		this.firstPass = new StemmingPipeline(FIRST_PASS, stages, this::rule, this::recordAffixes);
+		this.secondPass = new StemmingPipeline(SECOND_PASS, stages, this::rule, this::recordAffixes);
+		if (loadExecutor != null) {
+			if (protectedWords != null) {
+				protectedWords.load(loadExecutor);
+			}
+			final CompletableFuture<Lexicon> loading = dictionarySource.load(loadExecutor);
+			if (builder.cacheSnapshot != null) {
+				loading.thenRunAsync(() -> warmCache(builder.cacheSnapshot), loadExecutor);
+			}
+		} else if (builder.cacheSnapshot != null) {
+			warmCache(builder.cacheSnapshot);
+		}
+	}
+
+	public static Builder builder()
+	{
+		return new Builder();
+	}
+
+	/**
+	 * Whether the root dictionary and the protected words are loaded, so that stemming will not block on them.
+	 */
+	public boolean isReady()
+	{
+		return dictionarySource.isLoaded() && (protectedWords == null || protectedWords.isLoaded());
+	}
+
+	/**
+	 * Waits until the root dictionary and the protected words are loaded, loading them on the calling thread if nothing
+	 * has started loading them yet.
+	 *
+	 * @throws IllegalStateException if the dictionary or the protected words failed to load
+	 */
+	public void awaitReady()
+	{
+		lexicon();
+		if (protectedWords != null) {
+			lexicon(protectedWords);
+		}
+	}
+
+	/**
+	 * Waits at most the given time for the root dictionary and the protected words to load, starting to load them in the
+	 * background if needed.
+	 *
+	 * @return whether both are loaded
+	 * @throws IllegalStateException if the dictionary or the protected words failed to load
+	 */
+	public boolean awaitReady(final long timeout, final TimeUnit unit) throws InterruptedException
+	{
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		return awaitLoaded(dictionarySource, deadline) && (protectedWords == null || awaitLoaded(protectedWords, deadline));
+	}
+
+	private boolean awaitLoaded(final DictionarySource source, final long deadline) throws InterruptedException
+	{
+		if (source.isLoaded()) {
+			return true;
+		}
+		try {
+			source.load(loadExecutor == null ? ForkJoinPool.commonPool() : loadExecutor)
+					.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+			return true;
+		} catch (final TimeoutException e) {
+			return false;
+		} catch (final ExecutionException e) {
+			throw new IllegalStateException("Failed to load " + source, e.getCause());
+		}
+	}
+
+	/**
+	 * The stages this stemmer runs; see {@link Builder#stages(Set)}.
+	 */
+	public Set<StemmingStage> stages()
+	{
+		return stages;
+	}
+
+	/**
+	 * The engine this stemmer stems with; see {@link Builder#engine(StemmingEngine)}.
+	 */
+	public StemmingEngine engine()
+	{
+		return engine;
+	}
+
+	/**
+	 * Returns the root dictionary, waiting for it to load if necessary.
+	 */
+	public RootStore dictionary()
+	{
+		return lexicon().roots().store();
+	}
+
+	/**
+	 * The {@link DictionarySource#version()} of the dictionary in use, 0 until it has loaded.
+	 */
+	public long dictionaryVersion()
+	{
+		return dictionarySource.version();
+	}
+
+	/**
+	 * Saves up to {@code maxEntries} of the most frequently requested cached results to {@code file}, replacing it
+	 * atomically, so that a later {@link #loadCacheSnapshot(Path)} can warm the cache of a new stemmer.
+	 *
+	 * @return the number of results saved
+	 * @throws IllegalStateException if the stemmer has no cache
+	 */
+	public int saveCacheSnapshot(final Path file, final int maxEntries) throws IOException
+	{
+		final Lexicon lexicon = lexicon();
+		return CacheSnapshot.write(file, requireCache().hottest(maxEntries), stageMask(), lexicon.roots().checksum(),
+				inflectionsChecksum(lexicon));
+	}
+
+	/**
+	 * Preloads the cache with the results saved in {@code file}, as many as fit. A snapshot taken with another root
+	 * dictionary, inflection table, other stages or another {@link #RULES_VERSION} is rejected with a warning and nothing
+	 * is loaded.
+	 *
+	 * @return the number of results loaded
+	 * @throws IllegalStateException if the stemmer has no cache
+	 */
+	public int loadCacheSnapshot(final Path file) throws IOException
+	{
+		final StemCache target = requireCache();
+		final Lexicon lexicon = lexicon();
+		final List<Map.Entry<String, String>> results;
+		try {
+			results = CacheSnapshot.read(file, stageMask(), lexicon.roots().checksum(), inflectionsChecksum(lexicon));
+		} catch (final CacheSnapshot.StaleSnapshotException e) {
+			log.warn("Ignoring stale stem cache snapshot: {}", e.getMessage());
+			return 0;
+		}
+		final int count = Math.min(results.size(), target.maximumSize());
+		target.invalidate(lexicon.version());
+		// least frequent first, so that the most frequent results are the last to be evicted
+		for (int i = count - 1; i >= 0; i--) {
+			target.put(results.get(i).getKey(), results.get(i).getValue(), lexicon.version());
+		}
+		log.info("Loaded {} stem cache entries from {}", count, file);
+		return count;
+	}
+
+	public String stem(final String token)
+	{
+		final Lexicon lexicon = lexicon();
+		if (isBlank(token) || isProtected(token) || lexicon.isRoot(token)) {
+			return token;
+		}
+
+		if (cache == null) {
+			return stemUncached(token, lexicon);
+		}
+		final long version = lexicon.version();
+		if (cache.version() != version) {
+			cache.invalidate(version);
+		}
+		final String cached = cache.get(token);
+		if (cached != null) {
+			return cached;
+		}
+		final String root = stemUncached(token, lexicon);
+		cache.put(token, root, version);
+		return root;
+	}
+
+	/**
+	 * Stems {@code token} and returns its root together with the affixes removed from it.
+	 */
+	public StemResult analyze(final String token)
+	{
+		return analyze(token, new StemResult());
+	}
+
+	/**
+	 * Stems {@code token} into {@code result}, which is cleared first, and returns it. The root is the same as
+	 * {@link #stem(String)} returns; the cache is neither read nor filled, as it only holds roots.
+	 */
+	public StemResult analyze(final String token, final StemResult result)
+	{
+		final Lexicon lexicon = lexicon();
+		result.reset(token);
+		if (isBlank(token) || isProtected(token) || lexicon.isRoot(token)) {
+			result.complete(token);
+		} else {
+			run(token, lexicon, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Stems all tokens, returning the roots in input order. Duplicate tokens are stemmed once, and batches with at least
+	 * {@link #DEFAULT_PARALLELISM_THRESHOLD} distinct tokens are stemmed in parallel on the common fork-join pool.
+	 */
+	public String[] stemAll(final String[] tokens)
+	{
+		return stemAll(tokens, ForkJoinPool.commonPool(), DEFAULT_PARALLELISM_THRESHOLD);
+	}
+
+	/**
+	 * Stems all tokens, returning the roots in input order. Duplicate tokens are stemmed once, and batches with at least
+	 * {@code parallelismThreshold} distinct tokens are stemmed in parallel on {@code executor}; a {@code null} executor
+	 * stems on the calling thread.
+	 */
+	public String[] stemAll(final String[] tokens, final Executor executor, final int parallelismThreshold)
+	{
+		return BatchStemmer.stemAll(this, tokens, executor, parallelismThreshold);
+	}
+
+	public List<String> stemAll(final List<String> tokens)
+	{
+		return stemAll(tokens, ForkJoinPool.commonPool(), DEFAULT_PARALLELISM_THRESHOLD);
+	}
+
+	public List<String> stemAll(final List<String> tokens, final Executor executor, final int parallelismThreshold)
+	{
+		return Arrays.asList(stemAll(tokens.toArray(new String[0]), executor, parallelismThreshold));
+	}
+
+	public List<String> stemAll(final Stream<String> tokens)
+	{
+		return stemAll(tokens, ForkJoinPool.commonPool(), DEFAULT_PARALLELISM_THRESHOLD);
+	}
+
+	public List<String> stemAll(final Stream<String> tokens, final Executor executor, final int parallelismThreshold)
+	{
+		return Arrays.asList(stemAll(tokens.toArray(String[]::new), executor, parallelismThreshold));
+	}
+
+	/**
+	 * Writes the root of the first {@code length} characters of {@code buffer} back into {@code buffer} and returns its
+	 * length, for callers that keep their terms in reusable buffers.
+	 * <p>
+	 * Only blank tokens, protected words and tokens that already are roots are answered from the buffer without
+	 * allocating. Any other token is copied into a {@code String} once, stemmed by {@link #stem(String)} and its root
+	 * copied back, so it costs the same allocations as {@link #stem(String)} plus the copies. Within the stages, the
+	 * prefix and suffix rules look up the token with an affix cut off at offsets into that copy rather than in substrings
+	 * of it. If the root does not fit into {@code buffer} the token is left untouched and {@code length} is returned.
+	 */
+	public int stem(final char[] buffer, final int length)
+	{
+		if (isBlank(buffer, length) || isProtected(buffer, length) || lexicon().roots().contains(buffer, 0, length)) {
+			return length;
+		}
+
+		final String root = stem(new String(buffer, 0, length));
+		if (root.length() > buffer.length) {
+			return length;
+		}
+		root.getChars(0, root.length(), buffer, 0);
+		return root.length();
+	}
+
+	/**
+	 * The number of tokens returned unchanged because they are protected words; see {@link Builder#protectedWords}.
+	 */
+	public long protectedTokens()
+	{
+		return protectedTokens.sum();
+	}
+
+	/**
+	 * The number of tokens answered from the inflection table; see {@link Builder#inflections(InflectionTable)}.
+	 */
+	public long inflectionHits()
+	{
+		return inflectionHits.sum();
+	}
+
+	/**
+	 * Whether the inflection table answers tokens, which it only does while the dictionary has the roots it was generated
+	 * from; see {@link InflectionTable#rootChecksum()}. Waits for the dictionary to load if necessary.
+	 */
+	public boolean usesInflections()
+	{
+		return usesInflections(lexicon());
+	}
+
+	/**
+	 * Returns the cache counters, or {@code null} if this stemmer was created without a cache.
+	 */
+	public StemCache.Stats cacheStats()
+	{
+		return cache == null ? null : cache.stats();
+	}
+
+	private String stemUncached(final String token, final Lexicon lexicon)
+	{
+		final StemResult scratch = SCRATCH.get();
+		final StemResult result = scratch.claim() ? scratch : new StemResult(false);
+		try {
+			result.reset(token);
+			run(token, lexicon, result);
+			return result.root();
+		} finally {
+			if (result == scratch) {
+				scratch.release();
+			}
+		}
+	}
+
+	/**
+	 * Normalizes {@code token} and stems it with the inflection table, if any, or the configured engine, leaving the root
+	 * in {@code result}. Every stage after the normalization works on the normalized form, and every rule reads
+	 * {@code lexicon}, so that a reload during the call cannot mix two versions of the dictionary.
+	 */
+	private void run(final String token, final Lexicon lexicon, final StemResult result)
+	{
+		final String normalized = TokenNormalizer.normalize(token);
+		// the token itself was checked already; a token of ignorable characters only is returned as it is, since blank
+		// roots only come from blank tokens
+		if (normalized != token && (isBlank(normalized) || lexicon.isRoot(normalized))) {
+			result.complete(isBlank(normalized) ? token : normalized);
+			return;
+		}
+		if (usesInflections(lexicon)) {
+			final String root = inflections.root(normalized);
+			if (root != null) {
+				inflectionHits.increment();
+				result.complete(root);
+				return;
+			}
+		}
+		result.lexicon(lexicon);
+		try {
+			if (engine != StemmingEngine.LATTICE || !runLattice(normalized, result)) {
+				runPipeline(normalized, result);
+			}
+		} finally {
+			// a result the caller keeps must not keep an old dictionary alive
+			result.lexicon(null);
+		}
+	}
+
+	/**
+	 * Searches the segmentations of the normalized {@code token} for a known root, leaving it in {@code result}. Numerals,
+	 * which are not built from affixes, are left to the pipeline.
+	 *
+	 * @return whether a root was found; if not, {@code result} is unchanged
+	 */
+	private boolean runLattice(final String token, final StemResult result)
+	{
+		try {
+			if (isNumeral(token, result.lexicon())) {
+				return false;
+			}
+			final String root = LATTICE.stem(token, result.lexicon().roots(), result);
+			if (root == null) {
+				return false;
+			}
+			result.complete(root);
+			return true;
+		} catch (final RuntimeException e) {
+			log.debug("Lattice search failed for token: {}", token, e);
+			result.reset(result.word());
+			return false;
+		}
+	}
+
+	private boolean isNumeral(final String token, final Lexicon lexicon)
+	{
+		return stages.contains(StemmingStage.ORDINALS) && !cleanOrdinals(token, lexicon).equals(token) //
+				|| stages.contains(StemmingStage.NUMBERS) && !cleanNumbers(token, lexicon).equals(token);
+	}
+
+	/**
+	 * Runs both passes over the normalized {@code token}, leaving the root in {@code result}.
+	 */
+	private void runPipeline(final String token, final StemResult result)
+	{
+		try {
+			final RootStore roots = result.lexicon().roots();
+
+			String cleanedToken = firstPass.run(token, result, roots, listener);
+
+			// a first pass that changed nothing leaves nothing for the second pass, whose stages all ran already
+			if (result.changed() && !roots.contains(cleanedToken)) {
+				if (listener != null) {
+					listener.secondPassStarted();
+				}
+				cleanedToken = secondPass.run(cleanedToken, result, roots, listener);
+			}
+
+			if (isBlank(cleanedToken)) {
+				result.fail();
+				return;
+			}
+
+			result.complete(cleanedToken);
+		} catch (final Exception e) {
+			log.debug("Failed to stem token: {}", token, e);
+			if (listener != null) {
+				listener.stemmingFailed(token, e);
+			}
+			result.fail();
+		}
+	}
+
+	private StemmingPipeline.Rule rule(final StemmingStage stage)
+	{
+		switch (stage) {
+		case ORDINALS:
+			return (token, result) -> cleanOrdinals(token, result.lexicon());
+		case NUMBERS:
+			return (token, result) -> cleanNumbers(token, result.lexicon());
+		case I_PREFIX:
+			return (token, result) -> cleanIPrefix(token, result.lexicon());
+		case DUPLICATION:
+			return (token, result) -> cleanDuplication(token, result.lexicon());
+		case REPEATING_SUBSTRINGS:
+			return (token, result) -> cleanRepeatingSubstrings(token, result.lexicon());
+		case REPETITION:
+			return (token, result) -> cleanRepetition(token, result.repetitions, result.lexicon());
+		case PREFIX_D_TO_R:
+			return (token, result) -> cleanPrefixWithDbecomesR(token, result.lexicon());
+		case PREFIX_PB_TO_M:
+			return (token, result) -> cleanPrefixWithPBtoM(token, result.lexicon());
+		case PREFIX_SDT_TO_N:
+			return (token, result) -> cleanPrefixWithSDTtoN(token, result.lexicon());
+		case PREFIX_K_TO_NG:
+			return (token, result) -> cleanPrefixWithKtoNg(token, result.lexicon());
+		case PREFIX:
+			return (token, result) -> cleanPrefix(token, result.lexicon());
+		case INFIX:
+			return (token, result) -> cleanInfix(token, result.lexicon());
+		case R_BETWEEN_VOWELS:
+			return (token, result) -> cleanRBetweenVowels(token);
+		case SUFFIX:
+			return (token, result) -> cleanSuffix(token, result.lexicon());
+		case STEMMED:
+			return (token, result) -> cleanStemmed(token, result.cleaners, result.repetitions, result.lexicon());
+		default:
+			throw new IllegalArgumentException("Unknown stage: " + stage);
+		}
+	}
+
+	/**
+	 * Records the affixes a stage removed, working back from the token before and after the stage. Each case mirrors the
+	 * ways the rule of the stage can change a token.
+	 */
+	private void recordAffixes(final StemmingStage stage, final String before, final String after, final StemResult result)
+	{
+		try {
+			recordAffixesOf(stage, before, after, result);
+		} catch (final RuntimeException e) {
+			// the breakdown is best effort and must never change the root
+			log.debug("Failed to attribute {} change from {} to {}", stage, before, after, e);
+		}
+	}
+
+	private void recordAffixesOf(final StemmingStage stage, final String before, final String after,
+			final StemResult result)
+	{
+		switch (stage) {
+		case ORDINALS:
+			recordOrdinal(before, after, result.lexicon().ordinals(), result);
+			break;
+		case NUMBERS:
+			if (after.length() < before.length()) {
+				result.suffix(before.substring(after.length()));
+			}
+			break;
+		case I_PREFIX:
+			final boolean iRemoved = before.length() > 2 && before.startsWith("i") && isVowel(before.charAt(1)) && isConsonant(
+					before.charAt(2));
+			if (iRemoved) {
+				result.prefix("i");
+			}
+			final int base = iRemoved ? 1 : 0;
+			if (after.length() < before.length() - base || !before.startsWith(after, base)) {
+				result.suffix(removedSuffix(before, base, after));
+			}
+			break;
+		case DUPLICATION:
+			recordDuplication(before, after, result);
+			break;
+		case REPETITION:
+		case STEMMED:
+			result.syncRepetitions();
+			break;
+		case REPEATING_SUBSTRINGS:
+			result.repeat(removedPair(before));
+			break;
+		case R_BETWEEN_VOWELS:
+			result.repeat(before.substring(1, 3));
+			break;
+		case PREFIX_D_TO_R:
+			recordSwappedPrefix(D_TO_R_PREFIXES, 'r', before, after, result);
+			break;
+		case PREFIX_PB_TO_M:
+			recordSwappedPrefix(PB_TO_M_PREFIXES, 'm', before, after, result);
+			break;
+		case PREFIX_SDT_TO_N:
+			recordSwappedPrefix(SDT_TO_N_PREFIXES, 'n', before, after, result);
+			break;
+		case PREFIX_K_TO_NG:
+			// ma-, na- or pa- with the k of the root turned into ng
+			result.prefix(before.substring(0, after.equals(before.substring(3)) ? 3 : 4));
+			break;
+		case PREFIX:
+			recordPrefix(before, after, result);
+			break;
+		case INFIX:
+			result.infix(before.substring(1, 1 + before.length() - after.length()));
+			break;
+		case SUFFIX:
+			result.suffix(removedSuffix(before, 0, after));
+			break;
+		default:
+			break;
+		}
+	}
+
+	private static void recordOrdinal(final String before, final String after, final Map<String, String> ordinals,
+			final StemResult result)
+	{
+		if (before.startsWith("pangatlo")) {
+			result.prefix("pang");
+			return;
+		}
+		result.prefix("ika");
+		String number = before.substring(3);
+		if (number.startsWith("labing") || number.startsWith("labin")) {
+			result.prefix(number.startsWith("labing") ? "labing" : "labin");
+			number = number.replace("-", "").substring(6);
+		}
+		for (final Map.Entry<String, String> entry : ordinals.entrySet()) {
+			if (number.startsWith(entry.getKey())) {
+				result.suffix(number.substring(entry.getKey().length()));
+				return;
+			}
+		}
+	}
+
+	private static void recordDuplication(final String before, final String after, final StemResult result)
+	{
+		if (before.startsWith(after + "-")) {
+			result.duplication(before.substring(after.length() + 1));
+		} else if (before.endsWith("-" + after)) {
+			result.duplication(before.substring(0, before.length() - after.length() - 1));
+		} else {
+			result.cleaner("-");
+		}
+	}
+
+	private static void recordPrefix(final String before, final String after, final StemResult result)
+	{
+		if (before.startsWith("panganga") && after.startsWith("ka") && before.regionMatches(8, after, 2, after.length() - 2)) {
+			result.prefix("panganga");
+		} else if (before.indexOf('-') >= 0 && before.startsWith(after)) {
+			// only trailing hyphens were dropped
+			result.cleaner("-");
+		} else if (before.endsWith(after)) {
+			final String removed = before.substring(0, before.length() - after.length());
+			if (removed.endsWith("-")) {
+				result.prefix(removed.substring(0, removed.length() - 1));
+				result.cleaner("-");
+			} else {
+				result.prefix(removed);
+			}
+		} else {
+			final int hyphen = before.indexOf('-');
+			result.prefix(hyphen > 0 ? before.substring(0, hyphen) : before.substring(0, before.length() - after.length()));
+			result.cleaner("-");
+		}
+	}
+
+	/**
+	 * Records the prefix of a rule that also restores the first letter of the root, and the suffix it may have removed too.
+	 */
+	private static void recordSwappedPrefix(final AffixTrie prefixes, final char marker, final String before,
+			final String after, final StemResult result)
+	{
+		for (int index = prefixes.next(before, -1); index != -1; index = prefixes.next(before, index)) {
+			final String prefix = prefixes.affix(index);
+			final int start = prefix.length();
+			if (start < before.length() && before.charAt(start) == marker && after.length() <= before.length() - start + 1) {
+				final String suffix = removedSuffix(before, start, after);
+				if (before.regionMatches(start + 1, after, 1, after.length() - 1) || suffix.equals("ita")) {
+					result.prefix(prefix);
+					result.suffix(suffix);
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * The suffix removed from {@code before[from..]} to give {@code after}, ignoring the first letter, which a rule may have
+	 * restored. {@link #cleanSuffix(String, Lexicon)} turns {@code -ita} into {@code -a}.
+	 */
+	private static String removedSuffix(final String before, final int from, final String after)
+	{
+		final int end = from + after.length();
+		if (end <= before.length() && before.regionMatches(from + 1, after, 1, after.length() - 1)) {
+			return before.substring(end);
+		}
+		return before.endsWith("ita") ? "ita" : "";
+	}
+
+	/**
+	 * The pair {@link #cleanRepeatingSubstrings(String, Lexicon)} deletes from {@code before}.
+	 */
+	private static String removedPair(final String before)
+	{
+		for (int i = 1; i < before.length(); i++) {
+			final char first = before.charAt(i - 1);
+			if ((first == 'm' || first == 'n') && containsRepeatedPair(before, first, before.charAt(i))) {
+				return before.substring(i - 1, i + 1);
+			}
+		}
+		return "";
+	}
+
+	private String cleanRBetweenVowels(String token)
+	{
+		if (token.length() > 4 && token.startsWith("d") && isVowel(token.charAt(1)) && token.charAt(2) == 'r' && isVowel(
+				token.charAt(3))) {
+			token = token.charAt(0) + token.substring(3);
+			return token;
+		}
+		return token;
+	}
+
+	private String cleanOrdinals(final String token, final Lexicon lexicon)
+	{
+		if (lexicon.isRoot(token)) {
+			return token;
+		}
+
+		if (token.startsWith("pangatlo")) {
+			return "tatlo";
+		}
+
+		if (token.startsWith("ika") && token.length() > 3) {
+			String potentialRoot = token.substring(3);
+			if (potentialRoot.startsWith("labing") && token.length() > 6) {
+				potentialRoot = potentialRoot.replace("-", "");
+				potentialRoot = potentialRoot.substring(6);
+			}
+			if (potentialRoot.startsWith("labin") && token.length() > 6) {
+				potentialRoot = potentialRoot.replace("-", "");
+				potentialRoot = potentialRoot.substring(6);
+			}
+			for (final Map.Entry<String, String> entry : lexicon.ordinals().entrySet()) {
+				if (potentialRoot.startsWith(entry.getKey())) {
+					return entry.getValue();
+				}
+			}
+		}
+		return token;
+	}
+
+	private String cleanNumbers(final String token, final Lexicon lexicon)
+	{
+		if (lexicon.isRoot(token)) {
+			return token;
+		}
+
+		for (final Map.Entry<String, String> entry : lexicon.numbers().entrySet()) {
+			if (token.startsWith(entry.getKey())) {
+				return entry.getValue();
+			}
+		}
+		return token;
+	}
+
+	private String cleanDuplication(final String token, final Lexicon lexicon)
+	{
+		if (lexicon.isRoot(token)) {
+			return token;
+		}
+
+		if (token.contains("-") && token.indexOf("-") != 0 && token.indexOf("-") != token.length() - 1) {
+			final String[] split = token.split("-");
+			if (Arrays.stream(split).allMatch(s -> s.length() >= 3)) {
+				final String partOne = split[0];
+				final String partTwo = split[1];
+				if (partOne.equals(String.valueOf(token.charAt(1))) //
+						|| (partOne.endsWith("u") && swapCharAt(partOne, 'o', -1).equals(partTwo)) //
+						|| (partOne.endsWith("u") && swapCharAt(partOne, 'o', -2).equals(partTwo)) //
+						|| partTwo.length() <= partOne.length() && partOne.contains(partTwo)) {
+					return partOne;
+				} else if (partOne.length() <= partTwo.length() && partOne.equals(partTwo.substring(0, partOne.length()))) {
+					return partOne;
+				} else if (partOne.endsWith("ng")) {
+					if (partOne.charAt(partOne.length() - 3) == 'u' && ((partOne.substring(0, partOne.length() - 3) + "o").equals(
+							partTwo))) {
+						return partTwo;
+					}
+					if (partOne.substring(0, partOne.length() - 2).equals(partTwo)) {
+						return partTwo;
+					}
+				} else if (partTwo.endsWith("ng")) {
+					if (partTwo.charAt(partTwo.length() - 3) == 'u' && ((partTwo.substring(0, partTwo.length() - 3) + "o").equals(
+							partOne))) {
+						return partOne;
+					}
+					if (partTwo.substring(0, partTwo.length() - 2).equals(partOne)) {
+						return partOne;
+					}
+				}
+			} else {
+				return String.join("-", split);
+			}
+		}
+		return token;
+	}
+
+	private String cleanRepetition(final String token, final List<String> repetitionList, final Lexicon lexicon)
+	{
+		if (lexicon.isRoot(token)) {
+			return token;
+		}
+
+		if (token.length() >= 4) {
+			if (isVowel(token.charAt(0))) {
+				if (token.charAt(0) == token.charAt(1)) {
+					repetitionList.add(String.valueOf(token.charAt(0)));
+					return token.substring(1);
+				}
+			} else if (isConsonant(token.charAt(0)) && countVowel(token) >= 2) {
+				if (token.regionMatches(0, token, 2, 2) && token.length() - 2 >= 4) {
+					repetitionList.add(token.substring(2, 4));
+					return token.substring(2);
+				} else if (token.length() - 3 >= 4 && token.regionMatches(0, token, 3, 3)) {
+					repetitionList.add(token.substring(3, 6));
+					return token.substring(3);
+				}
+			}
+		}
+		return token;
+	}
+
+	String cleanRepeatingSubstrings(String token, final Lexicon lexicon)
+	{
+		if (lexicon.isRoot(token)) {
+			return token;
+		}
+
+		if (token.length() % 2 != 0) {
+			return token;
+		}
+
+		for (int i = 1; i < token.length(); i++) {
+			final char first = token.charAt(i - 1);
+			if (first == 'm' || first == 'n') {
+				if (containsRepeatedPair(token, first, token.charAt(i))) {
+					token = token.substring(0, i - 1) + token.substring(i + 1);
+					return token;
+				}
+			}
+		}
+		return token;
+	}
+
+	String cleanPrefix(final String token, final Lexicon lexicon)
+	{
+		if (lexicon.isRoot(token)) {
+			return token;
+		}
+
+		if (token.indexOf('-') >= 0) {
+			return cleanHyphenatedPrefix(token);
+		}
+
+		for (int index = PREFIXES.next(token, -1); index != -1; index = PREFIXES.next(token, index)) {
+			final String prefix = PREFIXES.affix(index);
+			if (token.length() - prefix.length() >= 3 && countVowel(token, prefix.length(), token.length()) >= 2) {
+				if (prefix.equals("i") && isConsonant(token.charAt(2))) {
+					continue;
+				}
+				if (prefix.equals("panganga")) {
+					return "ka" + token.substring(prefix.length());
+				}
+				return token.substring(prefix.length());
+			}
+		}
+		return token;
+	}
+
+	/**
+	 * Scans all prefixes in order: splitting and re-joining a hyphenated token drops trailing hyphens as soon as the first
+	 * prefix passes the length check, which affects the checks of every later prefix.
+	 */
+	private String cleanHyphenatedPrefix(String token)
+	{
+		for (final String prefix : PREFIX_SET) {
+			if (token.length() - prefix.length() >= 3 && countVowel(token, prefix.length(), token.length()) >= 2) {
+				if (prefix.equals("i") && isConsonant(token.charAt(2))) {
+					continue;
+				}
+				if (token.contains("-")) {
+					final String[] tokenParts = token.split("-");
+					if (tokenParts[0].equals(prefix) && isVowel(tokenParts[1].charAt(0))) {
+						return tokenParts[1];
+					}
+					token = String.join("-", tokenParts);
+				}
+
+				if (token.startsWith(prefix) && (countVowel(token, prefix.length(), token.length()) >= 2)) {
+					if (prefix.equals("panganga")) {
+						return "ka" + token.substring(prefix.length());
+					}
+					return token.substring(prefix.length());
+				}
+			}
+		}
+		return token;
+	}
+
+	private String cleanIPrefix(String token, final Lexicon lexicon)
+	{
+		if (token.length() > 2 && token.startsWith("i") && isVowel(token.charAt(1)) && isConsonant(token.charAt(2))) {
+			token = token.substring(1);
+		}
+		final String potentialCleanedSuffixForm = cleanSuffix(token, lexicon);
+		if (lexicon.isRoot(potentialCleanedSuffixForm)) {
+			return potentialCleanedSuffixForm;
+		}
+		return token;
+	}
+
+	private String cleanPrefixWithPBtoM(final String token, final Lexicon lexicon)
+	{
+		if (lexicon.isRoot(token)) {
+			return token;
+		}
+
+		if (token.length() - 2 >= 3 && countVowel(token, 2, token.length()) >= 2) {
+			for (int index = PB_TO_M_PREFIXES.next(token, -1); index != -1; index = PB_TO_M_PREFIXES.next(token, index)) {
+				final String prefix = PB_TO_M_PREFIXES.affix(index);
+				if (token.charAt(prefix.length()) == 'm') {
+					final int from = prefix.length();
+					if (lexicon.isRoot(token, from, token.length())) {
+						return token.substring(from);
+					}
+					final String potentialFormSwapP = revertToRoot(token, from, 'p', lexicon);
+					if (potentialFormSwapP != null) {
+						return potentialFormSwapP;
+					}
+					final String potentialFormSwapB = revertToRoot(token, from, 'b', lexicon);
+					if (potentialFormSwapB != null) {
+						return potentialFormSwapB;
+					}
+				}
+			}
+		}
+		return token;
+	}
+
+	/**
+	 * Restores {@code potentialChar} as the first letter of the root {@code token[from..]}, which the caller found not to be
+	 * a root as it is, and returns the root, with or without a suffix, or {@code null} if neither is known.
+	 */
+	private String revertToRoot(final String token, final int from, final char potentialChar, final Lexicon lexicon)
+	{
+		final String potentialForm = replaceFirst(token, from, potentialChar);
+		if (lexicon.isRoot(potentialForm)) {
+			return potentialForm;
+		}
+		final String potentialFormWithoutSuffix = cleanSuffix(potentialForm, lexicon);
+		if (lexicon.isRoot(potentialFormWithoutSuffix)) {
+			return potentialFormWithoutSuffix;
+		}
+		return null;
+	}
+
+	private String cleanPrefixWithSDTtoN(final String token, final Lexicon lexicon)
+	{
+		if (lexicon.isRoot(token)) {
+			return token;
+		}
+
+		if (token.length() - 2 >= 3 && countVowel(token, 2, token.length()) >= 2) {
+			for (int index = SDT_TO_N_PREFIXES.next(token, -1); index != -1; index = SDT_TO_N_PREFIXES.next(token, index)) {
+				final String prefix = SDT_TO_N_PREFIXES.affix(index);
+				if (token.charAt(prefix.length()) == 'n') {
+					final int from = prefix.length();
+					if (lexicon.isRoot(token, from, token.length())) {
+						return token.substring(from);
+					}
+					final String potentialFormSwapS = revertToRoot(token, from, 's', lexicon);
+					if (potentialFormSwapS != null) {
+						return potentialFormSwapS;
+					}
+					final String potentialFormSwapD = revertToRoot(token, from, 'd', lexicon);
+					if (potentialFormSwapD != null) {
+						return potentialFormSwapD;
+					}
+					final String potentialFormSwapT = revertToRoot(token, from, 't', lexicon);
+					if (potentialFormSwapT != null) {
+						return potentialFormSwapT;
+					}
+				}
+			}
+		}
+		return token;
+	}
+
+	private String cleanPrefixWithDbecomesR(final String token, final Lexicon lexicon)
+	{
+		if (lexicon.isRoot(token)) {
+			return token;
+		}
+
+		if (token.length() - 2 >= 3 && countVowel(token, 2, token.length()) >= 2) {
+			for (int index = D_TO_R_PREFIXES.next(token, -1); index != -1; index = D_TO_R_PREFIXES.next(token, index)) {
+				final String prefix = D_TO_R_PREFIXES.affix(index);
+				if (token.charAt(prefix.length()) == 'r') {
+					final int from = prefix.length();
+					if (lexicon.isRoot(token, from, token.length())) {
+						return token.substring(from);
+					}
+					final String potentialFormSwapS = revertToRoot(token, from, 'd', lexicon);
+					if (potentialFormSwapS != null) {
+						return potentialFormSwapS;
+					}
+				}
+			}
+		}
+		return token;
+	}
+
+	private String cleanPrefixWithKtoNg(final String token, final Lexicon lexicon)
+	{
+		if (lexicon.isRoot(token)) {
+			return token;
+		}
+		if (token.length() - 2 >= 3 && countVowel(token, 2, token.length()) >= 2) {
+			if ((token.startsWith("ma") || token.startsWith("na") || token.startsWith("pa")) //
+					&& token.charAt(2) == 'n' && token.charAt(3) == 'g') {
+				if (lexicon.isRoot(token, 3, token.length())) {
+					return token.substring(3);
+				}
+				final String potentialForm = replaceFirst(token, 3, 'k');
+				if (lexicon.isRoot(potentialForm)) {
+					return potentialForm;
+				}
+			}
+		}
+		return token;
+	}
+
+	private String cleanInfix(final String token, final Lexicon lexicon)
+	{
+		if (lexicon.isRoot(token)) {
+			return token;
+		}
+
+		for (final String infix : INFIXES) {
+			if (token.length() - infix.length() >= 3 && countVowel(token, infix.length(), token.length()) >= 2) {
+				if (token.charAt(0) == token.charAt(4) && token.regionMatches(1, infix, 0, 3)) {
+					return token.substring(4);
+				} else if (token.charAt(2) == token.charAt(4) && token.startsWith(infix, 1) //
+						|| token.startsWith(infix, 1) && isVowel(token.charAt(3))) {
+					return token.charAt(0) + token.substring(3);
+				}
+			}
+		}
+		return token;
+	}
+
+	String cleanSuffix(final String token, final Lexicon lexicon)
+	{
+		if (lexicon.isRoot(token)) {
+			return token;
+		}
+
+		if (token.contains("syon") && token.endsWith("ng") && lexicon.isRoot(token, 0, token.length() - 1)) {
+			return token.substring(0, token.length() - 1);
+		}
+
+		// candidates are probed on the token itself; only the chosen root is copied out
+		int fallback = -1;
+		for (int index = SUFFIXES.next(token, -1); index != -1; index = SUFFIXES.next(token, index)) {
+			final String suffix = SUFFIXES.affix(index);
+			final int end = token.length() - suffix.length();
+			if (end >= 3 && countVowel(token, 0, end) >= 2) {
+				if (suffix.length() == 2 && countConsonant(token, 0, end) < 1) {
+					continue;
+				}
+				if (suffix.equals("ang") && isConsonantRun(token, token.length() - 4, token.length()) && token.charAt(
+						token.length() - 4) != 'r' && token.charAt(token.length() - 5) != 'u') {
+					continue;
+				}
+
+				if (lexicon.isRoot(token, 0, end)) {
+					return withoutSuffix(token, suffix);
+				} else if (fallback == -1) {
+					fallback = index;
+				}
+			}
+		}
+
+		if (fallback != -1) {
+			return withoutSuffix(token, SUFFIXES.affix(fallback));
+		}
+
+		return token;
+	}
+
+	/**
+	 * {@code token} without {@code suffix}, turning {@code -ita} into {@code -a}.
+	 */
+	private static String withoutSuffix(final String token, final String suffix)
+	{
+		final String root = token.substring(0, token.length() - suffix.length());
+		return suffix.equals("ita") ? root + 'a' : root;
+	}
+
+	static boolean isVowel(final char letter)
+	{
+		return letter < CHAR_CLASSES.length && CHAR_CLASSES[letter] == VOWEL;
+	}
+
+	static boolean isConsonant(final char character)
+	{
+		return character < CHAR_CLASSES.length && CHAR_CLASSES[character] == CONSONANT;
+	}
+
+	/**
+	 * Whether {@code token[from, to)} occurs in {@link #CONSONANTS}, e.g. {@code "ng"} but not {@code "nk"}.
+	 */
+	private static boolean isConsonantRun(final String token, final int from, final int to)
+	{
+		final int length = to - from;
+		for (int i = 0; i + length <= CONSONANTS.length(); i++) {
+			if (CONSONANTS.regionMatches(i, token, from, length)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int countVowel(final String token)
+	{
+		return countVowel(token, 0, token.length());
+	}
+
+	static int countVowel(final String token, final int from, final int to)
+	{
+		int count = 0;
+		for (int i = from; i < to; i++) {
+			if (isVowel(token.charAt(i))) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static int countConsonant(final String token, final int from, final int to)
+	{
+		int count = 0;
+		for (int i = from; i < to; i++) {
+			if (isConsonant(token.charAt(i))) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Whether {@code token} contains {@code first second first second}.
+	 */
+	private static boolean containsRepeatedPair(final String token, final char first, final char second)
+	{
+		for (int i = 0; i + 4 <= token.length(); i++) {
+			if (token.charAt(i) == first && token.charAt(i + 1) == second && token.charAt(i + 2) == first
+					&& token.charAt(i + 3) == second) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * {@code token[from..]} with its first letter replaced by {@code letter}.
+	 */
+	private static String replaceFirst(final String token, final int from, final char letter)
+	{
+		final char[] chars = new char[token.length() - from];
+		token.getChars(from, token.length(), chars, 0);
+		chars[0] = letter;
+		return new String(chars);
+	}
+
+	private String swapCharAt(final String token, final char letter, final int index)
+	{
+		final char[] charArray = token.toCharArray();
+		if (index < 0) {
+			charArray[(charArray.length + index)] = letter;
+			return new String(charArray);
+		}
+		charArray[index] = letter;
+		return new String(charArray);
+	}
+
+	String cleanStemmed(String token, final List<String> cleaners, final List<String> repetition, final Lexicon lexicon)
+	{
+		if (isBlank(token) || lexicon.isRoot(token)) {
+			return token;
+		}
+
+		if (!isVowel(token.charAt(token.length() - 1)) && !isConsonant(token.charAt(token.length() - 1))) {
+			cleaners.add(String.valueOf(token.charAt(token.length() - 1)));
+			token = token.substring(0, token.length() - 1);
+		}
+
+		if (token.length() <= 1) {
+			return token;
+		}
+
+		if (!isVowel(token.charAt(0)) && !isConsonant(token.charAt(0))) {
+			cleaners.add(String.valueOf(token.charAt(0)));
+			token = token.substring(1);
+		}
+
+		if (lexicon.isRoot(token)) {
+			return token;
+		}
+
+		if (token.length() >= 3 && countVowel(token) >= 2) {
+			token = cleanRepetition(token, repetition, lexicon);
+
+			if (isConsonant(token.charAt(token.length() - 1)) && token.charAt(token.length() - 2) == 'u') {
+				cleaners.add("u");
+				token = swapCharAt(token, 'o', token.length() - 2);
+			}
+
+			if (token.endsWith("u")) {
+				cleaners.add("u");
+				token = swapCharAt(token, 'o', token.length() - 1);
+			}
+
+			if (token.endsWith("r")) {
+				cleaners.add("r");
+				token = swapCharAt(token, 'd', token.length() - 1);
+			}
+
+			if (token.endsWith("h") && isVowel(token.charAt(token.length() - 1))) {
+				cleaners.add("h");
+				token = token.substring(0, token.length() - 1);
+			}
+
+			if (token.charAt(0) == token.charAt(1)) {
+				cleaners.add(String.valueOf(token.charAt(0)));
+				token = token.substring(1);
+			}
+
+			if ((token.startsWith("ka") || token.startsWith("pa")) && isConsonant(token.charAt(2)) && countVowel(
+					token) >= 3) {
+				cleaners.add(token.substring(0, 2));
+				token = token.substring(2);
+			}
+
+			if (token.endsWith("han") && countVowel(token, 0, token.length() - 3) == 1) {
+				cleaners.add("han");
+				token = token.substring(0, token.length() - 3) + "i";
+			}
+
+			if (token.endsWith("han") && countVowel(token, 0, token.length() - 3) > 1) {
+				cleaners.add("han");
+				token = token.substring(0, token.length() - 3);
+			}
+
+			if (token.length() >= 2 && countVowel(token) >= 3 && (token.endsWith("h") && isVowel(
+					token.charAt(token.length() - 2)))) {
+				cleaners.add("h");
+				token = token.substring(0, token.length() - 1);
+
+			}
+
+			if (token.length() >= 6 && token.regionMatches(0, token, 2, 2)) {
+				cleaners.add("0:2");
+				token = token.substring(2);
+			}
+
+			for (final String REP : repetition) {
+				if (REP.charAt(0) == 'r') {
+					cleaners.add("r");
+					token = swapCharAt(token, 'd', 0);
+				}
+			}
+
+			if (token.endsWith("ng") && token.charAt(token.length() - 3) == 'u') {
+				cleaners.add("u");
+				token = swapCharAt(token, 'o', token.length() - 3);
+			}
+
+			if (token.endsWith("h")) {
+				cleaners.add("h");
+				token = token.substring(0, token.length() - 1);
+			}
+
+			if (token.startsWith("i") && isVowel(token.charAt(1)) && isConsonant(token.charAt(2))) {
+				token = token.substring(1);
+			}
+
+			final String head = token.substring(0, 2);
+			if (!EXCEPTIONS.contains(head) && isConsonantRun(head, 0, 2)) {
+				cleaners.add(token.substring(0, 2));
+				token = token.substring(1);
+			}
+		}
+		return token;
+	}
+
+	private boolean isProtected(final String token)
+	{
+		if (protectedWords == null || !lexicon(protectedWords).roots().contains(token)) {
+			return false;
+		}
+		protectedTokens.increment();
+		return true;
+	}
+
+	private boolean isProtected(final char[] buffer, final int length)
+	{
+		if (protectedWords == null || !lexicon(protectedWords).roots().contains(buffer, 0, length)) {
+			return false;
+		}
+		protectedTokens.increment();
+		return true;
+	}
+
+	/**
+	 * The latest published version of the dictionary, loading the first one if necessary.
+	 */
+	Lexicon lexicon()
+	{
+		return lexicon(dictionarySource);
+	}
+
+	private Lexicon lexicon(final DictionarySource source)
+	{
+		final Lexicon current = source.current();
+		if (current != null) {
+			return current;
+		}
+		try {
+			return source.load(loadExecutor).join();
+		} catch (final CompletionException e) {
+			throw new IllegalStateException("Failed to load " + source, e.getCause());
+		}
+	}
+
+	private boolean usesInflections(final Lexicon lexicon)
+	{
+		return inflections != null && inflections.rootChecksum() == lexicon.roots().checksum();
+	}
+
+	/**
+	 * Tells the inflection table in use apart in cache snapshots; 0 if there is none.
+	 */
+	private long inflectionsChecksum(final Lexicon lexicon)
+	{
+		return usesInflections(lexicon) ? inflections.checksum() : 0;
+	}
+
+	private int stageMask()
+	{
+		int mask = 0;
+		for (final StemmingStage stage : stages) {
+			mask |= 1 << stage.ordinal();
+		}
+		// the engine changes results just like the stages do
+		if (engine == StemmingEngine.LATTICE) {
+			mask |= 1 << 31;
+		}
+		return mask;
+	}
+
+	private StemCache requireCache()
+	{
+		if (cache == null) {
+			throw new IllegalStateException("The stemmer has no cache");
+		}
+		return cache;
+	}
+
+	private void warmCache(final Path snapshot)
+	{
+		if (!Files.exists(snapshot)) {
+			log.info("No stem cache snapshot at {}, starting cold", snapshot);
+			return;
+		}
+		try {
+			loadCacheSnapshot(snapshot);
+		} catch (final IOException | RuntimeException e) {
+			log.warn("Failed to load stem cache snapshot {}", snapshot, e);
+		}
+	}
+
+	private static boolean isBlank(final String str)
+	{
+		final int strLen;
+		if (str == null || (strLen = str.length()) == 0) {
+			return true;
+		}
+		for (int i = 0; i < strLen; i++) {
+			if ((!Character.isWhitespace(str.charAt(i)))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isBlank(final char[] buffer, final int length)
+	{
+		for (int i = 0; i < length; i++) {
+			if ((!Character.isWhitespace(buffer[i]))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public static final class Builder
+	{
+		private DictionarySource dictionarySource = DictionarySource.defaultSource();
+
+		private DictionarySource protectedWords;
+
+		private InflectionTable inflections;
+
+		private Executor loadExecutor;
+
+		private StemCache cache;
+
+		private StemmingListener listener;
+
+		private Path cacheSnapshot;
+
+		private StemmingEngine engine = StemmingEngine.PIPELINE;
+
+		private Set<StemmingStage> stages = EnumSet.allOf(StemmingStage.class);
+
+		private Builder()
+		{
+		}
+
+		/**
+		 * Root words to stem against; defaults to {@link DictionarySource#defaultSource()}.
+		 */
+		public Builder dictionary(final DictionarySource dictionarySource)
+		{
+			this.dictionarySource = Objects.requireNonNull(dictionarySource, "dictionarySource");
+			return this;
+		}
+
+		/**
+		 * Words returned unchanged, in any case, without stemming, such as the personal, company and place names of name
+		 * screening; none by default. They are checked before the dictionary and the cache, and counted by
+		 * {@link TagalogStemmer#protectedTokens()}. The source is loaded like the dictionary and can be reloaded;
+		 * {@link DictionarySource#offHeap(Path...)} keeps lists of millions of names out of the heap.
+		 */
+		public Builder protectedWords(final DictionarySource protectedWords)
+		{
+			this.protectedWords = Objects.requireNonNull(protectedWords, "protectedWords");
+			return this;
+		}
+
+		/**
+		 * Protects the given words; see {@link #protectedWords(DictionarySource)}.
+		 */
+		public Builder protectedWords(final Collection<String> protectedWords)
+		{
+			return protectedWords(DictionarySource.of(protectedWords));
+		}
+
+		/**
+		 * Answers the forms in {@code inflections}, such as {@link InflectionTable#bundled()}, from the table before running
+		 * the engine, or not at all if {@code null}, the default. Hits are counted by
+		 * {@link TagalogStemmer#inflectionHits()}; {@link TagalogStemmer#analyze(String)} reports no affixes for them.
+		 * <p>
+		 * The table is only used while the dictionary has the roots it was generated from, which for the bundled table is
+		 * the default dictionary; see {@link TagalogStemmer#usesInflections()}. For another dictionary, generate a table
+		 * from its roots with {@link InflectionTable#generate(Collection)}, and again whenever the dictionary is reloaded
+		 * with other roots.
+		 */
+		public Builder inflections(final InflectionTable inflections)
+		{
+			this.inflections = inflections;
+			return this;
+		}
+
+		/**
+		 * Memoizes up to {@code cacheSize} results.
+		 */
+		public Builder cacheSize(final int cacheSize)
+		{
+			return cache(new StemCache(cacheSize));
+		}
+
+		/**
+		 * Memoizes results in {@code cache}, or not at all if {@code null}.
+		 */
+		public Builder cache(final StemCache cache)
+		{
+			this.cache = cache;
+			return this;
+		}
+
+		public Builder listener(final StemmingListener listener)
+		{
+			this.listener = listener;
+			return this;
+		}
+
+		/**
+		 * Runs only the given stages, in their usual order; defaults to all of them. Leaving out stages trades accuracy for
+		 * throughput.
+		 */
+		public Builder stages(final Set<StemmingStage> stages)
+		{
+			this.stages = EnumSet.noneOf(StemmingStage.class);
+			this.stages.addAll(stages);
+			return this;
+		}
+
+		/**
+		 * Stems with {@code engine}; defaults to {@link StemmingEngine#PIPELINE}. The stages only apply to the pipeline, which
+		 * the {@link StemmingEngine#LATTICE} falls back to for tokens it finds no known root for.
+		 */
+		public Builder engine(final StemmingEngine engine)
+		{
+			this.engine = Objects.requireNonNull(engine, "engine");
+			return this;
+		}
+
+		/**
+		 * Warms the cache from a snapshot saved with {@link #saveCacheSnapshot(Path, int)} once the dictionary is loaded. A
+		 * missing, unreadable or stale snapshot is logged and skipped. Requires a cache.
+		 */
+		public Builder cacheSnapshot(final Path snapshot)
+		{
+			this.cacheSnapshot = Objects.requireNonNull(snapshot, "snapshot");
+			return this;
+		}
+
+		/**
+		 * Starts loading the dictionary on the common fork-join pool as soon as the stemmer is built instead of on first use.
+		 */
+		public Builder loadInBackground()
+		{
+			return loadInBackground(ForkJoinPool.commonPool());
+		}
+
+		/**
+		 * Starts loading the dictionary on {@code executor} as soon as the stemmer is built instead of on first use.
+		 */
+		public Builder loadInBackground(final Executor executor)
+		{
+			this.loadExecutor = Objects.requireNonNull(executor, "executor");
+			return this;
+		}
+
+		public TagalogStemmer build()
+		{
+			if (cacheSnapshot != null && cache == null) {
+				throw new IllegalStateException("A cache snapshot requires a cache");
+			}
+			return new TagalogStemmer(this);
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package com.smartkyc.stemmers.tagalog;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+/**
+ * Stems running text read incrementally from a {@link Reader} or {@link InputStream}.
+ * <p>
+ * Text is split into words by a streaming tokenizer that keeps hyphenated reduplications such as {@code kahuli-hulihang}
+ * together and drops surrounding punctuation, and each word is emitted with its root in input order. Only the current
+ * word is held in memory, so inputs of any size can be processed. The caller owns and closes the reader.
+ * <p>
+ * Words are passed to {@link TagalogStemmer#stem(String)} as written, which normalizes them once, so words that already
+ * are roots or protected words come back as written too.
+ */
+public final class TagalogTextStemmer
+{
+	private final TagalogStemmer stemmer;
+
+	public TagalogTextStemmer()
+	{
+		this(new TagalogStemmer());
+	}
+
+	public TagalogTextStemmer(final TagalogStemmer stemmer)
+	{
+		this.stemmer = stemmer;
+	}
+
+	/**
+	 * Passes every word of {@code reader} and its root to {@code consumer}.
+	 */
+	public void stem(final Reader reader, final BiConsumer<String, String> consumer) throws IOException
+	{
+		final TextTokenizer tokenizer = new TextTokenizer(reader);
+		String word;
+		while ((word = tokenizer.next()) != null) {
+			consumer.accept(word, stemmer.stem(word));
+		}
+	}
+
+	/**
+	 * Passes every word of the UTF-8 encoded {@code stream} and its root to {@code consumer}.
+	 */
+	public void stem(final InputStream stream, final BiConsumer<String, String> consumer) throws IOException
+	{
+		stem(new InputStreamReader(stream, StandardCharsets.UTF_8), consumer);
+	}
+
+	/**
+	 * Returns a lazy iterator over the words of {@code reader} and their roots. Read errors are rethrown as
+	 * {@link UncheckedIOException}.
+	 */
+	public Iterator<StemmedWord> iterator(final Reader reader)
+	{
+		final TextTokenizer tokenizer = new TextTokenizer(reader);
+		return new Iterator<StemmedWord>()
+		{
+			private String next = advance();
+
+			@Override
+			public boolean hasNext()
+			{
+				return next != null;
+			}
+
+			@Override
+			public StemmedWord next()
+			{
+				if (next == null) {
+					throw new NoSuchElementException();
+				}
+				final String word = next;
+				next = advance();
+				return new StemmedWord(word, stemmer.stem(word));
+			}
+
+			private String advance()
+			{
+				try {
+					return tokenizer.next();
+				} catch (final IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+		};
+	}
+}
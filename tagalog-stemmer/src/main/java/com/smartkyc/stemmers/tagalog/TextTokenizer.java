@@ -0,0 +1,78 @@
+package com.smartkyc.stemmers.tagalog;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Incremental word tokenizer for Tagalog text.
+ * <p>
+ * A word is a run of letters and digits; a hyphen joins two such runs, so reduplications like {@code kahuli-hulihang}
+ * and forms like {@code pag-aalaga} stay one word while punctuation around words ({@code ina.}) is dropped. Unicode
+ * hyphens and dashes join runs like the ASCII hyphen does, and soft hyphens, zero-width characters and combining marks
+ * are kept within a word for {@link TokenNormalizer} to drop. Input is read
+ * through a fixed size buffer and words longer than {@link #MAX_WORD_LENGTH} are split, so memory use does not depend on
+ * the size of the input.
+ */
+final class TextTokenizer
+{
+	static final int MAX_WORD_LENGTH = 255;
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final Reader reader;
+
+	private final char[] buffer = new char[BUFFER_SIZE];
+
+	private final StringBuilder word = new StringBuilder();
+
+	private int position;
+
+	private int limit;
+
+	TextTokenizer(final Reader reader)
+	{
+		this.reader = reader;
+	}
+
+	/**
+	 * Returns the next word, or {@code null} at the end of the input.
+	 */
+	String next() throws IOException
+	{
+		word.setLength(0);
+		boolean pendingHyphen = false;
+		int c;
+		while ((c = read()) != -1) {
+			if (Character.isLetterOrDigit(c)) {
+				if (pendingHyphen) {
+					word.append('-');
+					pendingHyphen = false;
+				}
+				word.append((char) c);
+				if (word.length() >= MAX_WORD_LENGTH) {
+					break;
+				}
+			} else if (TokenNormalizer.isHyphen(c) && word.length() > 0 && !pendingHyphen) {
+				pendingHyphen = true;
+			} else if (TokenNormalizer.isIgnorable(c) && word.length() > 0 && !pendingHyphen) {
+				word.append((char) c);
+			} else if (word.length() > 0) {
+				break;
+			}
+		}
+		return word.length() == 0 ? null : word.toString();
+	}
+
+	private int read() throws IOException
+	{
+		if (position == limit) {
+			limit = reader.read(buffer, 0, buffer.length);
+			position = 0;
+			if (limit <= 0) {
+				limit = 0;
+				return -1;
+			}
+		}
+		return buffer[position++];
+	}
+}
@@ -0,0 +1,134 @@
+package com.smartkyc.stemmers.tagalog;
+
+import java.text.Normalizer;
+
+/**
+ * Brings a token into the form the stemming rules and the dictionary are written in, once per token.
+ * <ul>
+ * <li>Case is folded character by character with {@link Character#toLowerCase(char)}, which does not depend on the
+ * default locale.</li>
+ * <li>Diacritics are dropped from Latin letters, so {@code Niño} and {@code áso} become {@code nino} and {@code aso};
+ * combining marks of decomposed input are dropped too.</li>
+ * <li>Dashes and non-breaking hyphens become {@code -}, curly apostrophes and quotes become {@code '} and {@code "},
+ * and soft hyphens and zero-width characters are removed.</li>
+ * </ul>
+ * Tokens of lower-case ASCII, the common case, are returned as they are after one pass that only ORs and ANDs the
+ * characters; ASCII tokens with upper case letters are lowered without branching on the individual characters.
+ */
+final class TokenNormalizer
+{
+	private static final char FIRST_LATIN = '\u00C0';
+
+	private static final char LAST_LATIN = '\u024F';
+
+	/**
+	 * Folded form of the characters from {@link #FIRST_LATIN} to {@link #LAST_LATIN}: lower case without diacritics.
+	 */
+	private static final char[] LATIN = new char[LAST_LATIN - FIRST_LATIN + 1];
+
+	private static final char REMOVED = '\uFFFF';
+
+	static {
+		for (char c = FIRST_LATIN; c <= LAST_LATIN; c++) {
+			final char lower = Character.toLowerCase(c);
+			final String decomposed = Normalizer.normalize(String.valueOf(lower), Normalizer.Form.NFD);
+			LATIN[c - FIRST_LATIN] = decomposed.charAt(0) < 0x80 ? decomposed.charAt(0) : lower;
+		}
+	}
+
+	private TokenNormalizer()
+	{
+	}
+
+	static String normalize(final String token)
+	{
+		final int length = token.length();
+		int all = 0;
+		int upper = 0;
+		for (int i = 0; i < length; i++) {
+			final char c = token.charAt(i);
+			all |= c;
+			// negative exactly when c is in A-Z
+			upper |= ('A' - 1 - c) & (c - 'Z' - 1);
+		}
+		if (all < 0x80) {
+			return upper < 0 ? lowerAscii(token) : token;
+		}
+		return normalizeUnicode(token);
+	}
+
+	/**
+	 * Whether {@code c} is written for a hyphen: the ASCII hyphen-minus, or one of the Unicode hyphens and dashes.
+	 */
+	static boolean isHyphen(final int c)
+	{
+		return c == '-' || c >= '\u2010' && c <= '\u2015' || c == '\u2212' || c == '\uFE63' || c == '\uFF0D';
+	}
+
+	/**
+	 * Whether {@code c} is dropped from tokens: soft hyphens, zero-width characters and combining marks.
+	 */
+	static boolean isIgnorable(final int c)
+	{
+		return fold((char) c) == REMOVED;
+	}
+
+	private static String lowerAscii(final String token)
+	{
+		final char[] chars = new char[token.length()];
+		for (int i = 0; i < chars.length; i++) {
+			final char c = token.charAt(i);
+			// 0x20 exactly when c is in A-Z
+			chars[i] = (char) (c | (('A' - 1 - c) & (c - 'Z' - 1)) >>> 31 << 5);
+		}
+		return new String(chars);
+	}
+
+	private static String normalizeUnicode(final String token)
+	{
+		final StringBuilder normalized = new StringBuilder(token.length());
+		for (int i = 0; i < token.length(); i++) {
+			final char folded = fold(token.charAt(i));
+			if (folded != REMOVED) {
+				normalized.append(folded);
+			}
+		}
+		return normalized.toString();
+	}
+
+	private static char fold(final char c)
+	{
+		if (c < 0x80) {
+			return Character.toLowerCase(c);
+		}
+		if (c >= FIRST_LATIN && c <= LAST_LATIN) {
+			return LATIN[c - FIRST_LATIN];
+		}
+		if (isHyphen(c)) {
+			return '-';
+		}
+		switch (c) {
+		case '\u2018':
+		case '\u2019':
+		case '\u201A':
+		case '\u201B':
+		case '\u02BC':
+		case '\u2032':
+			return '\'';
+		case '\u201C':
+		case '\u201D':
+		case '\u201E':
+		case '\u2033':
+			return '"';
+		case '\u00AD':
+		case '\u200B':
+		case '\u200C':
+		case '\u200D':
+		case '\u2060':
+		case '\uFEFF':
+			return REMOVED;
+		default:
+			return Character.getType(c) == Character.NON_SPACING_MARK ? REMOVED : Character.toLowerCase(c);
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AffixTrieTest
+{
+	@Test
+	void testPrefixesInInventoryOrder()
+	{
+		final AffixTrie trie = AffixTrie.prefixes(Arrays.asList("magpapaka", "magpa", "mag", "ma", "pa", "m"));
+
+		assertEquals(Arrays.asList("magpa", "mag", "ma", "m"), matches(trie, "magpakamatay"));
+		assertEquals(Arrays.asList("magpapaka", "magpa", "mag", "ma", "m"), matches(trie, "magpapakamatay"));
+		assertEquals(Collections.singletonList("pa"), matches(trie, "pamatay"));
+		assertEquals(Collections.emptyList(), matches(trie, "kamatay"));
+		assertEquals(Collections.emptyList(), matches(trie, ""));
+	}
+
+	@Test
+	void testSuffixesInInventoryOrder()
+	{
+		final AffixTrie trie = AffixTrie.suffixes(Arrays.asList("han", "ang", "ng", "an", "g"));
+
+		assertEquals(Arrays.asList("ang", "ng", "g"), matches(trie, "malubhang"));
+		assertEquals(Arrays.asList("han", "an"), matches(trie, "kaluguhan"));
+		assertEquals(Collections.emptyList(), matches(trie, "takbo"));
+	}
+
+	@Test
+	void testMoreThan64Affixes()
+	{
+		final List<String> affixes = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			affixes.add("a" + i);
+		}
+		affixes.add("a");
+		final AffixTrie trie = AffixTrie.prefixes(affixes);
+
+		assertEquals(Arrays.asList("a1", "a19", "a199", "a"), matches(trie, "a1999"));
+		assertEquals(Arrays.asList("a7", "a70", "a"), matches(trie, "a70x"));
+		assertEquals(Collections.singletonList("a"), matches(trie, "ab"));
+	}
+
+	@Test
+	void testDuplicateAffix()
+	{
+		assertThrows(IllegalArgumentException.class, () -> AffixTrie.suffixes(Arrays.asList("an", "han", "an")));
+	}
+
+	private static List<String> matches(final AffixTrie trie, final String token)
+	{
+		final List<String> affixes = new ArrayList<>();
+		for (int index = trie.next(token, -1); index != -1; index = trie.next(token, index)) {
+			affixes.add(trie.affix(index));
+		}
+		return affixes;
+	}
+}
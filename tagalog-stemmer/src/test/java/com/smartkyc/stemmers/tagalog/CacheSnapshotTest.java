@@ -0,0 +1,91 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CacheSnapshotTest
+{
+	@Test
+	void testSaveAndLoad(@TempDir final Path directory) throws IOException
+	{
+		final Path snapshot = directory.resolve("stems.snapshot");
+		final TagalogStemmer running = new TagalogStemmer(100);
+		for (int i = 0; i < 3; i++) {
+			running.stem("tumatakbo");
+			running.stem("kumain");
+		}
+		running.stem("pinakamaganda");
+
+		assertEquals(2, running.saveCacheSnapshot(snapshot, 2));
+
+		final StemCache cache = new StemCache(100);
+		final TagalogStemmer restarted = TagalogStemmer.builder().cache(cache).cacheSnapshot(snapshot).build();
+		assertEquals(2, cache.size());
+		assertEquals(running.stem("tumatakbo"), cache.get("tumatakbo"));
+		assertEquals(running.stem("kumain"), cache.get("kumain"));
+		assertNull(cache.get("pinakamaganda"));
+		assertEquals(running.stem("pinakamaganda"), restarted.stem("pinakamaganda"));
+	}
+
+	@Test
+	void testRejectsSnapshotOfAnotherDictionary(@TempDir final Path directory) throws IOException
+	{
+		final Path snapshot = directory.resolve("stems.snapshot");
+		final TagalogStemmer running = new TagalogStemmer(100);
+		running.stem("tumatakbo");
+		running.saveCacheSnapshot(snapshot, 100);
+
+		final TagalogStemmer other = TagalogStemmer.builder().dictionary(DictionarySource.of(Arrays.asList("takbo", "kain")))
+				.cacheSize(100).build();
+		assertEquals(0, other.loadCacheSnapshot(snapshot));
+		final long checksum = other.dictionary().checksum();
+		final int allStages = (1 << StemmingStage.values().length) - 1;
+		assertThrows(CacheSnapshot.StaleSnapshotException.class, () -> CacheSnapshot.read(snapshot, allStages, checksum, 0));
+
+		final TagalogStemmer fewerStages = TagalogStemmer.builder().stages(EnumSet.complementOf(EnumSet.of(StemmingStage.INFIX)))
+				.cacheSize(100).build();
+		assertEquals(0, fewerStages.loadCacheSnapshot(snapshot));
+		assertEquals(1, new TagalogStemmer(100).loadCacheSnapshot(snapshot));
+	}
+
+	@Test
+	void testRejectsSnapshotOfAnotherInflectionTable(@TempDir final Path directory) throws IOException
+	{
+		final Path snapshot = directory.resolve("stems.snapshot");
+		final TagalogStemmer running = TagalogStemmer.builder().inflections(InflectionTable.bundled()).cacheSize(100).build();
+		running.stem("dinagdagan");
+		running.saveCacheSnapshot(snapshot, 100);
+
+		assertEquals(0, new TagalogStemmer(100).loadCacheSnapshot(snapshot));
+		final InflectionTable other = InflectionTable.generate(Arrays.asList("dagdag", "durog"));
+		assertEquals(0, TagalogStemmer.builder().inflections(other).cacheSize(100).build().loadCacheSnapshot(snapshot));
+		assertEquals(1, TagalogStemmer.builder().inflections(InflectionTable.bundled()).cacheSize(100).build()
+				.loadCacheSnapshot(snapshot));
+	}
+
+	@Test
+	void testMissingOrCorruptSnapshot(@TempDir final Path directory) throws IOException
+	{
+		final Path missing = directory.resolve("missing.snapshot");
+		final StemCache cache = new StemCache(10);
+		TagalogStemmer.builder().cache(cache).cacheSnapshot(missing).build();
+		assertEquals(0, cache.size());
+
+		final Path corrupt = directory.resolve("corrupt.snapshot");
+		Files.write(corrupt, "not a snapshot".getBytes(StandardCharsets.UTF_8));
+		assertThrows(IOException.class, () -> new TagalogStemmer(10).loadCacheSnapshot(corrupt));
+		assertThrows(IllegalStateException.class, () -> new TagalogStemmer().saveCacheSnapshot(missing, 10));
+		assertThrows(IllegalStateException.class, () -> TagalogStemmer.builder().cacheSnapshot(missing).build());
+	}
+}
@@ -0,0 +1,224 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DictionaryReloadTest
+{
+	@Test
+	void testReloadFile(@TempDir final Path directory) throws IOException
+	{
+		final Path roots = directory.resolve("roots.txt");
+		Files.write(roots, Collections.singletonList("takbo"), StandardCharsets.UTF_8);
+		final DictionarySource source = DictionarySource.file(roots);
+		final TagalogStemmer stemmer = TagalogStemmer.builder().dictionary(source).cache(new StemCache(100)).build();
+
+		assertEquals(0, stemmer.dictionaryVersion());
+		assertEquals("takbo", stemmer.stem("tinakbuhan"));
+		assertEquals(1, stemmer.dictionaryVersion());
+		final RootStore first = stemmer.dictionary();
+
+		final Path update = directory.resolve("roots.txt.new");
+		Files.write(update, Arrays.asList("takbo", "takbuh"), StandardCharsets.UTF_8);
+		Files.move(update, roots, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		assertEquals(2L, source.reload().join());
+
+		assertEquals(2, stemmer.dictionaryVersion());
+		assertEquals(2, source.version());
+		assertEquals(2, stemmer.dictionary().size());
+		assertNotSame(first, stemmer.dictionary());
+		// the cached result of the first version is dropped
+		assertEquals("takbuh", stemmer.stem("tinakbuhan"));
+		assertEquals(1, stemmer.cacheStats().size());
+	}
+
+	@Test
+	void testReloadNumerals()
+	{
+		final AtomicReference<Map<String, String>> numbers = new AtomicReference<>(Lexicon.DEFAULT_NUMBERS);
+		final DictionarySource source = new DictionarySource()
+		{
+			@Override
+			protected RootStore read()
+			{
+				return RootDictionary.of(Collections.singletonList("bahay"));
+			}
+
+			@Override
+			protected Map<String, String> readNumbers()
+			{
+				return numbers.get();
+			}
+		};
+		final TagalogStemmer stemmer = TagalogStemmer.builder().dictionary(source).build();
+		assertEquals("lima", stemmer.stem("limampu"));
+		assertEquals("sanda", stemmer.stem("sandaan"));
+
+		final Map<String, String> custom = new HashMap<>(Lexicon.DEFAULT_NUMBERS);
+		custom.put("sandaan", "daan");
+		numbers.set(custom);
+		source.reload().join();
+		assertEquals("daan", stemmer.stem("sandaan"));
+		assertEquals("lima", stemmer.stem("limampu"));
+	}
+
+	@Test
+	void testReloadDuringCall()
+	{
+		final AtomicBoolean replaced = new AtomicBoolean();
+		final DictionarySource source = new DictionarySource()
+		{
+			@Override
+			protected RootStore read()
+			{
+				return RootDictionary.of(Collections.singletonList(replaced.get() ? "takbuh" : "takbo"));
+			}
+		};
+		final TagalogStemmer stemmer = TagalogStemmer.builder().dictionary(source).listener(new StemmingListener()
+		{
+			@Override
+			public void stageCompleted(final StemmingStage stage, final boolean changed, final boolean dictionaryHit,
+					final long nanos)
+			{
+				// swap the dictionary once, after the first stage of the first call
+				if (replaced.compareAndSet(false, true)) {
+					source.reload(Runnable::run).join();
+				}
+			}
+		}).build();
+
+		// the call that saw the reload finishes with the dictionary it started with
+		assertEquals("takbo", stemmer.stem("tinakbuhan"));
+		assertEquals(2, stemmer.dictionaryVersion());
+		assertEquals("takbuh", stemmer.stem("tinakbuhan"));
+	}
+
+	@Test
+	void testFailedReloadKeepsVersion()
+	{
+		final AtomicBoolean broken = new AtomicBoolean();
+		final DictionarySource source = new DictionarySource()
+		{
+			@Override
+			protected RootStore read() throws IOException
+			{
+				if (broken.get()) {
+					throw new IOException("unreadable");
+				}
+				return RootDictionary.of(Collections.singletonList("takbo"));
+			}
+		};
+		final TagalogStemmer stemmer = TagalogStemmer.builder().dictionary(source).build();
+		stemmer.awaitReady();
+		final RootStore loaded = stemmer.dictionary();
+
+		broken.set(true);
+		final CompletionException exception = assertThrows(CompletionException.class, () -> source.reload().join());
+		assertTrue(exception.getCause() instanceof IOException);
+		assertEquals(1, stemmer.dictionaryVersion());
+		assertSame(loaded, stemmer.dictionary());
+		assertEquals("takbo", stemmer.stem("tumatakbo"));
+	}
+
+	@Test
+	void testReloadBeforeFirstUse()
+	{
+		final DictionarySource source = DictionarySource.of(Collections.singletonList("takbo"));
+		final TagalogStemmer stemmer = TagalogStemmer.builder().dictionary(source).build();
+		assertFalse(stemmer.isReady());
+
+		assertEquals(1L, source.reload(Runnable::run).join());
+		assertTrue(stemmer.isReady());
+		assertEquals("takbo", stemmer.stem("tumatakbo"));
+		assertEquals(1, stemmer.dictionaryVersion());
+	}
+
+	@Test
+	void testStaleResultsAreDropped()
+	{
+		final StemCache cache = new StemCache(100);
+		cache.put("tinakbuhan", "takbo", 0);
+		cache.invalidate(2);
+		assertEquals(0, cache.size());
+
+		cache.put("tinakbuhan", "takbo", 1);
+		assertNull(cache.get("tinakbuhan"));
+		cache.put("tinakbuhan", "takbuh", 2);
+		// an older version never brings the cache back
+		cache.invalidate(1);
+		assertEquals(2, cache.version());
+		assertEquals("takbuh", cache.get("tinakbuhan"));
+	}
+
+	@Test
+	void testStemmingDuringReloads() throws Exception
+	{
+		final AtomicBoolean extended = new AtomicBoolean();
+		final DictionarySource source = new DictionarySource()
+		{
+			@Override
+			protected RootStore read()
+			{
+				return RootDictionary.of(extended.get() ? Arrays.asList("takbo", "takbuh") : Collections.singletonList("takbo"));
+			}
+		};
+		final TagalogStemmer stemmer = TagalogStemmer.builder().dictionary(source).cache(new StemCache(100)).build();
+		stemmer.awaitReady();
+
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final AtomicBoolean done = new AtomicBoolean();
+			final List<Future<?>> readers = Arrays.asList(executor.submit(() -> stemWhile(stemmer, done)),
+					executor.submit(() -> stemWhile(stemmer, done)), executor.submit(() -> stemWhile(stemmer, done)));
+			for (int i = 0; i < 50; i++) {
+				extended.set(i % 2 == 0);
+				source.reload(executor).join();
+			}
+			done.set(true);
+			for (final Future<?> reader : readers) {
+				reader.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(51, stemmer.dictionaryVersion());
+		// the last reload dropped the takbuh root, and with it the results stemmed with it
+		assertEquals("takbo", stemmer.stem("tinakbuhan"));
+	}
+
+	private static void stemWhile(final TagalogStemmer stemmer, final AtomicBoolean done)
+	{
+		while (!done.get()) {
+			final String root = stemmer.stem("tinakbuhan");
+			assertTrue(root.equals("takbo") || root.equals("takbuh"), root);
+			assertEquals("takbo", stemmer.stem("tumatakbo"));
+		}
+	}
+}
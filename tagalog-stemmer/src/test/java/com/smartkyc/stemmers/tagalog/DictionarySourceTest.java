@@ -0,0 +1,124 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DictionarySourceTest
+{
+	@Test
+	void testSameSourceSharesDictionary()
+	{
+		assertSame(DictionarySource.defaultSource(), DictionarySource.classpath(DictionarySource.DEFAULT_RESOURCE));
+
+		final TagalogStemmer first = new TagalogStemmer();
+		final TagalogStemmer second = TagalogStemmer.builder().dictionary(DictionarySource.defaultSource()).build();
+		assertSame(first.dictionary(), second.dictionary());
+		assertTrue(first.isReady());
+	}
+
+	@Test
+	void testInMemorySource()
+	{
+		final DictionarySource source = DictionarySource.of(Arrays.asList("takbo", "Alis"));
+		final TagalogStemmer stemmer = TagalogStemmer.builder().dictionary(source).build();
+
+		assertFalse(stemmer.isReady());
+		assertEquals("takbo", stemmer.stem("tumatakbo"));
+		assertEquals("alis", stemmer.stem("aalisin"));
+		assertEquals("bahay", stemmer.stem("bahay"));
+		assertTrue(stemmer.isReady());
+		assertEquals(2, stemmer.dictionary().size());
+	}
+
+	@Test
+	void testFileSource(@TempDir final Path directory) throws IOException
+	{
+		final Path roots = directory.resolve("roots.txt");
+		Files.write(roots, Collections.singletonList("takbo"), StandardCharsets.UTF_8);
+
+		final DictionarySource source = DictionarySource.file(roots);
+		assertSame(source, DictionarySource.file(directory.resolve("../" + directory.getFileName() + "/roots.txt")));
+		assertEquals("takbo", TagalogStemmer.builder().dictionary(source).build().stem("tumatakbo"));
+	}
+
+	@Test
+	void testUnusedSourceIsReleased(@TempDir final Path directory) throws IOException, InterruptedException
+	{
+		final Path roots = directory.resolve("roots.txt");
+		Files.write(roots, Collections.singletonList("takbo"), StandardCharsets.UTF_8);
+
+		TagalogStemmer stemmer = TagalogStemmer.builder().dictionary(DictionarySource.file(roots)).build();
+		assertEquals("takbo", stemmer.stem("tumatakbo"));
+		final WeakReference<DictionarySource> released = new WeakReference<>(DictionarySource.file(roots));
+		System.gc();
+		assertSame(released.get(), DictionarySource.file(roots));
+
+		stemmer = null;
+		for (int i = 0; i < 100 && released.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertNull(released.get());
+		assertEquals("takbo", TagalogStemmer.builder().dictionary(DictionarySource.file(roots)).build().stem("tumatakbo"));
+	}
+
+	@Test
+	void testMissingSource()
+	{
+		final TagalogStemmer stemmer = TagalogStemmer.builder().dictionary(DictionarySource.classpath("/missing.txt")).build();
+		final IllegalStateException exception = assertThrows(IllegalStateException.class, () -> stemmer.stem("tumatakbo"));
+		assertTrue(exception.getCause() instanceof IOException);
+	}
+
+	@Test
+	void testBackgroundLoading() throws InterruptedException
+	{
+		final CountDownLatch release = new CountDownLatch(1);
+		final DictionarySource slowSource = new DictionarySource()
+		{
+			@Override
+			protected RootDictionary read() throws IOException
+			{
+				try {
+					release.await();
+				} catch (final InterruptedException e) {
+					throw new IOException(e);
+				}
+				return RootDictionary.of(Collections.singletonList("takbo"));
+			}
+		};
+
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			final TagalogStemmer stemmer = TagalogStemmer.builder().dictionary(slowSource).loadInBackground(executor).build();
+			assertFalse(stemmer.isReady());
+			assertFalse(stemmer.awaitReady(10, TimeUnit.MILLISECONDS));
+
+			release.countDown();
+			assertTrue(stemmer.awaitReady(10, TimeUnit.SECONDS));
+			assertTrue(stemmer.isReady());
+			assertEquals("takbo", stemmer.stem("tumatakbo"));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
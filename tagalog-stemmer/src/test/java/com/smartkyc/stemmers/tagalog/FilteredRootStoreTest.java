@@ -0,0 +1,154 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FilteredRootStoreTest
+{
+	@Test
+	void testSameAnswersAsStore() throws IOException
+	{
+		final RootDictionary dictionary = RootDictionary.read(getClass().getResourceAsStream(DictionarySource.DEFAULT_RESOURCE));
+		final FilteredRootStore filtered = FilteredRootStore.of(dictionary);
+		assertSame(dictionary, filtered.store());
+		assertEquals(dictionary.size(), filtered.size());
+		assertEquals(dictionary.checksum(), filtered.checksum());
+
+		final List<String> roots = new ArrayList<>();
+		dictionary.forEach(root -> roots.add(root.toString()));
+		assertEquals(dictionary.size(), roots.size());
+		for (final String root : roots) {
+			assertTrue(filtered.contains(root), root);
+			assertTrue(filtered.contains(root.toUpperCase()), root);
+			assertTrue(filtered.contains(root.toCharArray(), 0, root.length()), root);
+			assertTrue(filtered.contains("pag" + root + "an", 3, 3 + root.length()), root);
+		}
+
+		int misses = 0;
+		int passed = 0;
+		for (final String word : corpusWords()) {
+			final boolean root = dictionary.contains(word);
+			assertEquals(root, filtered.contains(word), word);
+			if (!root) {
+				misses++;
+				passed += filtered.mightContain(RootDictionary.hash(word)) ? 1 : 0;
+			}
+		}
+		assertTrue(passed < misses * 0.03, passed + " of " + misses + " misses passed the filter");
+		assertTrue(filtered.falsePositiveRate() < 0.03, "estimated " + filtered.falsePositiveRate());
+		assertTrue(filtered.bytes() * 8 >= (long) dictionary.size() * FilteredRootStore.BITS_PER_ROOT);
+	}
+
+	@Test
+	void testContainsRange()
+	{
+		final FilteredRootStore filtered = FilteredRootStore.of(RootDictionary.of(Arrays.asList("takbo", "bili")));
+		assertTrue(filtered.contains("magtakbo", 3, 8));
+		assertTrue(filtered.contains("PAMILI-BILI", 7, 11));
+		assertFalse(filtered.contains("magtakbo", 0, 8));
+		assertFalse(filtered.contains("magtakbo", 3, 7));
+		assertFalse(filtered.contains("takbo", 0, 0));
+		assertEquals(RootDictionary.hash("takbo"), RootDictionary.hash("magtakbo", 3, 8));
+	}
+
+	@Test
+	void testOffHeapStore()
+	{
+		final List<String> roots = Arrays.asList("bahay", "hanap", "Kain", "mag-isa");
+		final OffHeapRootStore store = OffHeapRootStore.of(roots);
+		final Set<String> listed = new HashSet<>();
+		store.forEach(root -> listed.add(root.toString()));
+		assertEquals(new HashSet<>(Arrays.asList("bahay", "hanap", "kain", "mag-isa")), listed);
+
+		final FilteredRootStore filtered = FilteredRootStore.of(store);
+		for (final String root : listed) {
+			assertTrue(filtered.contains(root), root);
+		}
+		assertTrue(filtered.contains("KAIN".toCharArray(), 0, 4));
+		assertFalse(filtered.contains("kumain"));
+		assertFalse(filtered.contains("mag-isang".toCharArray(), 0, 9));
+	}
+
+	@Test
+	void testStoreOfAnotherImplementation()
+	{
+		final RootDictionary dictionary = RootDictionary.of(Arrays.asList("bahay", "hanap"));
+		final RootStore custom = new RootStore()
+		{
+			@Override
+			public boolean contains(final CharSequence token)
+			{
+				return dictionary.contains(token);
+			}
+
+			@Override
+			public boolean contains(final char[] buffer, final int offset, final int length)
+			{
+				return dictionary.contains(buffer, offset, length);
+			}
+
+			@Override
+			public int size()
+			{
+				return dictionary.size();
+			}
+
+			@Override
+			public long checksum()
+			{
+				return dictionary.checksum();
+			}
+
+			@Override
+			public void forEach(final Consumer<? super CharSequence> action)
+			{
+				dictionary.forEach(action);
+			}
+		};
+		final FilteredRootStore filtered = FilteredRootStore.of(custom);
+		assertTrue(filtered.falsePositiveRate() < 0.05);
+		assertTrue(filtered.contains("bahay"));
+		assertTrue(filtered.contains("HANAP".toCharArray(), 0, 5));
+		assertFalse(filtered.contains("bahayan"));
+	}
+
+	@Test
+	void testStemmerExposesUnfilteredStore()
+	{
+		final RootStore dictionary = TagalogStemmer.builder()
+				.dictionary(DictionarySource.of(Arrays.asList("bahay", "hanap")))
+				.build()
+				.dictionary();
+		assertTrue(dictionary instanceof RootDictionary, dictionary.getClass().getName());
+	}
+
+	private List<String> corpusWords() throws IOException
+	{
+		final List<String> words = new ArrayList<>();
+		try (InputStream stream = getClass().getResourceAsStream("/root-word.txt")) {
+			assertNotNull(stream);
+			final BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				words.add(line.split(" : ")[0].trim().toLowerCase());
+			}
+		}
+		return words;
+	}
+}
@@ -0,0 +1,68 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InflectionGeneratorTest
+{
+	@Test
+	void testMorphology()
+	{
+		assertEquals("tatakbo", InflectionGenerator.reduplicate("takbo"));
+		assertEquals("aalis", InflectionGenerator.reduplicate("alis"));
+		assertEquals("ngingiti", InflectionGenerator.reduplicate("ngiti"));
+		assertEquals("tatrabaho", InflectionGenerator.reduplicate("trabaho"));
+		assertEquals("tumakbo", InflectionGenerator.infix("takbo", "um"));
+		assertEquals("inalis", InflectionGenerator.infix("alis", "in"));
+		assertEquals("mili", InflectionGenerator.assimilate("bili"));
+		assertEquals("nahi", InflectionGenerator.assimilate("tahi"));
+		assertEquals("ngain", InflectionGenerator.assimilate("kain"));
+		assertEquals("ngaral", InflectionGenerator.assimilate("aral"));
+		assertNull(InflectionGenerator.assimilate("lakad"));
+	}
+
+	@Test
+	void testForms()
+	{
+		final Set<String> takbo = InflectionGenerator.inflect("takbo");
+		for (final String form : Arrays.asList("tumakbo", "tumatakbo", "tinakbo", "tinatakbuhan", "magtatakbo", "nagtakbo",
+				"pagtakbuhan", "matakbuhin", "panakbo", "nanakbo", "nananakbo", "takbuhin")) {
+			assertTrue(takbo.contains(form), form);
+		}
+		final Set<String> aral = InflectionGenerator.inflect("aral");
+		for (final String form : Arrays.asList("umaaral", "inaralan", "mag-aral", "nag-aaral", "magaaral", "pangaral",
+				"nangangaral", "aralin")) {
+			assertTrue(aral.contains(form), form);
+		}
+		assertTrue(InflectionGenerator.inflect("bili").contains("mamimili"));
+		assertTrue(InflectionGenerator.inflect("inom").contains("inumin"));
+	}
+
+	@Test
+	void testRootsAndAmbiguousFormsAreLeftOut()
+	{
+		final Map<String, String> forms = InflectionGenerator.generate(Arrays.asList("takbo", "Tumakbo", "ani", "ano", "ka",
+				"punong-guro"));
+		assertEquals("takbo", forms.get("tatakbo"));
+		// tumakbo is a root itself
+		assertFalse(forms.containsKey("tumakbo"));
+		assertEquals("ani", forms.get("anihan"));
+		assertEquals("ano", forms.get("anuhan"));
+		assertFalse(forms.containsValue("ka"));
+		assertFalse(forms.containsValue("punong-guro"));
+
+		final Map<String, String> ambiguous = InflectionGenerator.generate(Arrays.asList("ako", "aku"));
+		assertFalse(ambiguous.containsKey("akuhan"));
+		assertEquals("ako", ambiguous.get("aako"));
+		assertEquals(Collections.emptyMap(), InflectionGenerator.generate(Collections.singletonList("ab")));
+	}
+}
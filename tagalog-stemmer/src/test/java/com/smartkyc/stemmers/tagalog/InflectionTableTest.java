@@ -0,0 +1,132 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InflectionTableTest
+{
+	@Test
+	void testLookup()
+	{
+		final Map<String, String> forms = InflectionGenerator.generate(Arrays.asList("takbo", "bili", "aral"));
+		final InflectionTable table = InflectionTable.of(forms, 0);
+		assertEquals(forms.size(), table.size());
+		assertEquals(3, table.roots());
+		for (final Map.Entry<String, String> form : forms.entrySet()) {
+			assertEquals(form.getValue(), table.root(form.getKey()), form.getKey());
+		}
+		assertEquals("bili", table.root("MAMIMILI"));
+		assertEquals("aral", table.root(new StringBuilder("nag-aaral")));
+		assertNull(table.root("takbo"));
+		assertNull(table.root("bahay"));
+		assertNull(table.root(""));
+	}
+
+	@Test
+	void testImage() throws IOException
+	{
+		final InflectionTable table = InflectionTable.generate(Arrays.asList("takbo", "bili", "aral"));
+		final ByteArrayOutputStream image = new ByteArrayOutputStream();
+		table.write(image);
+		final InflectionTable read = InflectionTable.read(new ByteArrayInputStream(image.toByteArray()));
+		assertEquals(table.size(), read.size());
+		assertEquals(RootDictionary.of(Arrays.asList("aral", "bili", "takbo")).checksum(), read.rootChecksum());
+		assertEquals(table.checksum(), read.checksum());
+		assertEquals("takbo", read.root("tinatakbuhan"));
+		assertEquals("bili", read.root("pamili"));
+
+		final byte[] corrupt = image.toByteArray();
+		corrupt[corrupt.length - 1] ^= 1;
+		assertThrows(IOException.class, () -> InflectionTable.read(new ByteArrayInputStream(corrupt)));
+		final byte[] truncated = Arrays.copyOf(image.toByteArray(), image.size() - 4);
+		assertThrows(IOException.class, () -> InflectionTable.read(new ByteArrayInputStream(truncated)));
+	}
+
+	@Test
+	void testBundled()
+	{
+		final InflectionTable table = InflectionTable.bundled();
+		assertSame(table, InflectionTable.bundled());
+		assertEquals(new TagalogStemmer().dictionary().checksum(), table.rootChecksum());
+		assertTrue(table.size() > 100_000, "only " + table.size() + " forms");
+		assertEquals("takbo", table.root("tumatakbo"));
+		assertEquals("tahi", table.root("nananahi"));
+		// pili and bili both give mamimili
+		assertNull(table.root("mamimili"));
+	}
+
+	@Test
+	void testStemmer()
+	{
+		final TagalogStemmer plain = new TagalogStemmer();
+		assertEquals("dagan", plain.stem("dinagdagan"));
+		assertEquals("dog", plain.stem("dinurog"));
+
+		final TagalogStemmer stemmer = TagalogStemmer.builder().inflections(InflectionTable.bundled()).build();
+		assertEquals("dagdag", stemmer.stem("dinagdagan"));
+		assertEquals("durog", stemmer.stem("Dinurog"));
+		assertEquals("bahay", stemmer.stem("bahay"));
+		assertEquals("ganda", stemmer.stem("pinakamaganda"));
+		assertEquals(2, stemmer.inflectionHits());
+		assertEquals(0, plain.inflectionHits());
+
+		final StemResult result = stemmer.analyze("tumatakbo");
+		assertEquals("takbo", result.root());
+		assertTrue(result.prefixes().isEmpty());
+		assertEquals(3, stemmer.inflectionHits());
+		assertTrue(stemmer.usesInflections());
+		assertFalse(plain.usesInflections());
+	}
+
+	@Test
+	void testTableOfOtherRoots()
+	{
+		final DictionarySource roots = DictionarySource.of(Arrays.asList("durog", "kain"));
+		final TagalogStemmer bundled = TagalogStemmer.builder().dictionary(roots).inflections(InflectionTable.bundled()).build();
+		assertFalse(bundled.usesInflections());
+		// the bundled table would give dagdag, which this dictionary does not know
+		assertEquals(TagalogStemmer.builder().dictionary(roots).build().stem("dinagdagan"), bundled.stem("dinagdagan"));
+		assertEquals(0, bundled.inflectionHits());
+
+		final AtomicBoolean extended = new AtomicBoolean();
+		final DictionarySource source = new DictionarySource()
+		{
+			@Override
+			protected RootStore read()
+			{
+				return RootDictionary.of(extended.get() ? Arrays.asList("dagdag", "durog") : Collections.singletonList("durog"));
+			}
+		};
+		final TagalogStemmer stemmer = TagalogStemmer.builder().dictionary(source)
+				.inflections(InflectionTable.generate(Collections.singletonList("durog"))).build();
+		assertTrue(stemmer.usesInflections());
+		assertEquals("durog", stemmer.stem("dinurog"));
+		assertEquals(1, stemmer.inflectionHits());
+
+		extended.set(true);
+		source.reload(Runnable::run).join();
+		assertFalse(stemmer.usesInflections());
+		stemmer.stem("dinurog");
+		assertEquals(1, stemmer.inflectionHits());
+
+		extended.set(false);
+		source.reload(Runnable::run).join();
+		assertTrue(stemmer.usesInflections());
+		assertEquals("durog", stemmer.stem("dinurog"));
+		assertEquals(2, stemmer.inflectionHits());
+	}
+}
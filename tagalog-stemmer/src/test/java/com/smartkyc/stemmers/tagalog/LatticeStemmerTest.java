@@ -0,0 +1,121 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatticeStemmerTest
+{
+	private final TagalogStemmer pipeline = new TagalogStemmer();
+
+	private final TagalogStemmer lattice = TagalogStemmer.builder().engine(StemmingEngine.LATTICE).build();
+
+	@Test
+	void testRoots()
+	{
+		assertEquals(StemmingEngine.LATTICE, lattice.engine());
+		assertEquals("hanap", lattice.stem("paghahanap"));
+		assertEquals("ganda", lattice.stem("pinakamaganda"));
+		assertEquals("anak", lattice.stem("ipinanganak"));
+		assertEquals("bayad", lattice.stem("bayaran"));
+		assertEquals("inom", lattice.stem("inumin"));
+		assertEquals("daan", lattice.stem("daraanan"));
+		assertEquals("basa", lattice.stem("babasahing"));
+		assertEquals("isa", lattice.stem("mag-isa"));
+		assertEquals("sari", lattice.stem("sari-sari"));
+		assertEquals("bahay", lattice.stem("bahay"));
+	}
+
+	@Test
+	void testBreakdown()
+	{
+		final StemResult ipinanganak = lattice.analyze("ipinanganak");
+		assertEquals("anak", ipinanganak.root());
+		assertEquals(Arrays.asList("i", "pang"), ipinanganak.prefixes());
+		assertEquals(Collections.singletonList("in"), ipinanganak.infixes());
+
+		final StemResult babasahing = lattice.analyze("babasahing");
+		assertEquals(Collections.singletonList("ba"), babasahing.repetitions());
+		assertEquals(Arrays.asList("g", "hin"), babasahing.suffixes());
+
+		final StemResult inumin = lattice.analyze("inumin");
+		assertEquals(Collections.singletonList("in"), inumin.suffixes());
+		assertEquals(Collections.singletonList("u"), inumin.cleaners());
+
+		assertEquals(Collections.singletonList("sari"), lattice.analyze("sari-sari").duplications());
+	}
+
+	@Test
+	void testFallsBackToPipeline()
+	{
+		// numerals, and words without a segmentation into a known root
+		for (final String word : Arrays.asList("dalawampu", "ikalimang", "aktor", "bulubundukin")) {
+			assertEquals(pipeline.stem(word), lattice.stem(word), word);
+			assertEquals(pipeline.analyze(word).toString(), lattice.analyze(word).toString(), word);
+		}
+	}
+
+	@Test
+	void testSameRootsAsAnalyze() throws IOException
+	{
+		final StemResult result = new StemResult();
+		try (InputStream stream = getClass().getResourceAsStream("/root-word.txt")) {
+			assertNotNull(stream);
+			final BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				final String word = line.split(" : ")[0].trim();
+				assertEquals(lattice.stem(word), lattice.analyze(word, result).root(), word);
+			}
+		}
+	}
+
+	@Test
+	void testAtLeastAsAccurateAsPipeline() throws IOException
+	{
+		int pipelineCorrect = 0;
+		int latticeCorrect = 0;
+		try (InputStream stream = getClass().getResourceAsStream("/root-word.txt")) {
+			assertNotNull(stream);
+			final BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				final String[] parts = line.split(" : ");
+				if (parts.length == 2) {
+					final String word = parts[0].trim().toLowerCase();
+					final String root = parts[1].trim().toLowerCase();
+					pipelineCorrect += pipeline.stem(word).equals(root) ? 1 : 0;
+					latticeCorrect += lattice.stem(word).equals(root) ? 1 : 0;
+				}
+			}
+		}
+		System.out.println("Correct count: pipeline " + pipelineCorrect + ", lattice " + latticeCorrect);
+		assertTrue(latticeCorrect >= pipelineCorrect, "lattice " + latticeCorrect + " < pipeline " + pipelineCorrect);
+	}
+
+	@Test
+	void testSnapshotsAreEngineSpecific() throws IOException
+	{
+		final Path file = Files.createTempFile("stem-cache", ".bin");
+		try {
+			final TagalogStemmer pipelineCached = TagalogStemmer.builder().cacheSize(16).build();
+			pipelineCached.stem("paghahanap");
+			assertEquals(1, pipelineCached.saveCacheSnapshot(file, 16));
+
+			final TagalogStemmer latticeCached = TagalogStemmer.builder().cacheSize(16).engine(StemmingEngine.LATTICE).build();
+			assertEquals(0, latticeCached.loadCacheSnapshot(file));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedRootStoreTest
+{
+	@Test
+	void testContains(@TempDir final Path directory) throws IOException
+	{
+		final RootDictionary dictionary = RootDictionary.of(Arrays.asList("takbo", "Huli", "alis"));
+		final MappedRootStore store = RootDictionaryImage.map(write(dictionary, directory.resolve("roots.bin")));
+
+		assertEquals(3, store.size());
+		assertEquals(dictionary.checksum(), store.checksum());
+		assertTrue(store.contains("takbo"));
+		assertTrue(store.contains("TAKBO"));
+		assertTrue(store.contains(new StringBuilder("Alis")));
+		assertFalse(store.contains("takb"));
+		assertFalse(store.contains("takbong"));
+		assertFalse(store.contains(""));
+
+		final char[] buffer = "tumaTAKBOhuli".toCharArray();
+		assertTrue(store.contains(buffer, 4, 5));
+		assertTrue(store.contains(buffer, 9, 4));
+		assertFalse(store.contains(buffer, 0, 5));
+
+		final Set<String> roots = new HashSet<>();
+		store.forEach(root -> roots.add(root.toString()));
+		assertEquals(new HashSet<>(Arrays.asList("takbo", "huli", "alis")), roots);
+	}
+
+	@Test
+	void testLargeImage(@TempDir final Path directory) throws IOException
+	{
+		final List<String> roots = new ArrayList<>();
+		for (int i = 0; i < 100_000; i++) {
+			roots.add("ugat" + i);
+		}
+		final RootDictionary dictionary = RootDictionary.of(roots);
+		final Path image = write(dictionary, directory.resolve("roots.bin"));
+		final MappedRootStore store = RootDictionaryImage.map(image);
+
+		assertEquals(100_000, store.size());
+		assertEquals(dictionary.checksum(), store.checksum());
+		for (int i = 0; i < 100_000; i += 7) {
+			assertTrue(store.contains("UGAT" + i));
+		}
+		assertFalse(store.contains("ugat100000"));
+
+		final TagalogStemmer stemmer = TagalogStemmer.builder().dictionary(DictionarySource.file(image)).build();
+		assertTrue(stemmer.dictionary() instanceof MappedRootStore);
+		assertEquals("ugat42", stemmer.stem("ugat42"));
+	}
+
+	private static Path write(final RootDictionary dictionary, final Path path) throws IOException
+	{
+		try (OutputStream out = Files.newOutputStream(path)) {
+			RootDictionaryImage.write(dictionary, out);
+		}
+		return path;
+	}
+}
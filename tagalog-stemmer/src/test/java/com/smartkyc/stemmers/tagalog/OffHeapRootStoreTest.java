@@ -0,0 +1,114 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapRootStoreTest
+{
+	@Test
+	void testContains()
+	{
+		final OffHeapRootStore store = OffHeapRootStore.of(Arrays.asList("takbo", "Huli", "alis", "takbo", " "));
+
+		assertEquals(3, store.size());
+		assertTrue(store.contains("takbo"));
+		assertTrue(store.contains("TAKBO"));
+		assertTrue(store.contains("huli"));
+		assertTrue(store.contains(new StringBuilder("Alis")));
+		assertFalse(store.contains("takb"));
+		assertFalse(store.contains("takbong"));
+		assertFalse(store.contains(""));
+
+		final char[] buffer = "tumaTAKBOhuli".toCharArray();
+		assertTrue(store.contains(buffer, 4, 5));
+		assertTrue(store.contains(buffer, 9, 4));
+		assertFalse(store.contains(buffer, 0, 5));
+	}
+
+	@Test
+	void testGrowsBeyondExpectedSize()
+	{
+		final OffHeapRootStore.Builder builder = OffHeapRootStore.builder(0);
+		for (int i = 0; i < 100_000; i++) {
+			builder.add("ugat" + i);
+		}
+		final OffHeapRootStore store = builder.build();
+
+		assertEquals(100_000, store.size());
+		for (int i = 0; i < 100_000; i += 7) {
+			assertTrue(store.contains("UGAT" + i));
+		}
+		assertFalse(store.contains("ugat100000"));
+		assertThrows(IllegalStateException.class, () -> builder.add("takbo"));
+	}
+
+	@Test
+	void testSameContentAsDictionary() throws IOException
+	{
+		final RootDictionary dictionary;
+		final OffHeapRootStore store;
+		try (InputStream text = getClass().getResourceAsStream("/tagalogWordsRoots.txt")) {
+			assertNotNull(text);
+			dictionary = RootDictionary.read(text);
+		}
+		try (InputStream text = getClass().getResourceAsStream("/tagalogWordsRoots.txt")) {
+			store = OffHeapRootStore.read(text);
+		}
+
+		assertEquals(dictionary.size(), store.size());
+		assertEquals(dictionary.checksum(), store.checksum());
+		assertTrue(store.contains("lunod"));
+		assertTrue(store.contains("Bombilya"));
+
+		final List<String> shuffled = new ArrayList<>(Arrays.asList("takbo", "huli", "alis", "bahay"));
+		final long checksum = OffHeapRootStore.of(shuffled).checksum();
+		Collections.reverse(shuffled);
+		assertEquals(checksum, OffHeapRootStore.of(shuffled).checksum());
+		assertEquals(checksum, RootDictionary.of(shuffled).checksum());
+	}
+
+	@Test
+	void testStemmerWithMergedLists(@TempDir final Path directory) throws IOException
+	{
+		final Path roots = directory.resolve("roots.txt");
+		final Path names = directory.resolve("names.txt");
+		Files.write(roots, Arrays.asList("# roots", "takbo", "kain"), StandardCharsets.UTF_8);
+		Files.write(names, Collections.singletonList("Maynila"), StandardCharsets.UTF_8);
+
+		final TagalogStemmer stemmer = TagalogStemmer.builder().dictionary(DictionarySource.offHeap(roots, names)).build();
+
+		assertTrue(stemmer.dictionary() instanceof OffHeapRootStore);
+		assertEquals(3, stemmer.dictionary().size());
+		assertEquals("takbo", stemmer.stem("tumakbo"));
+		assertEquals("Maynila", stemmer.stem("Maynila"));
+	}
+
+	@Test
+	void testRead() throws IOException
+	{
+		final String lines = "# comment\n  bahay \n\nTAKBO\n";
+		final OffHeapRootStore store = OffHeapRootStore.read(new ByteArrayInputStream(lines.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(2, store.size());
+		assertTrue(store.contains("bahay"));
+		assertTrue(store.contains("takbo"));
+		assertFalse(store.contains("# comment"));
+	}
+}
@@ -0,0 +1,96 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProtectedWordsTest
+{
+	@Test
+	void testProtectedWordsAreNotStemmed()
+	{
+		final TagalogStemmer plain = new TagalogStemmer();
+		assertEquals("anda", plain.stem("Maganda"));
+		assertEquals("linan", plain.stem("Pangilinan"));
+		assertEquals(0, plain.protectedTokens());
+
+		final TagalogStemmer stemmer = TagalogStemmer.builder()
+				.protectedWords(Arrays.asList("Maganda", "pangilinan", "Makati"))
+				.cacheSize(100)
+				.build();
+		assertEquals("Maganda", stemmer.stem("Maganda"));
+		assertEquals("PANGILINAN", stemmer.stem("PANGILINAN"));
+		assertEquals("makati", stemmer.stem("makati"));
+		assertEquals("ganda", stemmer.stem("pinakamaganda"));
+		assertEquals(3, stemmer.protectedTokens());
+		// protected words are answered before the cache
+		assertEquals(1, stemmer.cacheStats().missCount());
+
+		final StemResult result = stemmer.analyze("Makati");
+		assertEquals("Makati", result.root());
+		assertTrue(result.prefixes().isEmpty());
+
+		final char[] buffer = "Maganda".toCharArray();
+		assertEquals(7, stemmer.stem(buffer, buffer.length));
+		assertEquals("Maganda", new String(buffer));
+		assertEquals(5, stemmer.protectedTokens());
+	}
+
+	@Test
+	void testLargeListOffHeap(@TempDir final Path directory) throws IOException
+	{
+		final Path names = directory.resolve("names.txt");
+		final StringBuilder list = new StringBuilder("# surnames\n");
+		for (int i = 0; i < 100_000; i++) {
+			list.append("pangalan").append(i).append('\n');
+		}
+		list.append("Dimaculangan\n");
+		Files.write(names, Collections.singletonList(list), StandardCharsets.UTF_8);
+
+		final TagalogStemmer stemmer = TagalogStemmer.builder().protectedWords(DictionarySource.offHeap(names)).build();
+		assertEquals("Dimaculangan", stemmer.stem("Dimaculangan"));
+		assertEquals("pangalan99999", stemmer.stem("pangalan99999"));
+		assertEquals("buhat", stemmer.stem("pinagbuhatan"));
+		assertEquals(2, stemmer.protectedTokens());
+	}
+
+	@Test
+	void testReadyOnceProtectedWordsLoad() throws InterruptedException
+	{
+		final DictionarySource names = DictionarySource.of(Collections.singletonList("makati"));
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			final TagalogStemmer stemmer = TagalogStemmer.builder()
+					.dictionary(DictionarySource.of(Collections.singletonList("kati")))
+					.protectedWords(names)
+					.build();
+			assertFalse(stemmer.isReady());
+			stemmer.dictionary();
+			assertFalse(stemmer.isReady());
+			assertTrue(stemmer.awaitReady(10, TimeUnit.SECONDS));
+			assertTrue(names.isLoaded());
+
+			final TagalogStemmer background = TagalogStemmer.builder()
+					.protectedWords(Collections.singletonList("Makati"))
+					.loadInBackground(executor)
+					.build();
+			assertTrue(background.awaitReady(10, TimeUnit.SECONDS));
+			assertEquals("Makati", background.stem("Makati"));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
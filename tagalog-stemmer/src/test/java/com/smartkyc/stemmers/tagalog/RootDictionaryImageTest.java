@@ -0,0 +1,88 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RootDictionaryImageTest
+{
+	@Test
+	void testRoundTrip() throws IOException
+	{
+		final RootDictionary dictionary = RootDictionary.of(Arrays.asList("takbo", "huli", "alis"));
+		final RootDictionary loaded = RootDictionaryImage.read(new ByteArrayInputStream(image(dictionary)));
+
+		assertEquals(3, loaded.size());
+		assertEquals(dictionary.checksum(), loaded.checksum());
+		assertTrue(loaded.contains("TAKBO"));
+		assertTrue(loaded.contains("huli"));
+		assertFalse(loaded.contains("hul"));
+	}
+
+	@Test
+	void testMappedFile(@TempDir final Path directory) throws IOException
+	{
+		final Path text = directory.resolve("roots.txt");
+		final Path image = directory.resolve("roots.bin");
+		Files.write(text, Arrays.asList("takbo", "# comment", "huli"));
+		RootDictionaryImage.main(new String[] { text.toString(), image.toString() });
+
+		assertTrue(RootDictionaryImage.isImage(image));
+		assertFalse(RootDictionaryImage.isImage(text));
+		assertEquals(2, RootDictionaryImage.map(image).size());
+		assertEquals("takbo", TagalogStemmer.builder().dictionary(DictionarySource.file(image)).build().stem("tumatakbo"));
+	}
+
+	@Test
+	void testBundledImageMatchesTextList() throws IOException
+	{
+		final RootDictionary text;
+		try (InputStream stream = getClass().getResourceAsStream(DictionarySource.DEFAULT_RESOURCE)) {
+			assertNotNull(stream);
+			text = RootDictionary.read(stream);
+		}
+		assertNotNull(getClass().getResource("/tagalogWordsRoots.bin"));
+		final RootStore image = RootDictionaryImage.load(getClass().getResource("/tagalogWordsRoots.bin"));
+
+		assertEquals(text.size(), image.size());
+		assertEquals(text.checksum(), image.checksum());
+		assertEquals(text.checksum(), new TagalogStemmer().dictionary().checksum());
+	}
+
+	@Test
+	void testRejectsCorruptImages() throws IOException
+	{
+		final byte[] image = image(RootDictionary.of(Arrays.asList("takbo", "huli")));
+
+		final byte[] corrupt = image.clone();
+		corrupt[corrupt.length - 1] ^= 1;
+		assertThrows(IOException.class, () -> RootDictionaryImage.read(new ByteArrayInputStream(corrupt)));
+
+		final byte[] newerVersion = image.clone();
+		newerVersion[7]++;
+		assertThrows(IOException.class, () -> RootDictionaryImage.read(new ByteArrayInputStream(newerVersion)));
+
+		final byte[] truncated = Arrays.copyOf(image, image.length - 4);
+		assertThrows(IOException.class, () -> RootDictionaryImage.read(new ByteArrayInputStream(truncated)));
+	}
+
+	private static byte[] image(final RootDictionary dictionary) throws IOException
+	{
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		RootDictionaryImage.write(dictionary, out);
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,90 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RootDictionaryTest
+{
+	@Test
+	void testContains()
+	{
+		final RootDictionary dictionary = RootDictionary.of(Arrays.asList("takbo", "Huli", "alis", "takbo"));
+
+		assertEquals(3, dictionary.size());
+		assertTrue(dictionary.contains("takbo"));
+		assertTrue(dictionary.contains("TAKBO"));
+		assertTrue(dictionary.contains("huli"));
+		assertTrue(dictionary.contains(new StringBuilder("Alis")));
+		assertFalse(dictionary.contains("takb"));
+		assertFalse(dictionary.contains("takbong"));
+		assertFalse(dictionary.contains(""));
+	}
+
+	@Test
+	void testContainsSlice()
+	{
+		final RootDictionary dictionary = RootDictionary.of(Arrays.asList("takbo", "huli"));
+		final char[] buffer = "tumaTAKBOhuli".toCharArray();
+
+		assertTrue(dictionary.contains(buffer, 4, 5));
+		assertTrue(dictionary.contains(buffer, 9, 4));
+		assertFalse(dictionary.contains(buffer, 0, 5));
+		assertFalse(dictionary.contains(buffer, 4, 4));
+	}
+
+	@Test
+	void testRead() throws IOException
+	{
+		final String lines = "# comment\n  bahay \n\nTAKBO\n";
+		final RootDictionary dictionary = RootDictionary.read(new ByteArrayInputStream(lines.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(2, dictionary.size());
+		assertTrue(dictionary.contains("bahay"));
+		assertTrue(dictionary.contains("takbo"));
+		assertFalse(dictionary.contains("# comment"));
+	}
+
+	@Test
+	void testIndependentOfDefaultLocale() throws IOException
+	{
+		final Locale locale = Locale.getDefault();
+		try {
+			// Turkish lower-cases I to a dotless i, which lookups never fold to
+			Locale.setDefault(new Locale("tr", "TR"));
+			final byte[] lines = "Iloilo\n".getBytes(StandardCharsets.UTF_8);
+			for (final RootStore store : Arrays.asList(RootDictionary.of(Arrays.asList("Iloilo")),
+					RootDictionary.read(new ByteArrayInputStream(lines)), OffHeapRootStore.of(Arrays.asList("Iloilo")),
+					OffHeapRootStore.read(new ByteArrayInputStream(lines)))) {
+				assertTrue(store.contains("Iloilo"), store.getClass().getSimpleName());
+				assertTrue(store.contains("iloilo"), store.getClass().getSimpleName());
+			}
+			assertEquals("isda", InflectionGenerator.generate(Arrays.asList("Isda")).get("isdaan"));
+			assertEquals("Iloilo", TagalogStemmer.builder().protectedWords(Arrays.asList("Iloilo")).build().stem("Iloilo"));
+		} finally {
+			Locale.setDefault(locale);
+		}
+	}
+
+	@Test
+	void testBundledRoots() throws IOException
+	{
+		try (InputStream stream = getClass().getResourceAsStream("/tagalogWordsRoots.txt")) {
+			assertNotNull(stream);
+			final RootDictionary dictionary = RootDictionary.read(stream);
+			assertTrue(dictionary.size() > 5000);
+			assertTrue(dictionary.contains("lunod"));
+			assertTrue(dictionary.contains("Bombilya"));
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StemCacheTest
+{
+	@Test
+	void testHitsAndMisses()
+	{
+		final StemCache cache = new StemCache(10);
+
+		assertNull(cache.get("tumatakbo"));
+		cache.put("tumatakbo", "takbo");
+		assertEquals("takbo", cache.get("tumatakbo"));
+		assertEquals("takbo", cache.get("tumatakbo"));
+
+		final StemCache.Stats stats = cache.stats();
+		assertEquals(2, stats.hitCount());
+		assertEquals(1, stats.missCount());
+		assertEquals(0, stats.evictionCount());
+		assertEquals(1, stats.size());
+	}
+
+	@Test
+	void testHottest()
+	{
+		final StemCache cache = new StemCache(10);
+		cache.put("aabot", "abot");
+		cache.put("aalis", "alis");
+		cache.put("akitin", "akit");
+		cache.get("aalis");
+		cache.get("aalis");
+		cache.get("akitin");
+
+		final List<Map.Entry<String, String>> hottest = cache.hottest(2);
+		assertEquals(2, hottest.size());
+		assertEquals("aalis", hottest.get(0).getKey());
+		assertEquals("alis", hottest.get(0).getValue());
+		assertEquals("akitin", hottest.get(1).getKey());
+	}
+
+	@Test
+	void testEvictsLeastRecentlyUsed()
+	{
+		final StemCache cache = new StemCache(2);
+
+		cache.put("aabot", "abot");
+		cache.put("aalis", "alis");
+		cache.get("aabot");
+		cache.put("akitin", "akit");
+
+		assertEquals("abot", cache.get("aabot"));
+		assertNull(cache.get("aalis"));
+		assertEquals("akit", cache.get("akitin"));
+		assertEquals(1, cache.stats().evictionCount());
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	void testSizeIsBounded()
+	{
+		final StemCache cache = new StemCache(1000);
+		for (int i = 0; i < 10_000; i++) {
+			cache.put("token" + i, "root" + i);
+		}
+		assertTrue(cache.size() <= 1000);
+		assertEquals(10_000 - cache.size(), cache.stats().evictionCount());
+	}
+
+	@Test
+	void testInvalidSize()
+	{
+		assertThrows(IllegalArgumentException.class, () -> new StemCache(0));
+	}
+
+	@Test
+	void testCachedStemmer()
+	{
+		final TagalogStemmer stemmer = new TagalogStemmer(100);
+
+		assertEquals("takbo", stemmer.stem("tumatakbo"));
+		assertEquals("takbo", stemmer.stem("tumatakbo"));
+		assertEquals("huli", stemmer.stem("kahuli-hulihang"));
+
+		final StemCache.Stats stats = stemmer.cacheStats();
+		assertEquals(1, stats.hitCount());
+		assertEquals(2, stats.missCount());
+		assertNull(new TagalogStemmer().cacheStats());
+	}
+}
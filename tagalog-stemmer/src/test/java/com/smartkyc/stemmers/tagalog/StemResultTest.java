@@ -0,0 +1,88 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StemResultTest
+{
+	private final TagalogStemmer stemmer = new TagalogStemmer();
+
+	@Test
+	void testBreakdown()
+	{
+		final StemResult patuloy = stemmer.analyze("Patuloy");
+		assertEquals("Patuloy", patuloy.word());
+		assertEquals("tuloy", patuloy.root());
+		assertEquals(Collections.singletonList("pa"), patuloy.prefixes());
+		assertTrue(patuloy.isStemmed());
+
+		final StemResult paghahanap = stemmer.analyze("paghahanap");
+		assertEquals("hanap", paghahanap.root());
+		assertEquals(Collections.singletonList("pag"), paghahanap.prefixes());
+		assertEquals(Collections.singletonList("ha"), paghahanap.repetitions());
+
+		final StemResult malubhang = stemmer.analyze("malubhang");
+		assertEquals("lubha", malubhang.root());
+		assertEquals(Collections.singletonList("ma"), malubhang.prefixes());
+		assertEquals(Collections.singletonList("ng"), malubhang.suffixes());
+
+		assertEquals(Collections.singletonList("um"), stemmer.analyze("kumain").infixes());
+		assertEquals(Collections.singletonList("sari"), stemmer.analyze("sari-sari").duplications());
+		assertEquals(Collections.singletonList("."), stemmer.analyze("ina.").cleaners());
+	}
+
+	@Test
+	void testRootsAndBlanks()
+	{
+		final StemResult root = stemmer.analyze("bahay");
+		assertEquals("bahay", root.root());
+		assertFalse(root.isStemmed());
+		assertTrue(root.prefixes().isEmpty());
+
+		assertEquals(" ", stemmer.analyze(" ").root());
+	}
+
+	@Test
+	void testReuse()
+	{
+		final StemResult result = new StemResult();
+
+		assertSame(result, stemmer.analyze("malubhang", result));
+		assertEquals(Arrays.asList("ma"), result.prefixes());
+
+		stemmer.analyze("kumain", result);
+		assertEquals("kain", result.root());
+		assertTrue(result.prefixes().isEmpty());
+		assertTrue(result.suffixes().isEmpty());
+		assertEquals(Collections.singletonList("um"), result.infixes());
+		assertThrows(UnsupportedOperationException.class, () -> result.infixes().clear());
+	}
+
+	@Test
+	void testSameRootsAsStem() throws IOException
+	{
+		final StemResult result = new StemResult();
+		try (InputStream stream = getClass().getResourceAsStream("/root-word.txt")) {
+			assertNotNull(stream);
+			final BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				final String word = line.split(" : ")[0].trim();
+				assertEquals(stemmer.stem(word), stemmer.analyze(word, result).root(), word);
+			}
+		}
+	}
+}
@@ -0,0 +1,323 @@
+package com.smartkyc.stemmers.tagalog;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Evaluates a stemmer against a corpus of {@code word : root} lines such as {@code root-word.txt}.
+ * <p>
+ * Reports accuracy, throughput, per-token latency percentiles, the slowest tokens, and the wrong roots grouped by the
+ * stage that last changed the token. The corpus is split between threads that share one stemmer; each token is timed on
+ * its own, so latencies include the time taken by the listener that tracks the stages.
+ */
+final class StemmerEvaluation
+{
+	/**
+	 * Group of the tokens no stage changed: known roots, and tokens the lattice engine stemmed.
+	 */
+	static final String NO_STAGE = "none";
+
+	private static final int SLOWEST = 10;
+
+	private static final int EXAMPLES = 5;
+
+	private final String[] words;
+
+	private final String[] roots;
+
+	StemmerEvaluation(final List<String[]> pairs)
+	{
+		this.words = new String[pairs.size()];
+		this.roots = new String[pairs.size()];
+		for (int i = 0; i < pairs.size(); i++) {
+			words[i] = pairs.get(i)[0];
+			roots[i] = pairs.get(i)[1];
+		}
+	}
+
+	/**
+	 * Reads lower-cased {@code word : root} pairs, skipping malformed lines.
+	 */
+	static StemmerEvaluation read(final InputStream stream) throws IOException
+	{
+		final List<String[]> pairs = new ArrayList<>();
+		final BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+		for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+			final String[] parts = line.split(" : ");
+			if (parts.length == 2) {
+				pairs.add(new String[] { parts[0].trim().toLowerCase(), parts[1].trim().toLowerCase() });
+			}
+		}
+		return new StemmerEvaluation(pairs);
+	}
+
+	int size()
+	{
+		return words.length;
+	}
+
+	/**
+	 * Describes how many tokens of the corpus are forms in {@code table}, and how many of those it maps to the expected
+	 * root.
+	 */
+	String coverage(final InflectionTable table)
+	{
+		int forms = 0;
+		int correct = 0;
+		for (int i = 0; i < words.length; i++) {
+			final String root = table.root(TokenNormalizer.normalize(words[i]));
+			if (root != null) {
+				forms++;
+				correct += root.equals(roots[i]) ? 1 : 0;
+			}
+		}
+		return String.format("Inflection table: %d forms of %d roots, covers %d of %d tokens (%.2f%%), %d correct (%.2f%%)",
+				table.size(), table.roots(), forms, words.length, forms * 100.0 / Math.max(1, words.length), correct,
+				correct * 100.0 / Math.max(1, forms));
+	}
+
+	/**
+	 * Stems the corpus {@code warmups} times untimed, then once timed, on {@code threads} threads with a stemmer built
+	 * from {@code builder}, whose listener is replaced.
+	 */
+	Report run(final TagalogStemmer.Builder builder, final int threads, final int warmups)
+			throws InterruptedException, ExecutionException
+	{
+		final LastStage lastStage = new LastStage();
+		final TagalogStemmer stemmer = builder.listener(lastStage).build();
+		stemmer.awaitReady();
+
+		final String[] stems = new String[words.length];
+		final long[] nanos = new long[words.length];
+		final StemmingStage[] stages = new StemmingStage[words.length];
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			for (int i = 0; i < warmups; i++) {
+				runSlices(executor, threads, stemmer, lastStage, stems, nanos, stages);
+			}
+			final long start = System.nanoTime();
+			runSlices(executor, threads, stemmer, lastStage, stems, nanos, stages);
+			final long elapsed = System.nanoTime() - start;
+			return new Report(this, stems, nanos, stages, elapsed, threads);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void runSlices(final ExecutorService executor, final int threads, final TagalogStemmer stemmer,
+			final LastStage lastStage, final String[] stems, final long[] nanos, final StemmingStage[] stages)
+			throws InterruptedException, ExecutionException
+	{
+		final List<Future<?>> futures = new ArrayList<>();
+		for (int thread = 0; thread < threads; thread++) {
+			final int from = (int) ((long) words.length * thread / threads);
+			final int to = (int) ((long) words.length * (thread + 1) / threads);
+			futures.add(executor.submit(() -> {
+				for (int i = from; i < to; i++) {
+					lastStage.reset();
+					final long start = System.nanoTime();
+					stems[i] = stemmer.stem(words[i]);
+					nanos[i] = System.nanoTime() - start;
+					stages[i] = lastStage.get();
+				}
+			}));
+		}
+		for (final Future<?> future : futures) {
+			future.get();
+		}
+	}
+
+	/**
+	 * Remembers the last stage that changed the token stemmed on each thread.
+	 */
+	private static final class LastStage implements StemmingListener
+	{
+		private final ThreadLocal<StemmingStage[]> last = ThreadLocal.withInitial(() -> new StemmingStage[1]);
+
+		@Override
+		public void stageCompleted(final StemmingStage stage, final boolean changed, final boolean dictionaryHit,
+				final long nanos)
+		{
+			if (changed) {
+				last.get()[0] = stage;
+			}
+		}
+
+		void reset()
+		{
+			last.get()[0] = null;
+		}
+
+		StemmingStage get()
+		{
+			return last.get()[0];
+		}
+	}
+
+	/**
+	 * Limits a {@link Report} must stay within; a limit of {@code 0} is not checked.
+	 */
+	static final class Thresholds
+	{
+		final double minAccuracy;
+
+		final double minTokensPerSecond;
+
+		final double maxP50Micros;
+
+		final double maxP99Micros;
+
+		Thresholds(final double minAccuracy, final double minTokensPerSecond, final double maxP50Micros,
+				final double maxP99Micros)
+		{
+			this.minAccuracy = minAccuracy;
+			this.minTokensPerSecond = minTokensPerSecond;
+			this.maxP50Micros = maxP50Micros;
+			this.maxP99Micros = maxP99Micros;
+		}
+	}
+
+	static final class Report
+	{
+		final int tokens;
+
+		final int correct;
+
+		final double tokensPerSecond;
+
+		final long p50Nanos;
+
+		final long p99Nanos;
+
+		final long maxNanos;
+
+		final int threads;
+
+		/**
+		 * The slowest tokens with their latency in nanoseconds, slowest first.
+		 */
+		final Map<String, Long> slowest = new LinkedHashMap<>();
+
+		/**
+		 * Number of wrong roots by the stage that last changed the token, most first.
+		 */
+		final Map<String, Integer> failuresByStage = new LinkedHashMap<>();
+
+		/**
+		 * Some wrong roots of every stage in {@link #failuresByStage}, as {@code word -> stem (expected root)}.
+		 */
+		final Map<String, List<String>> examples = new LinkedHashMap<>();
+
+		private Report(final StemmerEvaluation corpus, final String[] stems, final long[] nanos,
+				final StemmingStage[] stages, final long elapsedNanos, final int threads)
+		{
+			this.tokens = stems.length;
+			this.threads = threads;
+			this.tokensPerSecond = tokens * 1e9 / Math.max(1, elapsedNanos);
+
+			final long[] sorted = nanos.clone();
+			Arrays.sort(sorted);
+			this.p50Nanos = percentile(sorted, 0.50);
+			this.p99Nanos = percentile(sorted, 0.99);
+			this.maxNanos = sorted.length == 0 ? 0 : sorted[sorted.length - 1];
+			IntStream.range(0, tokens)
+					.boxed()
+					.sorted(Comparator.comparingLong((final Integer i) -> nanos[i]).reversed())
+					.limit(SLOWEST)
+					.forEach(i -> slowest.put(corpus.words[i], nanos[i]));
+
+			int matches = 0;
+			final Map<String, List<String>> failures = new LinkedHashMap<>();
+			for (int i = 0; i < tokens; i++) {
+				if (stems[i].equals(corpus.roots[i])) {
+					matches++;
+				} else {
+					final String stage = stages[i] == null ? NO_STAGE : stages[i].name();
+					failures.computeIfAbsent(stage, key -> new ArrayList<>())
+							.add(corpus.words[i] + " -> " + stems[i] + " (" + corpus.roots[i] + ")");
+				}
+			}
+			this.correct = matches;
+			failures.entrySet()
+					.stream()
+					.sorted(Comparator.comparingInt((final Map.Entry<String, List<String>> entry) -> entry.getValue().size())
+							.reversed())
+					.forEach(entry -> {
+						failuresByStage.put(entry.getKey(), entry.getValue().size());
+						examples.put(entry.getKey(), entry.getValue().subList(0, Math.min(EXAMPLES, entry.getValue().size())));
+					});
+		}
+
+		double accuracy()
+		{
+			return tokens == 0 ? 0 : (double) correct / tokens;
+		}
+
+		/**
+		 * Describes every threshold this report exceeds; an empty list if it is within all of them.
+		 */
+		List<String> violations(final Thresholds thresholds)
+		{
+			final List<String> violations = new ArrayList<>();
+			if (accuracy() < thresholds.minAccuracy) {
+				violations.add(String.format("accuracy %.4f < %.4f", accuracy(), thresholds.minAccuracy));
+			}
+			if (thresholds.minTokensPerSecond > 0 && tokensPerSecond < thresholds.minTokensPerSecond) {
+				violations.add(String.format("%.0f tokens/s < %.0f", tokensPerSecond, thresholds.minTokensPerSecond));
+			}
+			if (thresholds.maxP50Micros > 0 && p50Nanos / 1e3 > thresholds.maxP50Micros) {
+				violations.add(String.format("p50 %.1f us > %.1f", p50Nanos / 1e3, thresholds.maxP50Micros));
+			}
+			if (thresholds.maxP99Micros > 0 && p99Nanos / 1e3 > thresholds.maxP99Micros) {
+				violations.add(String.format("p99 %.1f us > %.1f", p99Nanos / 1e3, thresholds.maxP99Micros));
+			}
+			return violations;
+		}
+
+		@Override
+		public String toString()
+		{
+			final StringBuilder report = new StringBuilder();
+			report.append(String.format("Correct count: %d of %d (%.2f%%)%n", correct, tokens, accuracy() * 100));
+			report.append(String.format("Wrong count: %d%n", tokens - correct));
+			report.append(String.format("Throughput: %.0f tokens/s on %d threads%n", tokensPerSecond, threads));
+			report.append(String.format("Latency: p50 %.1f us, p99 %.1f us, max %.1f us%n", p50Nanos / 1e3, p99Nanos / 1e3,
+					maxNanos / 1e3));
+			report.append("Slowest tokens: ")
+					.append(slowest.entrySet()
+							.stream()
+							.map(entry -> String.format("%s %.1f us", entry.getKey(), entry.getValue() / 1e3))
+							.collect(Collectors.joining(", ")))
+					.append(System.lineSeparator());
+			report.append("Wrong roots by last changing stage:").append(System.lineSeparator());
+			for (final Map.Entry<String, Integer> entry : failuresByStage.entrySet()) {
+				report.append(String.format("  %-22s %5d  e.g. %s%n", entry.getKey(), entry.getValue(),
+						String.join(", ", examples.get(entry.getKey()))));
+			}
+			return report.toString();
+		}
+
+		private static long percentile(final long[] sorted, final double percentile)
+		{
+			if (sorted.length == 0) {
+				return 0;
+			}
+			return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+		}
+	}
+}
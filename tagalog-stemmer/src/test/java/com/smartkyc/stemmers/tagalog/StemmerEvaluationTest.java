@@ -0,0 +1,45 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StemmerEvaluationTest
+{
+	private static final String CORPUS = "paghahanap : hanap\nmalubhang : lubha\nbahay : bahay\nkumain : kain\n"
+			+ "malformed line\niinumin : inom\n";
+
+	@Test
+	void testReport() throws Exception
+	{
+		final StemmerEvaluation evaluation = StemmerEvaluation.read(
+				new ByteArrayInputStream(CORPUS.getBytes(StandardCharsets.UTF_8)));
+		assertEquals(5, evaluation.size());
+
+		final StemmerEvaluation.Report report = evaluation.run(TagalogStemmer.builder(), 2, 0);
+		assertEquals(5, report.tokens);
+		assertEquals(4, report.correct);
+		assertEquals(0.8, report.accuracy(), 1e-9);
+		assertEquals(Collections.singletonMap("PREFIX", 1), report.failuresByStage);
+		assertEquals(Collections.singletonList("iinumin -> umin (inom)"), report.examples.get("PREFIX"));
+		assertEquals(5, report.slowest.size());
+		assertTrue(report.p50Nanos <= report.p99Nanos && report.p99Nanos <= report.maxNanos);
+		assertTrue(report.toString().contains("Correct count: 4 of 5"));
+	}
+
+	@Test
+	void testViolations() throws Exception
+	{
+		final StemmerEvaluation.Report report = StemmerEvaluation.read(
+				new ByteArrayInputStream(CORPUS.getBytes(StandardCharsets.UTF_8))).run(TagalogStemmer.builder(), 1, 0);
+
+		assertTrue(report.violations(new StemmerEvaluation.Thresholds(0.8, 0, 0, 0)).isEmpty());
+		assertEquals(1, report.violations(new StemmerEvaluation.Thresholds(0.9, 0, 0, 0)).size());
+		assertEquals(3, report.violations(new StemmerEvaluation.Thresholds(0.9, Double.MAX_VALUE, 1e-6, 0)).size());
+	}
+}
@@ -0,0 +1,67 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StemmingMetricsTest
+{
+	@Test
+	void testCountsStages()
+	{
+		final StemmingMetrics metrics = new StemmingMetrics();
+		final TagalogStemmer stemmer = new TagalogStemmer(null, metrics);
+
+		assertEquals("takbo", stemmer.stem("tumatakbo"));
+		assertEquals("dalawa", stemmer.stem("ikalawang"));
+
+		assertEquals(2, metrics.invocations(StemmingStage.ORDINALS));
+		assertEquals(1, metrics.changes(StemmingStage.ORDINALS));
+		assertEquals(1, metrics.dictionaryHits(StemmingStage.ORDINALS));
+		// both tokens reach a root before the last stage, so only stages that may change a root run after that
+		assertEquals(2, metrics.invocations(StemmingStage.PREFIX));
+		assertEquals(0, metrics.invocations(StemmingStage.STEMMED));
+		assertEquals(2, metrics.invocations(StemmingStage.R_BETWEEN_VOWELS));
+		assertTrue(metrics.nanos(StemmingStage.PREFIX) > 0);
+		assertEquals(0, metrics.secondPasses());
+		assertEquals(0, metrics.failures());
+	}
+
+	@Test
+	void testSecondPassAndRootsAreReported()
+	{
+		final List<StemmingStage> stages = new ArrayList<>();
+		final StemmingListener listener = new StemmingListener()
+		{
+			@Override
+			public void stageCompleted(final StemmingStage stage, final boolean changed, final boolean dictionaryHit,
+					final long nanos)
+			{
+				stages.add(stage);
+			}
+		};
+		final TagalogStemmer stemmer = new TagalogStemmer(null, listener);
+
+		stemmer.stem("bahay");
+		assertTrue(stages.isEmpty());
+
+		stemmer.stem("xyzxyzqq");
+		assertEquals(34, stages.size());
+		assertEquals(StemmingStage.DUPLICATION, stages.get(19));
+	}
+
+	@Test
+	void testFailuresAreCounted()
+	{
+		final StemmingMetrics metrics = new StemmingMetrics();
+		final TagalogStemmer stemmer = new TagalogStemmer(null, metrics);
+
+		// the prefix rules index past the end of a token that is exactly a prefix
+		assertEquals("magpapaka", stemmer.stem("magpapaka"));
+		assertEquals(1, metrics.failures());
+	}
+}
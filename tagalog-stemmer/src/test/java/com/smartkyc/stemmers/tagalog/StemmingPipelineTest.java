@@ -0,0 +1,89 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StemmingPipelineTest
+{
+	@Test
+	void testStopsAtRoot()
+	{
+		final List<StemmingStage> stages = new ArrayList<>();
+		final TagalogStemmer stemmer = new TagalogStemmer(null, recorder(stages));
+
+		assertEquals("dalawa", stemmer.stem("ikalawang"));
+		assertEquals(Arrays.asList(StemmingStage.ORDINALS, StemmingStage.I_PREFIX, StemmingStage.R_BETWEEN_VOWELS), stages);
+	}
+
+	@Test
+	void testSkipsSecondPassWhenNothingChanged()
+	{
+		final List<StemmingStage> stages = new ArrayList<>();
+		final StemmingMetrics metrics = new StemmingMetrics();
+		final TagalogStemmer stemmer = TagalogStemmer.builder().listener(new StemmingListener()
+		{
+			@Override
+			public void stageCompleted(final StemmingStage stage, final boolean changed, final boolean dictionaryHit,
+					final long nanos)
+			{
+				stages.add(stage);
+				metrics.stageCompleted(stage, changed, dictionaryHit, nanos);
+			}
+
+			@Override
+			public void secondPassStarted()
+			{
+				metrics.secondPassStarted();
+			}
+		}).build();
+
+		assertEquals("salamatpo", stemmer.stem("salamatpo"));
+		assertEquals(19, stages.size());
+		assertEquals(0, metrics.secondPasses());
+
+		stages.clear();
+		assertEquals("yzzy", stemmer.stem("xyzzy"));
+		assertEquals(34, stages.size());
+		assertEquals(1, metrics.secondPasses());
+	}
+
+	@Test
+	void testSelectedStages()
+	{
+		final List<StemmingStage> stages = new ArrayList<>();
+		final TagalogStemmer stemmer = TagalogStemmer.builder()
+				.stages(EnumSet.complementOf(EnumSet.of(StemmingStage.ORDINALS, StemmingStage.NUMBERS)))
+				.listener(recorder(stages))
+				.build();
+
+		assertFalse(stemmer.stages().contains(StemmingStage.ORDINALS));
+		assertEquals("takbo", stemmer.stem("tumatakbo"));
+		assertFalse(stages.contains(StemmingStage.ORDINALS));
+		assertFalse(stages.contains(StemmingStage.NUMBERS));
+		assertTrue(stages.contains(StemmingStage.INFIX));
+
+		final TagalogStemmer none = TagalogStemmer.builder().stages(EnumSet.noneOf(StemmingStage.class)).build();
+		assertEquals("tumatakbo", none.stem("tumatakbo"));
+	}
+
+	private static StemmingListener recorder(final List<StemmingStage> stages)
+	{
+		return new StemmingListener()
+		{
+			@Override
+			public void stageCompleted(final StemmingStage stage, final boolean changed, final boolean dictionaryHit,
+					final long nanos)
+			{
+				stages.add(stage);
+			}
+		};
+	}
+}
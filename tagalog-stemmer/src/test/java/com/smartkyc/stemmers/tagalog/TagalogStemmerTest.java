@@ -6,44 +6,74 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class TagalogStemmerTest
 {
+	/**
+	 * Accuracy of the pipeline on {@code root-word.txt}, 15913 of 17764 words.
+	 */
+	private static final double MIN_ACCURACY = 0.8958;
+
+	/**
+	 * Evaluates the stemmer on {@code root-word.txt}, or on the corpus given by {@code -Deval.corpus}, and fails if the
+	 * results fall short of the thresholds set with {@code -Deval.minAccuracy}, {@code -Deval.minTokensPerSecond},
+	 * {@code -Deval.maxP50Micros} and {@code -Deval.maxP99Micros}. Only the accuracy on the bundled corpus is checked by
+	 * default. {@code -Deval.engine}, {@code -Deval.threads} and {@code -Deval.warmups} configure the run;
+	 * {@code -Deval.inflections=true} adds the bundled {@link InflectionTable} and reports its coverage.
+	 */
 	@Test
-	void verifyRootWords()
+	void verifyRootWords() throws IOException, InterruptedException, ExecutionException
 	{
-		final InputStream inputStream = getClass().getResourceAsStream("/root-word.txt");
-		final TagalogStemmer stemmer = new TagalogStemmer();
-		if (inputStream != null) {
-			try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
-				String line;
-				int correctCount = 0;
-				int wrongCount = 0;
-				while ((line = reader.readLine()) != null) {
-					final String[] parts = line.split(" : ");
-					if (parts.length == 2) {
-						final String word = parts[0].trim();
-						final String root = parts[1].trim();
-						final String stem = stemmer.stem(word.toLowerCase());
-						if (stem.equals(root.toLowerCase())) {
-							correctCount++;
-						} else {
-							//							System.out.println("Original word: " + word + " stemmed:" + stem + ". Expected(root): " + root);
-							wrongCount++;
-						}
-					}
-				}
-				System.out.println("Correct count: " + correctCount);
-				System.out.println("Wrong count: " + wrongCount);
-			} catch (final IOException e) {
-				e.printStackTrace();
-			}
-		} else {
-			System.err.println("Could not load resource file.");
+		final String corpus = System.getProperty("eval.corpus");
+		final StemmerEvaluation evaluation;
+		try (InputStream stream = corpus == null ? getClass().getResourceAsStream("/root-word.txt") :
+				Files.newInputStream(Paths.get(corpus))) {
+			assertNotNull(stream, "Could not load resource file.");
+			evaluation = StemmerEvaluation.read(stream);
 		}
+
+		final InflectionTable inflections = Boolean.getBoolean("eval.inflections") ? InflectionTable.bundled() : null;
+		final StemmerEvaluation.Report report = evaluation.run(TagalogStemmer.builder()
+						.engine(StemmingEngine.valueOf(System.getProperty("eval.engine", "PIPELINE")))
+						.inflections(inflections), Integer.getInteger("eval.threads", Runtime.getRuntime().availableProcessors()),
+				Integer.getInteger("eval.warmups", 1));
+		System.out.println(report);
+		if (inflections != null) {
+			System.out.println(evaluation.coverage(inflections));
+		}
+
+		final StemmerEvaluation.Thresholds thresholds = new StemmerEvaluation.Thresholds(
+				doubleProperty("eval.minAccuracy", corpus == null ? MIN_ACCURACY : 0),
+				doubleProperty("eval.minTokensPerSecond", 0), doubleProperty("eval.maxP50Micros", 0),
+				doubleProperty("eval.maxP99Micros", 0));
+		final List<String> violations = report.violations(thresholds);
+		assertTrue(violations.isEmpty(), () -> "Evaluation below thresholds: " + violations);
+	}
+
+	private static double doubleProperty(final String name, final double defaultValue)
+	{
+		final String value = System.getProperty(name);
+		return value == null ? defaultValue : Double.parseDouble(value);
 	}
 
 	@Test
@@ -282,4 +312,77 @@ class TagalogStemmerTest
 		final String stem7 = stemmer.stem("4");
 		assertEquals("4", stem7);
 	}
+
+	@Test
+	void testStemBuffer()
+	{
+		final TagalogStemmer stemmer = new TagalogStemmer();
+
+		final char[] buffer = "tumatakbo   ".toCharArray();
+		final int length = stemmer.stem(buffer, 9);
+		assertEquals("takbo", new String(buffer, 0, length));
+
+		final char[] root = "huli".toCharArray();
+		assertEquals(4, stemmer.stem(root, 4));
+		assertEquals("huli", new String(root));
+
+		final char[] hyphenated = "kahuli-hulihang".toCharArray();
+		assertEquals("huli", new String(hyphenated, 0, stemmer.stem(hyphenated, hyphenated.length)));
+
+		final char[] blank = "  ".toCharArray();
+		assertEquals(2, stemmer.stem(blank, 2));
+		assertEquals(0, stemmer.stem(new char[0], 0));
+	}
+
+	@Test
+	void testStemAll()
+	{
+		final TagalogStemmer stemmer = new TagalogStemmer();
+
+		final String[] tokens = { "tumatakbo", "aabutin", null, "tumatakbo", "bahay", "" };
+		final String[] roots = { "takbo", "abot", null, "takbo", "bahay", "" };
+		assertArrayEquals(roots, stemmer.stemAll(tokens));
+		assertArrayEquals(roots, stemmer.stemAll(tokens, null, 0));
+		assertEquals(Arrays.asList(roots), stemmer.stemAll(Arrays.asList(tokens)));
+		assertEquals(Arrays.asList("takbo", "abot"), stemmer.stemAll(Stream.of("tumatakbo", "aabutin")));
+	}
+
+	@Test
+	void testStemAllParallel() throws InterruptedException
+	{
+		final TagalogStemmer stemmer = new TagalogStemmer();
+		final List<String> words = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			words.addAll(readRootWords().keySet());
+		}
+		final List<String> expected = words.stream().map(stemmer::stem).collect(Collectors.toList());
+
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			assertEquals(expected, stemmer.stemAll(words, executor, 1));
+			assertEquals(expected, stemmer.stemAll(words));
+		} finally {
+			executor.shutdown();
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+		}
+	}
+
+	private Map<String, String> readRootWords()
+	{
+		final Map<String, String> rootWords = new LinkedHashMap<>();
+		final InputStream inputStream = getClass().getResourceAsStream("/root-word.txt");
+		assertNotNull(inputStream);
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				final String[] parts = line.split(" : ");
+				if (parts.length == 2) {
+					rootWords.put(parts[0].trim().toLowerCase(), parts[1].trim().toLowerCase());
+				}
+			}
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return rootWords;
+	}
 }
@@ -0,0 +1,122 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class TagalogTextStemmerTest
+{
+	private static final String TEXT = "Patuloy pa din sila sa paghahanap ng posibleng gamot sa malubhang sakit ng dinaramdam ng "
+			+ "kanyang ina.";
+
+	@Test
+	void testStemReader() throws IOException
+	{
+		final List<String> pairs = new ArrayList<>();
+		new TagalogTextStemmer().stem(new StringReader(TEXT), (word, root) -> pairs.add(word + " : " + root));
+
+		assertEquals(17, pairs.size());
+		assertEquals("Patuloy : tuloy", pairs.get(0));
+		assertEquals("paghahanap : hanap", pairs.get(5));
+		assertEquals("ina : ina", pairs.get(16));
+	}
+
+	@Test
+	void testStemInputStream() throws IOException
+	{
+		final List<String> roots = new ArrayList<>();
+		new TagalogTextStemmer().stem(new ByteArrayInputStream("kahuli-hulihang, --tumatakbo-- (aabutin)!".getBytes(
+				StandardCharsets.UTF_8)), (word, root) -> roots.add(root));
+
+		assertEquals(Arrays.asList("huli", "takbo", "abot"), roots);
+
+		roots.clear();
+		new TagalogTextStemmer().stem(new StringReader("Bahay NI\u00D1O Pinakamaganda"), (word, root) -> roots.add(root));
+		assertEquals(Arrays.asList("Bahay", "nino", "ganda"), roots);
+	}
+
+	@Test
+	void testIterator()
+	{
+		final Iterator<StemmedWord> iterator = new TagalogTextStemmer().iterator(new StringReader("pag-aalagang  bumubuhay\n"));
+
+		assertEquals(new StemmedWord("pag-aalagang", "alaga"), iterator.next());
+		assertEquals(new StemmedWord("bumubuhay", "buhay"), iterator.next());
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	void testLargeInput() throws IOException
+	{
+		final long repetitions = 30_000;
+		final AtomicLong count = new AtomicLong();
+		new TagalogTextStemmer(new TagalogStemmer(1000)).stem(new RepeatingReader(TEXT + ' ', repetitions),
+				(word, root) -> count.incrementAndGet());
+
+		assertEquals(17 * repetitions, count.get());
+	}
+
+	@Test
+	void testLongWordsAreSplit() throws IOException
+	{
+		final char[] longWord = new char[TextTokenizer.MAX_WORD_LENGTH + 10];
+		Arrays.fill(longWord, 'a');
+		final List<String> words = new ArrayList<>();
+		new TagalogTextStemmer().stem(new StringReader(new String(longWord)), (word, root) -> words.add(word));
+
+		assertEquals(2, words.size());
+		assertEquals(TextTokenizer.MAX_WORD_LENGTH, words.get(0).length());
+	}
+
+	/**
+	 * Generates {@code text} {@code times} times without materializing it.
+	 */
+	private static final class RepeatingReader extends Reader
+	{
+		private final String text;
+
+		private long remaining;
+
+		private int position;
+
+		RepeatingReader(final String text, final long times)
+		{
+			this.text = text;
+			this.remaining = times;
+		}
+
+		@Override
+		public int read(final char[] buffer, final int offset, final int length)
+		{
+			if (remaining == 0) {
+				return -1;
+			}
+			int read = 0;
+			while (read < length && remaining > 0) {
+				buffer[offset + read++] = text.charAt(position++);
+				if (position == text.length()) {
+					position = 0;
+					remaining--;
+				}
+			}
+			return read;
+		}
+
+		@Override
+		public void close()
+		{
+		}
+	}
+}
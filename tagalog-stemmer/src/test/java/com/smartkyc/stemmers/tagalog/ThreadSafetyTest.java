@@ -0,0 +1,166 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Enforces the thread-safety contract documented on {@link TagalogStemmer}.
+ */
+class ThreadSafetyTest
+{
+	private static final int THREADS = 16;
+
+	/**
+	 * Types that are immutable or thread-safe and may therefore be held in fields of a shared stemmer.
+	 */
+	private static final Set<Class<?>> SHARED_TYPES = new HashSet<>(Arrays.asList(DictionarySource.class, Executor.class,
+			StemCache.class, StemmingListener.class, Set.class, StemmingPipeline.class, RootStore.class,
+			FilteredRootStore.class, StemmingEngine.class, LongAdder.class, InflectionTable.class));
+
+	@Test
+	void testFieldsAreSafelyShared()
+	{
+		for (final Field field : TagalogStemmer.class.getDeclaredFields()) {
+			final int modifiers = field.getModifiers();
+			if (Modifier.isStatic(modifiers) || field.isSynthetic()) {
+				continue;
+			}
+			assertTrue(Modifier.isFinal(modifiers) || Modifier.isVolatile(modifiers),
+					field.getName() + " must be final, or volatile if set lazily");
+			assertTrue(SHARED_TYPES.contains(field.getType()),
+					field.getName() + " holds a " + field.getType().getSimpleName()
+							+ ", which is not known to be thread-safe; keep per-call state in StemResult");
+		}
+	}
+
+	@Test
+	void testConcurrentStemmingMatchesSingleThreaded() throws Exception
+	{
+		final String[] words = readWords();
+		final String[] expected = new TagalogStemmer().stemAll(words, null, Integer.MAX_VALUE);
+
+		assertConcurrentRoots(new TagalogStemmer(), words, expected);
+		// a cache much smaller than the corpus keeps evicting while other threads read it
+		assertConcurrentRoots(new TagalogStemmer(1024), words, expected);
+		final StemmingMetrics metrics = new StemmingMetrics();
+		assertConcurrentRoots(new TagalogStemmer(new StemCache(4096), metrics), words, expected);
+		assertEquals(0, metrics.failures() % THREADS);
+	}
+
+	@Test
+	void testConcurrentAnalysisMatchesSingleThreaded() throws Exception
+	{
+		final String[] words = readWords();
+		final TagalogStemmer stemmer = new TagalogStemmer();
+		final String[] expected = stemmer.stemAll(words, null, Integer.MAX_VALUE);
+
+		runConcurrently(offset -> {
+			final StemResult result = new StemResult();
+			final String[] roots = new String[words.length];
+			for (int i = 0; i < words.length; i++) {
+				final int index = (i + offset) % words.length;
+				roots[index] = stemmer.analyze(words[index], result).root();
+			}
+			return roots;
+		}, expected);
+	}
+
+	@Test
+	void testListenerMayStemReentrantly()
+	{
+		final TagalogStemmer inner = new TagalogStemmer();
+		final TagalogStemmer outer = new TagalogStemmer(null, new StemmingListener()
+		{
+			@Override
+			public void stageCompleted(final StemmingStage stage, final boolean changed, final boolean dictionaryHit,
+					final long nanos)
+			{
+				inner.stem("pinakamaganda");
+			}
+		});
+
+		assertEquals("takbo", outer.stem("tumatakbo"));
+		assertEquals(inner.stem("kumain"), outer.stem("kumain"));
+	}
+
+	private static void assertConcurrentRoots(final TagalogStemmer stemmer, final String[] words, final String[] expected)
+			throws Exception
+	{
+		runConcurrently(offset -> {
+			final String[] roots = new String[words.length];
+			// every thread starts at another word so that threads stem different words at the same time
+			for (int i = 0; i < words.length; i++) {
+				final int index = (i + offset) % words.length;
+				roots[index] = stemmer.stem(words[index]);
+			}
+			return roots;
+		}, expected);
+	}
+
+	private static void runConcurrently(final Task task, final String[] expected) throws Exception
+	{
+		final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			final CountDownLatch start = new CountDownLatch(1);
+			final List<Future<String[]>> futures = new ArrayList<>();
+			for (int thread = 0; thread < THREADS; thread++) {
+				final int offset = thread * expected.length / THREADS;
+				futures.add(executor.submit(() -> {
+					start.await();
+					return task.run(offset);
+				}));
+			}
+			start.countDown();
+			for (final Future<String[]> future : futures) {
+				assertArrayEquals(expected, future.get(2, TimeUnit.MINUTES));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static String[] readWords() throws IOException
+	{
+		final List<String> words = new ArrayList<>();
+		try (InputStream stream = ThreadSafetyTest.class.getResourceAsStream("/root-word.txt")) {
+			assertNotNull(stream);
+			final BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				final String[] parts = line.split(" : ");
+				if (parts.length == 2) {
+					words.add(parts[0].trim());
+				}
+			}
+		}
+		return words.toArray(new String[0]);
+	}
+
+	private interface Task
+	{
+		String[] run(int offset) throws Exception;
+	}
+}
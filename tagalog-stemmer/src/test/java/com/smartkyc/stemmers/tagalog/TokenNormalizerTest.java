@@ -0,0 +1,110 @@
+package com.smartkyc.stemmers.tagalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenNormalizerTest
+{
+	@Test
+	void testAscii()
+	{
+		final String lower = "pag-aalaga";
+		assertSame(lower, TokenNormalizer.normalize(lower));
+		assertSame("", TokenNormalizer.normalize(""));
+		assertEquals("paghahanap", TokenNormalizer.normalize("PagHahanaP"));
+		assertEquals("kahuli-hulihang", TokenNormalizer.normalize("KAHULI-HULIHANG"));
+		assertEquals("@[`{", TokenNormalizer.normalize("@[`{"));
+		assertEquals("ina.", TokenNormalizer.normalize("Ina."));
+	}
+
+	@Test
+	void testDiacritics()
+	{
+		assertEquals("nino", TokenNormalizer.normalize("Niño"));
+		assertEquals("aso", TokenNormalizer.normalize("áSÒ"));
+		assertEquals("paranaque", TokenNormalizer.normalize("PARAÑAQUE"));
+		// decomposed input: a followed by a combining acute accent
+		assertEquals("aso", TokenNormalizer.normalize("áso"));
+		assertEquals("straße", TokenNormalizer.normalize("Straße"));
+	}
+
+	@Test
+	void testPunctuation()
+	{
+		assertEquals("mag-isa", TokenNormalizer.normalize("mag–isa"));
+		assertEquals("mag-isa", TokenNormalizer.normalize("mag‑isa"));
+		assertEquals("mag-isa", TokenNormalizer.normalize("mag−isa"));
+		assertEquals("ta'yo", TokenNormalizer.normalize("ta’yo"));
+		assertEquals("\"ina\"", TokenNormalizer.normalize("“Ina”"));
+		assertEquals("pagkain", TokenNormalizer.normalize("pag­ka​in"));
+	}
+
+	@Test
+	void testIndependentOfDefaultLocale()
+	{
+		final Locale locale = Locale.getDefault();
+		try {
+			// Turkish lower-cases I to a dotless i
+			Locale.setDefault(new Locale("tr", "TR"));
+			assertEquals("pinakamaganda", TokenNormalizer.normalize("PINAKAMAGANDA"));
+			assertEquals("ganda", new TagalogStemmer().stem("PINAKAMAGANDA"));
+		} finally {
+			Locale.setDefault(locale);
+		}
+	}
+
+	@Test
+	void testStemmerNormalizesOnce()
+	{
+		final TagalogStemmer stemmer = new TagalogStemmer();
+		assertEquals("aso", stemmer.stem("Áso"));
+		assertEquals("isa", stemmer.stem("mag–isa"));
+		assertEquals("hanap", stemmer.stem("PAGHAHANAP"));
+		assertEquals("alaga", stemmer.stem("pag‑aalagang"));
+		// known roots are answered as given
+		assertEquals("Bahay", stemmer.stem("Bahay"));
+
+		final StemResult result = stemmer.analyze("Pinakamagandá");
+		assertEquals("Pinakamagandá", result.word());
+		assertEquals("ganda", result.root());
+		assertEquals("ganda", TagalogStemmer.builder().engine(StemmingEngine.LATTICE).build().stem("Pinakamagandá"));
+	}
+
+	@Test
+	void testNothingLeftAfterNormalization()
+	{
+		final TagalogStemmer stemmer = new TagalogStemmer();
+		for (final String token : Arrays.asList("\u00AD", "\u200B", "\u00A0")) {
+			assertEquals(token, stemmer.stem(token));
+			assertEquals(token, stemmer.analyze(token).root());
+			final char[] buffer = token.toCharArray();
+			assertEquals(1, stemmer.stem(buffer, 1));
+			assertEquals(token, new String(buffer));
+		}
+		assertEquals("\u00A0", TokenNormalizer.normalize("\u00A0"));
+	}
+
+	@Test
+	void testTokenizer() throws Exception
+	{
+		final TextTokenizer tokenizer = new TextTokenizer(new StringReader("mag–isa, ka­in  nĩno — bahay"));
+		final List<String> words = new ArrayList<>();
+		for (String word = tokenizer.next(); word != null; word = tokenizer.next()) {
+			words.add(word);
+		}
+		assertEquals(Arrays.asList("mag-isa", "ka­in", "nĩno", "bahay"), words);
+		assertTrue(TokenNormalizer.isHyphen('—'));
+		assertFalse(TokenNormalizer.isHyphen('_'));
+		assertTrue(TokenNormalizer.isIgnorable('̃'));
+	}
+}